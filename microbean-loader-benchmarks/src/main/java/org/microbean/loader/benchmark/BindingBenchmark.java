@@ -0,0 +1,374 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2022 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package org.microbean.loader.benchmark;
+
+import java.io.IOException;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import com.fasterxml.jackson.dataformat.yaml.YAMLMapper;
+
+import org.microbean.loader.jackson.BlackbirdObjectMapperCustomizer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares binding an already-parsed YAML tree, as {@link
+ * org.microbean.loader.jackson.JacksonProvider} does, to a nested
+ * graph of records and JavaBeans by Jackson's ordinary reflective
+ * access with binding by accessors generated by the Jackson Blackbird
+ * module, as registered by an {@linkplain
+ * BlackbirdObjectMapperCustomizer#enabled() enabled} {@link
+ * BlackbirdObjectMapperCustomizer}.
+ *
+ * @author <a href="https://about.me/lairdnelson"
+ * target="_parent">Laird Nelson</a>
+ *
+ * @see BlackbirdObjectMapperCustomizer
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+public class BindingBenchmark {
+
+
+  /*
+   * Instance fields.
+   */
+
+
+  /**
+   * The shape of the bound document, as the number of endpoints and
+   * the number of data sources separated by an {@code x}.
+   */
+  @Param({ "4x2", "64x16", "1024x128" })
+  public String shape;
+
+  private JsonNode tree;
+
+  private ObjectReader reflection;
+
+  private ObjectReader blackbird;
+
+
+  /*
+   * Constructors.
+   */
+
+
+  /**
+   * Creates a new {@link BindingBenchmark}.
+   */
+  public BindingBenchmark() {
+    super();
+  }
+
+
+  /*
+   * Instance methods.
+   */
+
+
+  /**
+   * Parses the document of the current {@linkplain #shape shape} and
+   * creates the {@link ObjectReader}s under test.
+   *
+   * @exception IOException if the document could not be parsed
+   *
+   * @exception IllegalStateException if Blackbird is not present
+   */
+  @Setup(Level.Trial)
+  public void createReaders() throws IOException {
+    if (!BlackbirdObjectMapperCustomizer.available()) {
+      throw new IllegalStateException("Blackbird is not available");
+    }
+    final int x = this.shape.indexOf('x');
+    this.tree =
+      new YAMLMapper().readTree(document(Integer.parseInt(this.shape.substring(0, x)), Integer.parseInt(this.shape.substring(x + 1))));
+    this.reflection = new YAMLMapper().readerFor(Service.class);
+    final YAMLMapper mapper = new YAMLMapper();
+    new BlackbirdObjectMapperCustomizer(true).customize(mapper);
+    this.blackbird = mapper.readerFor(Service.class);
+  }
+
+  /**
+   * Binds the document using Jackson's ordinary reflective access.
+   *
+   * @return the bound {@link Service}
+   *
+   * @exception IOException if the document could not be bound
+   */
+  @Benchmark
+  public Service reflection() throws IOException {
+    return this.reflection.readValue(this.tree);
+  }
+
+  /**
+   * Binds the document using accessors generated by Blackbird.
+   *
+   * @return the bound {@link Service}
+   *
+   * @exception IOException if the document could not be bound
+   */
+  @Benchmark
+  public Service blackbird() throws IOException {
+    return this.blackbird.readValue(this.tree);
+  }
+
+
+  /*
+   * Static methods.
+   */
+
+
+  private static final String document(final int endpoints, final int dataSources) {
+    final StringBuilder sb = new StringBuilder();
+    sb.append("name: inventory\n");
+    sb.append("version: 42\n");
+    sb.append("enabled: true\n");
+    sb.append("endpoints:\n");
+    for (int i = 0; i < endpoints; i++) {
+      sb.append("  - host: host-").append(i).append(".example.com\n");
+      sb.append("    port: ").append(8000 + i).append('\n');
+      sb.append("    tls: ").append(i % 2 == 0).append('\n');
+      sb.append("    timeouts:\n");
+      sb.append("      connectMillis: ").append(100 + i).append('\n');
+      sb.append("      readMillis: ").append(1000 + i).append('\n');
+      sb.append("    tags: [a, b, c]\n");
+    }
+    sb.append("dataSources:\n");
+    for (int i = 0; i < dataSources; i++) {
+      sb.append("  ds").append(i).append(":\n");
+      sb.append("    url: jdbc:postgresql://db-").append(i).append("/inventory\n");
+      sb.append("    user: app\n");
+      sb.append("    minimumIdle: ").append(i % 4).append('\n');
+      sb.append("    maximumPoolSize: ").append(10 + i).append('\n');
+      sb.append("    idleTimeoutMillis: ").append(60_000L * (i + 1)).append('\n');
+      sb.append("    autoCommit: ").append(i % 3 != 0).append('\n');
+    }
+    return sb.toString();
+  }
+
+
+  /*
+   * Inner and nested classes.
+   */
+
+
+  /**
+   * A representative service configuration.
+   *
+   * @param name the service's name
+   *
+   * @param version the service's version
+   *
+   * @param enabled whether the service is enabled
+   *
+   * @param endpoints the service's {@link Endpoint}s
+   *
+   * @param dataSources the service's {@link DataSource}s, indexed by
+   * name
+   */
+  public static record Service(String name,
+                               int version,
+                               boolean enabled,
+                               List<Endpoint> endpoints,
+                               LinkedHashMap<String, DataSource> dataSources) {}
+
+  /**
+   * A representative endpoint configuration.
+   *
+   * @param host the endpoint's host
+   *
+   * @param port the endpoint's port
+   *
+   * @param tls whether the endpoint uses TLS
+   *
+   * @param timeouts the endpoint's {@link Timeouts}
+   *
+   * @param tags the endpoint's tags
+   */
+  public static record Endpoint(String host, int port, boolean tls, Timeouts timeouts, List<String> tags) {}
+
+  /**
+   * A representative timeout configuration.
+   *
+   * @param connectMillis the connect timeout in milliseconds
+   *
+   * @param readMillis the read timeout in milliseconds
+   */
+  public static record Timeouts(long connectMillis, long readMillis) {}
+
+  /**
+   * A representative data source configuration in the form of a
+   * JavaBean.
+   *
+   * @author <a href="https://about.me/lairdnelson"
+   * target="_parent">Laird Nelson</a>
+   */
+  public static final class DataSource {
+
+    private String url;
+
+    private String user;
+
+    private int minimumIdle;
+
+    private int maximumPoolSize;
+
+    private long idleTimeoutMillis;
+
+    private boolean autoCommit;
+
+    /**
+     * Creates a new {@link DataSource}.
+     */
+    public DataSource() {
+      super();
+    }
+
+    /**
+     * Returns the URL.
+     *
+     * @return the URL
+     */
+    public final String getUrl() {
+      return this.url;
+    }
+
+    /**
+     * Sets the URL.
+     *
+     * @param url the URL
+     */
+    public final void setUrl(final String url) {
+      this.url = url;
+    }
+
+    /**
+     * Returns the user.
+     *
+     * @return the user
+     */
+    public final String getUser() {
+      return this.user;
+    }
+
+    /**
+     * Sets the user.
+     *
+     * @param user the user
+     */
+    public final void setUser(final String user) {
+      this.user = user;
+    }
+
+    /**
+     * Returns the minimum number of idle connections.
+     *
+     * @return the minimum number of idle connections
+     */
+    public final int getMinimumIdle() {
+      return this.minimumIdle;
+    }
+
+    /**
+     * Sets the minimum number of idle connections.
+     *
+     * @param minimumIdle the minimum number of idle connections
+     */
+    public final void setMinimumIdle(final int minimumIdle) {
+      this.minimumIdle = minimumIdle;
+    }
+
+    /**
+     * Returns the maximum pool size.
+     *
+     * @return the maximum pool size
+     */
+    public final int getMaximumPoolSize() {
+      return this.maximumPoolSize;
+    }
+
+    /**
+     * Sets the maximum pool size.
+     *
+     * @param maximumPoolSize the maximum pool size
+     */
+    public final void setMaximumPoolSize(final int maximumPoolSize) {
+      this.maximumPoolSize = maximumPoolSize;
+    }
+
+    /**
+     * Returns the idle timeout in milliseconds.
+     *
+     * @return the idle timeout in milliseconds
+     */
+    public final long getIdleTimeoutMillis() {
+      return this.idleTimeoutMillis;
+    }
+
+    /**
+     * Sets the idle timeout in milliseconds.
+     *
+     * @param idleTimeoutMillis the idle timeout in milliseconds
+     */
+    public final void setIdleTimeoutMillis(final long idleTimeoutMillis) {
+      this.idleTimeoutMillis = idleTimeoutMillis;
+    }
+
+    /**
+     * Returns whether connections auto-commit.
+     *
+     * @return whether connections auto-commit
+     */
+    public final boolean isAutoCommit() {
+      return this.autoCommit;
+    }
+
+    /**
+     * Sets whether connections auto-commit.
+     *
+     * @param autoCommit whether connections auto-commit
+     */
+    public final void setAutoCommit(final boolean autoCommit) {
+      this.autoCommit = autoCommit;
+    }
+
+  }
+
+}
@@ -0,0 +1,166 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2022 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package org.microbean.loader.benchmark;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+
+import java.util.List;
+
+import java.util.concurrent.TimeUnit;
+
+import org.microbean.loader.DefaultLoader;
+import org.microbean.loader.ProxyingProvider;
+
+import org.microbean.loader.spi.LoaderFacade;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import static org.microbean.loader.api.Loader.loader;
+
+/**
+ * Compares the dispatch of a {@link LoaderFacade}'s {@code default}
+ * method through a {@link ProxyingProvider} proxy with its dispatch
+ * through {@link InvocationHandler#invokeDefault(Object,
+ * java.lang.reflect.Method, Object...)}.
+ *
+ * @author <a href="https://about.me/lairdnelson"
+ * target="_parent">Laird Nelson</a>
+ *
+ * @see FacadeBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+public class DefaultMethodDispatchBenchmark {
+
+
+  /*
+   * Instance fields.
+   */
+
+
+  private Timeouts facade;
+
+  private Timeouts invokeDefault;
+
+
+  /*
+   * Constructors.
+   */
+
+
+  /**
+   * Creates a new {@link DefaultMethodDispatchBenchmark}.
+   */
+  public DefaultMethodDispatchBenchmark() {
+    super();
+  }
+
+
+  /*
+   * Instance methods.
+   */
+
+
+  /**
+   * Creates the {@link Timeouts} implementations under test.
+   */
+  @Setup(Level.Trial)
+  public void createFacades() {
+    this.facade = ((DefaultLoader<?>)loader()).with(List.of(new ProxyingProvider(true))).load(Timeouts.class).get();
+    this.invokeDefault =
+      (Timeouts)Proxy.newProxyInstance(Timeouts.class.getClassLoader(),
+                                       new Class<?>[] { Timeouts.class },
+                                       (p, m, a) -> InvocationHandler.invokeDefault(p, m, a));
+  }
+
+  /**
+   * Calls a {@code default} method on a {@link ProxyingProvider}
+   * proxy.
+   *
+   * @return the result of the call
+   */
+  @Benchmark
+  public int facade() {
+    return this.facade.getReadTimeout();
+  }
+
+  /**
+   * Calls a {@code default} method on a proxy whose {@link
+   * InvocationHandler} uses {@link
+   * InvocationHandler#invokeDefault(Object, java.lang.reflect.Method,
+   * Object...)}.
+   *
+   * @return the result of the call
+   */
+  @Benchmark
+  public int invokeDefault() {
+    return this.invokeDefault.getReadTimeout();
+  }
+
+
+  /*
+   * Inner and nested classes.
+   */
+
+
+  /**
+   * A {@link LoaderFacade} all of whose methods are {@code default}
+   * methods.
+   *
+   * @author <a href="https://about.me/lairdnelson"
+   * target="_parent">Laird Nelson</a>
+   */
+  @LoaderFacade
+  public static interface Timeouts {
+
+    /**
+     * Returns the connect timeout.
+     *
+     * @return the connect timeout
+     */
+    public default int getConnectTimeout() {
+      return 30;
+    }
+
+    /**
+     * Returns the read timeout, which is twice the {@linkplain
+     * #getConnectTimeout() connect timeout}.
+     *
+     * @return the read timeout
+     */
+    public default int getReadTimeout() {
+      return this.getConnectTimeout() * 2;
+    }
+
+  }
+
+}
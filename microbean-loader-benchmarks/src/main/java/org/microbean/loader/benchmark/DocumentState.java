@@ -0,0 +1,119 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2022 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package org.microbean.loader.benchmark;
+
+import java.io.IOException;
+
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * A JMH {@link State} describing a synthetic document and, once set
+ * up, the file holding it.
+ *
+ * <p>The document is {@linkplain Documents#document(int, int, int)
+ * generated} and written to a file under {@code target/benchmark}
+ * relative to the directory identified by the {@link
+ * System#getProperty(String, String) user.dir} system property, where
+ * the providers under test find it.</p>
+ *
+ * @author <a href="https://about.me/lairdnelson"
+ * target="_parent">Laird Nelson</a>
+ *
+ * @see Documents
+ */
+@State(Scope.Benchmark)
+public class DocumentState {
+
+
+  /*
+   * Instance fields.
+   */
+
+
+  /**
+   * The {@link Format} of the document.
+   */
+  @Param({ "JSON", "YAML", "TOML", "PROPERTIES", "HOCON" })
+  public Format format;
+
+  /**
+   * The number of leaves in the document.
+   */
+  @Param({ "1000", "100000", "1000000" })
+  public int keys;
+
+  /**
+   * One more than the greatest number of maps enclosing a leaf below
+   * the root.
+   *
+   * @see Documents#names(int, int)
+   */
+  @Param({ "1", "4", "8" })
+  public int maxDepth;
+
+  /**
+   * How many maps there are per map carrying a {@code @qualifiers}
+   * member, or {@code 0} if none do.
+   */
+  @Param({ "0", "10", "100" })
+  public int qualifiersEvery;
+
+  String resourceName;
+
+  java.nio.file.Path file;
+
+
+  /*
+   * Constructors.
+   */
+
+
+  /**
+   * Creates a new {@link DocumentState}.
+   */
+  public DocumentState() {
+    super();
+  }
+
+
+  /*
+   * Instance methods.
+   */
+
+
+  /**
+   * Generates the document and writes it.
+   *
+   * @exception IOException if the document could not be written
+   */
+  @Setup(Level.Trial)
+  public void writeDocument() throws IOException {
+    this.resourceName =
+      "target/benchmark/traversal-" + this.keys + "-" + this.maxDepth + "-" + this.qualifiersEvery + "." + this.format.extension();
+    this.file = Paths.get(System.getProperty("user.dir", "."), this.resourceName);
+    Files.createDirectories(this.file.getParent());
+    this.format.write(Documents.document(this.keys, this.maxDepth, this.qualifiersEvery), this.file);
+  }
+
+}
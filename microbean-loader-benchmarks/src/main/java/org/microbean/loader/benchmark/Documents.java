@@ -0,0 +1,142 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2022 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package org.microbean.loader.benchmark;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Generates synthetic configuration documents.
+ *
+ * <p>The {@code i}th of a document's leaves is the string {@code
+ * v}<em>i</em>, found at the sequence of names returned by the {@link
+ * #names(int, int)} method.  Leaves sit at depths of zero to {@code
+ * maxDepth - 1} intermediate maps, each of which has up to sixteen
+ * map children, and every {@code qualifiersEvery}th map carries a
+ * {@code @qualifiers} member.</p>
+ *
+ * @author <a href="https://about.me/lairdnelson"
+ * target="_parent">Laird Nelson</a>
+ */
+public final class Documents {
+
+
+  /*
+   * Static fields.
+   */
+
+
+  /**
+   * The largest permitted {@code maxDepth}.
+   */
+  public static final int MAX_DEPTH = 8;
+
+
+  /*
+   * Constructors.
+   */
+
+
+  private Documents() {
+    super();
+  }
+
+
+  /*
+   * Static methods.
+   */
+
+
+  /**
+   * Returns a new document of {@code keys} leaves.
+   *
+   * @param keys the number of leaves; must not be negative
+   *
+   * @param maxDepth one more than the greatest number of maps
+   * enclosing a leaf below the root; must be between {@code 1} and
+   * {@link #MAX_DEPTH}, inclusive
+   *
+   * @param qualifiersEvery how many maps there are per map carrying a
+   * {@code @qualifiers} member, or {@code 0} if none should; must not
+   * be negative
+   *
+   * @return a new, mutable document; never {@code null}
+   *
+   * @exception IllegalArgumentException if any argument is out of
+   * range
+   */
+  public static final Map<String, Object> document(final int keys, final int maxDepth, final int qualifiersEvery) {
+    if (keys < 0) {
+      throw new IllegalArgumentException("keys: " + keys);
+    } else if (qualifiersEvery < 0) {
+      throw new IllegalArgumentException("qualifiersEvery: " + qualifiersEvery);
+    }
+    final Map<String, Object> root = new LinkedHashMap<>();
+    int maps = 0;
+    for (int i = 0; i < keys; i++) {
+      final List<String> names = names(i, maxDepth);
+      Map<String, Object> map = root;
+      for (int j = 0; j < names.size() - 1; j++) {
+        @SuppressWarnings("unchecked")
+        Map<String, Object> child = (Map<String, Object>)map.get(names.get(j));
+        if (child == null) {
+          child = new LinkedHashMap<>();
+          if (qualifiersEvery > 0 && ++maps % qualifiersEvery == 0) {
+            child.put("@qualifiers", Map.of("region", "r" + maps));
+          }
+          map.put(names.get(j), child);
+        }
+        map = child;
+      }
+      map.put(names.get(names.size() - 1), "v" + i);
+    }
+    return root;
+  }
+
+  /**
+   * Returns the sequence of names at which the {@code i}th leaf of a
+   * document {@linkplain #document(int, int, int) generated} with the
+   * supplied {@code maxDepth} is found.
+   *
+   * @param i the zero-based number of the leaf; must not be negative
+   *
+   * @param maxDepth one more than the greatest number of maps
+   * enclosing a leaf below the root; must be between {@code 1} and
+   * {@link #MAX_DEPTH}, inclusive
+   *
+   * @return a new, mutable {@link List} of names; never {@code null}
+   *
+   * @exception IllegalArgumentException if {@code maxDepth} is out of
+   * range
+   */
+  public static final List<String> names(final int i, final int maxDepth) {
+    if (maxDepth < 1 || maxDepth > MAX_DEPTH) {
+      throw new IllegalArgumentException("maxDepth: " + maxDepth);
+    }
+    final int depth = i % maxDepth;
+    final List<String> names = new ArrayList<>(depth + 1);
+    for (int d = 0; d < depth; d++) {
+      // Four bits of i per level; MAX_DEPTH keeps the shift below 32.
+      names.add("n" + d + "_" + ((i >>> (4 * (d + 1))) & 15));
+    }
+    names.add("k" + i);
+    return names;
+  }
+
+}
@@ -0,0 +1,369 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2022 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package org.microbean.loader.benchmark;
+
+import java.lang.reflect.Type;
+
+import java.util.List;
+
+import java.util.concurrent.TimeUnit;
+
+import java.util.function.Supplier;
+
+import org.microbean.invoke.FixedValueSupplier;
+
+import org.microbean.loader.DefaultLoader;
+import org.microbean.loader.ProxyingProvider;
+
+import org.microbean.loader.api.Loader;
+
+import org.microbean.loader.spi.AbstractProvider;
+import org.microbean.loader.spi.LoaderFacade;
+
+import org.microbean.path.Path;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import static org.microbean.loader.api.Loader.loader;
+
+/**
+ * Measures the latency of the facade operations that sit on the
+ * hottest path into a {@link Loader}.
+ *
+ * <p>Run with {@code -prof gc}; the {@code gc.alloc.rate.norm}
+ * figure reported for each benchmark is the number of bytes it
+ * allocates per operation.  The allocation budgets enforced by the
+ * {@code microbean-loader} module's tests are a small multiple of
+ * these figures.</p>
+ *
+ * @author <a href="https://about.me/lairdnelson"
+ * target="_parent">Laird Nelson</a>
+ *
+ * @see DefaultMethodDispatchBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+public class FacadeBenchmark {
+
+
+  /*
+   * Instance fields.
+   */
+
+
+  private BenchmarkProxyingProvider proxyingProvider;
+
+  private Loader<?> loader;
+
+  private Path<? extends Type> carPath;
+
+  private Car car;
+
+  private Server server;
+
+  private Server materializedServer;
+
+
+  /*
+   * Constructors.
+   */
+
+
+  /**
+   * Creates a new {@link FacadeBenchmark}.
+   */
+  public FacadeBenchmark() {
+    super();
+  }
+
+
+  /*
+   * Instance methods.
+   */
+
+
+  /**
+   * Creates the {@link ProxyingProvider}s, {@link Loader}s and facades
+   * under test.
+   */
+  @Setup(Level.Trial)
+  public void createFacades() {
+    this.proxyingProvider = new BenchmarkProxyingProvider();
+    this.loader = new DefaultLoader<>(List.of(this.proxyingProvider));
+    this.carPath = this.loader.load(Car.class).path();
+    this.car = new DefaultLoader<>(List.of(new ProxyingProvider(false))).load(Car.class).get();
+    this.server = serverLoader(false).load(Server.class).get();
+    this.materializedServer = serverLoader(true).load(Server.class).get();
+  }
+
+  /**
+   * Creates a new proxy for a {@link Car} facade.
+   *
+   * @return the new proxy
+   */
+  @Benchmark
+  public Object proxyCreation() {
+    return this.proxyingProvider.newProxyInstance(this.loader, this.carPath, Car.class);
+  }
+
+  /**
+   * Calls a getter that takes no arguments on a facade that is not
+   * materialized.
+   *
+   * @return the result of the call
+   */
+  @Benchmark
+  public Object zeroArgumentGetter() {
+    return this.car.getPowertrain();
+  }
+
+  /**
+   * Calls a getter that takes no arguments on a materialized facade.
+   *
+   * @return the result of the call
+   */
+  @Benchmark
+  public Object materializedZeroArgumentGetter() {
+    return this.materializedServer.getHost();
+  }
+
+  /**
+   * Calls a getter that takes an index-like argument on a facade that
+   * is not materialized.
+   *
+   * @return the result of the call
+   */
+  @Benchmark
+  public Object indexedGetter() {
+    return this.car.getWheel("LF");
+  }
+
+  /**
+   * Traverses from one facade through another that is not
+   * materialized.
+   *
+   * @return the result of the traversal
+   */
+  @Benchmark
+  public Object nestedFacadeTraversal() {
+    return this.car.getPowertrain().getEngine();
+  }
+
+  /**
+   * Calls a getter for which no value exists, and which therefore
+   * falls back to its {@code default} implementation, on a facade
+   * that is not materialized.
+   *
+   * @return the result of the call
+   */
+  @Benchmark
+  public int defaultMethodFallback() {
+    return this.server.getPort();
+  }
+
+  /**
+   * Calls a getter for which no value exists, and which therefore
+   * falls back to its {@code default} implementation, on a
+   * materialized facade.
+   *
+   * @return the result of the call
+   */
+  @Benchmark
+  public int materializedDefaultMethodFallback() {
+    return this.materializedServer.getPort();
+  }
+
+
+  /*
+   * Static methods.
+   */
+
+
+  private static final Loader<?> serverLoader(final boolean materialize) {
+    return ((DefaultLoader<?>)loader()).with(List.of(new ProxyingProvider(materialize), new HostProvider()));
+  }
+
+
+  /*
+   * Inner and nested classes.
+   */
+
+
+  /**
+   * A {@link LoaderFacade} representing a car.
+   *
+   * @author <a href="https://about.me/lairdnelson"
+   * target="_parent">Laird Nelson</a>
+   */
+  @LoaderFacade
+  public static interface Car {
+
+    /**
+     * Returns the {@link Powertrain}.
+     *
+     * @return the {@link Powertrain}
+     */
+    public Powertrain getPowertrain();
+
+    /**
+     * Returns the {@link Wheel} identified by the supplied {@code
+     * wheelSpecifier}.
+     *
+     * @param wheelSpecifier the wheel specifier, such as {@code LF}
+     *
+     * @return the {@link Wheel}
+     */
+    public Wheel getWheel(final String wheelSpecifier);
+
+  }
+
+  /**
+   * A {@link LoaderFacade} representing a powertrain.
+   *
+   * @author <a href="https://about.me/lairdnelson"
+   * target="_parent">Laird Nelson</a>
+   */
+  @LoaderFacade
+  public static interface Powertrain {
+
+    /**
+     * Returns the {@link Engine}.
+     *
+     * @return the {@link Engine}
+     */
+    public Engine getEngine();
+
+  }
+
+  /**
+   * A {@link LoaderFacade} representing an engine.
+   *
+   * @author <a href="https://about.me/lairdnelson"
+   * target="_parent">Laird Nelson</a>
+   */
+  @LoaderFacade
+  public static interface Engine {
+
+    /**
+     * Starts this {@link Engine}.
+     */
+    public default void start() {
+
+    }
+
+  }
+
+  /**
+   * A {@link LoaderFacade} representing a wheel.
+   *
+   * @author <a href="https://about.me/lairdnelson"
+   * target="_parent">Laird Nelson</a>
+   */
+  @LoaderFacade
+  public static interface Wheel {
+
+    /**
+     * Returns the diameter of this {@link Wheel} in inches.
+     *
+     * @return the diameter of this {@link Wheel} in inches
+     */
+    public default int getDiameterInInches() {
+      return 18;
+    }
+
+  }
+
+  /**
+   * A {@link LoaderFacade} representing a server.
+   *
+   * @author <a href="https://about.me/lairdnelson"
+   * target="_parent">Laird Nelson</a>
+   */
+  @LoaderFacade
+  public static interface Server {
+
+    /**
+     * Returns the host.
+     *
+     * @return the host
+     */
+    public String getHost();
+
+    /**
+     * Returns the port.
+     *
+     * @return the port
+     */
+    public default int getPort() {
+      return 8080;
+    }
+
+  }
+
+  /**
+   * An {@link AbstractProvider} that supplies {@code localhost} for
+   * every path ending in {@code host}.
+   *
+   * @author <a href="https://about.me/lairdnelson"
+   * target="_parent">Laird Nelson</a>
+   */
+  public static final class HostProvider extends AbstractProvider {
+
+    /**
+     * Creates a new {@link HostProvider}.
+     */
+    public HostProvider() {
+      super(String.class);
+    }
+
+    @Override // AbstractProvider
+    protected final Supplier<?> find(final Loader<?> requestor, final Path<? extends Type> absolutePath) {
+      return "host".equals(absolutePath.lastElement().name()) ? FixedValueSupplier.of("localhost") : null;
+    }
+
+  }
+
+  private static final class BenchmarkProxyingProvider extends ProxyingProvider {
+
+    private BenchmarkProxyingProvider() {
+      super(false);
+    }
+
+    @Override // ProxyingProvider
+    protected final Object newProxyInstance(final Loader<?> requestor,
+                                            final Path<? extends Type> absolutePath,
+                                            final Class<?> interfaceToProxy) {
+      return super.newProxyInstance(requestor, absolutePath, interfaceToProxy);
+    }
+
+  }
+
+}
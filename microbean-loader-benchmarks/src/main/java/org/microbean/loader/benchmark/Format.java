@@ -0,0 +1,252 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2022 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package org.microbean.loader.benchmark;
+
+import java.io.IOException;
+
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import java.util.Map;
+
+import java.util.function.Supplier;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import com.fasterxml.jackson.dataformat.javaprop.JavaPropsMapper;
+
+import com.fasterxml.jackson.dataformat.toml.TomlMapper;
+
+import com.fasterxml.jackson.dataformat.yaml.YAMLMapper;
+
+import com.typesafe.config.ConfigFactory;
+import com.typesafe.config.ConfigRenderOptions;
+import com.typesafe.config.ConfigValueFactory;
+
+import org.microbean.invoke.CachingSupplier;
+
+import org.microbean.loader.jackson.InputStreamJacksonProvider;
+import org.microbean.loader.jackson.JacksonCompactTreeProvider;
+
+import org.microbean.loader.jackson.json.JsonProvider;
+
+import org.microbean.loader.jackson.properties.PropertiesProvider;
+
+import org.microbean.loader.jackson.toml.TomlProvider;
+
+import org.microbean.loader.jackson.yaml.YamlProvider;
+
+import org.microbean.loader.spi.CompactTreeProvider;
+import org.microbean.loader.spi.Provider;
+
+import org.microbean.loader.typesafe.config.CompactConfigValues;
+import org.microbean.loader.typesafe.config.TypesafeConfigHoconProvider;
+
+/**
+ * A configuration format, together with the means of writing,
+ * parsing and {@linkplain #provider(Variant, String) providing
+ * values from} documents in it.
+ *
+ * @author <a href="https://about.me/lairdnelson"
+ * target="_parent">Laird Nelson</a>
+ */
+public enum Format {
+
+  /**
+   * JSON, as read by {@link JsonProvider}.
+   */
+  JSON("json", new CachingSupplier<>(ObjectMapper::new)) {
+    @Override
+    Provider plainProvider(final String resourceName) {
+      return new JsonProvider(String.class, resourceName);
+    }
+  },
+
+  /**
+   * YAML, as read by {@link YamlProvider}.
+   */
+  YAML("yaml", new CachingSupplier<>(YAMLMapper::new)) {
+    @Override
+    Provider plainProvider(final String resourceName) {
+      return new YamlProvider(String.class, resourceName);
+    }
+  },
+
+  /**
+   * TOML, as read by {@link TomlProvider}.
+   */
+  TOML("toml", new CachingSupplier<>(TomlMapper::new)) {
+    @Override
+    Provider plainProvider(final String resourceName) {
+      return new TomlProvider(String.class, resourceName);
+    }
+  },
+
+  /**
+   * Java properties, as read by {@link PropertiesProvider}.
+   */
+  PROPERTIES("properties", new CachingSupplier<>(JavaPropsMapper::new)) {
+    @Override
+    Provider plainProvider(final String resourceName) {
+      return new PropertiesProvider(String.class, resourceName);
+    }
+
+    @Override
+    Provider compactProvider(final String resourceName) {
+      return new PropertiesProvider(String.class, resourceName, null, true);
+    }
+  },
+
+  /**
+   * HOCON, as read by {@link TypesafeConfigHoconProvider}.
+   */
+  HOCON("conf", null) {
+    @Override
+    void write(final Map<String, Object> document, final java.nio.file.Path file) throws IOException {
+      Files.writeString(file, ConfigValueFactory.fromMap(document).render(ConfigRenderOptions.concise()));
+    }
+
+    @Override
+    Object parse(final java.nio.file.Path file) {
+      return ConfigFactory.parseFile(file.toFile()).resolve();
+    }
+
+    @Override
+    Provider plainProvider(final String resourceName) {
+      return new TypesafeConfigHoconProvider(String.class, null, resourceName);
+    }
+
+    @Override
+    Provider indexedProvider(final String resourceName) {
+      return new TypesafeConfigHoconProvider(String.class, null, resourceName, true);
+    }
+
+    @Override
+    Provider compactProvider(final String resourceName) {
+      final java.nio.file.Path file = Paths.get(System.getProperty("user.dir", "."), resourceName);
+      return
+        new CompactTreeProvider(String.class,
+                                new CachingSupplier<>(() -> CompactConfigValues.compactNode(ConfigFactory.parseFile(file.toFile())
+                                                                                            .resolve()
+                                                                                            .root())));
+    }
+  };
+
+
+  /*
+   * Instance fields.
+   */
+
+
+  private final String extension;
+
+  private final Supplier<? extends ObjectMapper> mapperSupplier;
+
+
+  /*
+   * Constructors.
+   */
+
+
+  private Format(final String extension, final Supplier<? extends ObjectMapper> mapperSupplier) {
+    this.extension = extension;
+    this.mapperSupplier = mapperSupplier;
+  }
+
+
+  /*
+   * Instance methods.
+   */
+
+
+  /**
+   * Returns the file extension, without a leading period, of
+   * documents in this {@link Format}.
+   *
+   * @return the file extension; never {@code null}
+   */
+  public final String extension() {
+    return this.extension;
+  }
+
+  /**
+   * Returns a new {@link Provider} of the supplied {@link Variant}
+   * that reads the document in this {@link Format} found at the
+   * supplied resource name.
+   *
+   * <p>Every {@link Provider} returned has {@link String} as its
+   * {@linkplain Provider#lowerBound() lower bound}.</p>
+   *
+   * @param variant the {@link Variant}; must not be {@code null}
+   *
+   * @param resourceName a resource name, treated as by {@link
+   * InputStreamJacksonProvider#inputStream(ClassLoader, String)};
+   * must not be {@code null}
+   *
+   * @return a new {@link Provider}; never {@code null}
+   *
+   * @exception NullPointerException if either argument is {@code
+   * null}
+   */
+  public final Provider provider(final Variant variant, final String resourceName) {
+    return switch (variant) {
+    case PLAIN -> this.plainProvider(resourceName);
+    case INDEXED -> this.indexedProvider(resourceName);
+    case COMPACT -> this.compactProvider(resourceName);
+    };
+  }
+
+  abstract Provider plainProvider(final String resourceName);
+
+  Provider indexedProvider(final String resourceName) {
+    return new InputStreamJacksonProvider(String.class, this.mapperSupplier, resourceName, true);
+  }
+
+  Provider compactProvider(final String resourceName) {
+    return new JacksonCompactTreeProvider(String.class, this.mapperSupplier, null, resourceName, false);
+  }
+
+  /**
+   * Writes the supplied document to the supplied file in this {@link
+   * Format}.
+   *
+   * @param document a document as {@linkplain Documents#document(int,
+   * int, int) generated}; must not be {@code null}
+   *
+   * @param file the file to write; must not be {@code null}
+   *
+   * @exception IOException if an input or output error occurs
+   */
+  void write(final Map<String, Object> document, final java.nio.file.Path file) throws IOException {
+    this.mapperSupplier.get().writeValue(file.toFile(), document);
+  }
+
+  /**
+   * Parses the supplied file into this {@link Format}'s own tree and
+   * returns its root.
+   *
+   * @param file the file to parse; must not be {@code null}
+   *
+   * @return the root of the tree; never {@code null}
+   *
+   * @exception IOException if an input or output error occurs
+   */
+  Object parse(final java.nio.file.Path file) throws IOException {
+    return this.mapperSupplier.get().readTree(file.toFile());
+  }
+
+}
@@ -0,0 +1,219 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2022 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package org.microbean.loader.benchmark;
+
+import java.lang.reflect.Type;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import java.util.concurrent.TimeUnit;
+
+import org.microbean.loader.DefaultLoader;
+
+import org.microbean.loader.api.Loader;
+
+import org.microbean.loader.spi.Provider;
+
+import org.microbean.path.Path;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import static org.microbean.loader.api.Loader.loader;
+
+/**
+ * Measures how long a {@link Provider} takes to answer its first
+ * request against a {@linkplain DocumentState synthetic document},
+ * and how long each subsequent request takes, whether for a path the
+ * document contains or for one it does not.
+ *
+ * <p>Run with {@code -prof gc}; the {@code gc.alloc.rate.norm}
+ * figure reported for {@link #lookup()} is the number of bytes
+ * allocated per lookup.</p>
+ *
+ * @author <a href="https://about.me/lairdnelson"
+ * target="_parent">Laird Nelson</a>
+ *
+ * @see ParseBenchmark
+ */
+@Fork(1)
+@State(Scope.Benchmark)
+public class LookupBenchmark {
+
+
+  /*
+   * Static fields.
+   */
+
+
+  private static final int SAMPLES = 1024;
+
+
+  /*
+   * Instance fields.
+   */
+
+
+  /**
+   * The {@link Variant} of {@link Provider} under test.
+   */
+  @Param({ "PLAIN", "INDEXED", "COMPACT" })
+  public Variant variant;
+
+  private Format format;
+
+  private String resourceName;
+
+  private Provider provider;
+
+  private Loader<?> loader;
+
+  private Path<? extends Type> firstPath;
+
+  private List<Path<? extends Type>> paths;
+
+  private List<Path<? extends Type>> missingPaths;
+
+  private int next;
+
+
+  /*
+   * Constructors.
+   */
+
+
+  /**
+   * Creates a new {@link LookupBenchmark}.
+   */
+  public LookupBenchmark() {
+    super();
+  }
+
+
+  /*
+   * Instance methods.
+   */
+
+
+  /**
+   * Creates the {@link Provider} under test and chooses the paths it
+   * will be asked for.
+   *
+   * @param document the {@link DocumentState}; must not be {@code
+   * null}
+   *
+   * @exception IllegalStateException if the {@link Provider} cannot
+   * find a value it should
+   */
+  @Setup(Level.Trial)
+  public void createProvider(final DocumentState document) {
+    this.format = document.format;
+    this.resourceName = document.resourceName;
+    this.provider = this.format.provider(this.variant, this.resourceName);
+    this.loader = loader().as(DefaultLoader.class).plus(this.provider);
+    this.firstPath = Path.of(String.class, Documents.names(document.keys / 2, document.maxDepth));
+    final Random random = new Random(42L);
+    final List<Path<? extends Type>> paths = new ArrayList<>(SAMPLES);
+    for (int i = 0; i < SAMPLES; i++) {
+      paths.add(this.loader.absolutePath(Path.of(String.class, Documents.names(random.nextInt(document.keys), document.maxDepth))));
+    }
+    this.paths = List.copyOf(paths);
+    for (final Path<? extends Type> path : this.paths) {
+      if (this.provider.get(this.loader, path) == null) {
+        throw new IllegalStateException(this.variant + " " + this.format + " provider found no value at " + path);
+      }
+    }
+    // Leaves numbered at or beyond the number of keys do not exist.
+    final List<Path<? extends Type>> missingPaths = new ArrayList<>(SAMPLES);
+    for (int i = 0; i < SAMPLES; i++) {
+      missingPaths.add(this.loader.absolutePath(Path.of(String.class,
+                                                        Documents.names(document.keys + random.nextInt(document.keys),
+                                                                        document.maxDepth))));
+    }
+    this.missingPaths = List.copyOf(missingPaths);
+  }
+
+  /**
+   * Creates a new {@link Provider} and returns the result of its
+   * first request, thus measuring the cost of reading the document
+   * together with whatever index the {@link Provider} builds.
+   *
+   * @return the result of the request; never {@code null}
+   */
+  @Benchmark
+  @BenchmarkMode(Mode.SingleShotTime)
+  @Measurement(iterations = 5)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  @Warmup(iterations = 2)
+  public Object firstLookup() {
+    final Provider provider = this.format.provider(this.variant, this.resourceName);
+    final Loader<?> loader = loader().as(DefaultLoader.class).plus(provider);
+    return provider.get(loader, loader.absolutePath(this.firstPath));
+  }
+
+  /**
+   * Asks the {@link Provider} created by {@link
+   * #createProvider(DocumentState)} for the next of a fixed set of
+   * randomly chosen paths.
+   *
+   * @return the result of the request; never {@code null}
+   */
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @Measurement(iterations = 5, time = 1)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  @Warmup(iterations = 3, time = 1)
+  public Object lookup() {
+    return this.provider.get(this.loader, this.paths.get(this.next++ & (SAMPLES - 1)));
+  }
+
+  /**
+   * Asks the {@link Provider} created by {@link
+   * #createProvider(DocumentState)} for the next of a fixed set of
+   * randomly chosen paths that its document does not contain,
+   * consulting {@link Provider#mayContain(Loader, Path)} first as
+   * {@link DefaultLoader} does.
+   *
+   * <p>For the {@link Variant#INDEXED} variant this measures the
+   * Bloom filter, which rejects most such paths without acquiring the
+   * document at all.</p>
+   *
+   * @return the result of the request; usually {@code null}
+   */
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @Measurement(iterations = 5, time = 1)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  @Warmup(iterations = 3, time = 1)
+  public Object miss() {
+    final Path<? extends Type> path = this.missingPaths.get(this.next++ & (SAMPLES - 1));
+    return this.provider.mayContain(this.loader, path) ? this.provider.get(this.loader, path) : null;
+  }
+
+}
@@ -0,0 +1,122 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2022 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package org.microbean.loader.benchmark;
+
+import java.io.IOException;
+
+import java.lang.ref.Reference;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures how long it takes to parse a {@linkplain DocumentState
+ * synthetic document} into its {@link Format}'s own tree, and prints
+ * the heap retained per key by that tree.
+ *
+ * @author <a href="https://about.me/lairdnelson"
+ * target="_parent">Laird Nelson</a>
+ *
+ * @see LookupBenchmark
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@Fork(1)
+@Measurement(iterations = 5)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2)
+public class ParseBenchmark {
+
+
+  /*
+   * Constructors.
+   */
+
+
+  /**
+   * Creates a new {@link ParseBenchmark}.
+   */
+  public ParseBenchmark() {
+    super();
+  }
+
+
+  /*
+   * Instance methods.
+   */
+
+
+  /**
+   * Prints the heap retained per key by the tree parsed from the
+   * supplied {@link DocumentState}'s document.
+   *
+   * @param document the {@link DocumentState}; must not be {@code
+   * null}
+   *
+   * @exception IOException if the document could not be read
+   */
+  @Setup(Level.Trial)
+  public void printRetainedHeap(final DocumentState document) throws IOException {
+    final long baseline = usedHeap();
+    final Object tree = document.format.parse(document.file);
+    final double retainedBytesPerKey = (double)(usedHeap() - baseline) / document.keys;
+    Reference.reachabilityFence(tree);
+    System.out.println(document.format + " " + document.keys + " keys: retained " + retainedBytesPerKey + " bytes/key");
+  }
+
+  /**
+   * Parses the supplied {@link DocumentState}'s document and returns
+   * the root of the resulting tree.
+   *
+   * @param document the {@link DocumentState}; must not be {@code
+   * null}
+   *
+   * @return the root of the tree; never {@code null}
+   *
+   * @exception IOException if the document could not be read
+   */
+  @Benchmark
+  public Object parse(final DocumentState document) throws IOException {
+    return document.format.parse(document.file);
+  }
+
+
+  /*
+   * Static methods.
+   */
+
+
+  private static final long usedHeap() {
+    final Runtime runtime = Runtime.getRuntime();
+    for (int i = 0; i < 4; i++) {
+      System.gc();
+    }
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+
+}
@@ -0,0 +1,51 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2022 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package org.microbean.loader.benchmark;
+
+/**
+ * A kind of {@link org.microbean.loader.spi.Provider} that a {@link
+ * Format} can supply.
+ *
+ * @author <a href="https://about.me/lairdnelson"
+ * target="_parent">Laird Nelson</a>
+ *
+ * @see Format#provider(Variant, String)
+ */
+public enum Variant {
+
+  /**
+   * The format's usual provider, as created by its simplest
+   * constructor.
+   */
+  PLAIN,
+
+  /**
+   * The format's usual provider with {@linkplain
+   * org.microbean.loader.spi.AbstractTreeBasedProvider#AbstractTreeBasedProvider(java.lang.reflect.Type,
+   * boolean) indexing} enabled.
+   */
+  INDEXED,
+
+  /**
+   * A provider that holds the document in a compact form: a {@link
+   * org.microbean.loader.spi.CompactTreeProvider} (or, for {@link
+   * Format#PROPERTIES}, a flat-indexed {@link
+   * org.microbean.loader.jackson.properties.PropertiesProvider}).
+   */
+  COMPACT;
+
+}
@@ -0,0 +1,39 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2022 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+/**
+ * Provides <a href="https://github.com/openjdk/jmh"
+ * target="_top">JMH</a> benchmarks for {@linkplain
+ * org.microbean.loader.spi.AbstractTreeBasedProvider tree-based
+ * providers} across configuration formats, for {@linkplain
+ * org.microbean.loader.spi.LoaderFacade facades}, and for data
+ * binding with and without Jackson Blackbird.
+ *
+ * @author <a href="https://about.me/lairdnelson"
+ * target="_parent">Laird Nelson</a>
+ *
+ * @see org.microbean.loader.benchmark.ParseBenchmark
+ *
+ * @see org.microbean.loader.benchmark.LookupBenchmark
+ *
+ * @see org.microbean.loader.benchmark.FacadeBenchmark
+ *
+ * @see org.microbean.loader.benchmark.DefaultMethodDispatchBenchmark
+ *
+ * @see org.microbean.loader.benchmark.BindingBenchmark
+ */
+package org.microbean.loader.benchmark;
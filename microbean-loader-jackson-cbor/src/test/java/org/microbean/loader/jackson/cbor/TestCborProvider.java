@@ -0,0 +1,59 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2022 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package org.microbean.loader.jackson.cbor;
+
+import java.io.IOException;
+
+import java.nio.file.Files;
+
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+
+import org.junit.jupiter.api.Test;
+
+import org.microbean.loader.DefaultLoader;
+
+import org.microbean.loader.api.Loader;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import static org.microbean.loader.api.Loader.loader;
+
+final class TestCborProvider {
+
+  private TestCborProvider() {
+    super();
+  }
+
+  @Test
+  final void testLoad() throws IOException {
+    final java.nio.file.Path userDir = java.nio.file.Path.of(System.getProperty("user.dir", ".")).toAbsolutePath();
+    final java.nio.file.Path cbor = Files.createTempFile(userDir, "cbor", ".cbor");
+    try {
+      Files.write(cbor, new CBORMapper().writeValueAsBytes(Map.of("cborProvider", Map.of("host", "localhost", "port", 8080))));
+      final Loader<?> loader =
+        loader().as(DefaultLoader.class).plus(new CborProvider(String.class, cbor.getFileName().toString()));
+      assertEquals("localhost", loader.load(String.class, List.of("cborProvider", "host")).get());
+      assertEquals("8080", loader.load(String.class, List.of("cborProvider", "port")).get());
+    } finally {
+      Files.delete(cbor);
+    }
+  }
+
+}
@@ -18,20 +18,30 @@ package org.microbean.loader.jackson.json;
 
 import java.lang.reflect.Type;
 
+import java.time.Duration;
+
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import org.microbean.loader.jackson.InputStreamJacksonProvider;
 
 import org.microbean.invoke.CachingSupplier;
 
+import static org.microbean.loader.jackson.ObjectMapperCustomizer.customizing;
+
 /**
  * An {@link InputStreamJacksonProvider} that reads JSON-formatted
  * {@code application.json} classpath resources.
  *
+ * <p>The {@link ObjectMapper} used is customized by every {@link
+ * org.microbean.loader.jackson.ObjectMapperCustomizer} that {@link
+ * java.util.ServiceLoader} can find.</p>
+ *
  * @author <a href="https://about.me/lairdnelson"
  * target="_parent">Laird Nelson</a>
  *
  * @see InputStreamJacksonProvider
+ *
+ * @see org.microbean.loader.jackson.ObjectMapperCustomizer
  */
 public class JsonProvider extends InputStreamJacksonProvider {
 
@@ -77,9 +87,122 @@ public class JsonProvider extends InputStreamJacksonProvider {
    *
    * @exception NullPointerException if {@code resourceName} is {@code
    * null}
+   *
+   * @see #JsonProvider(Type, String, Duration)
    */
   public JsonProvider(final Type lowerBound, final String resourceName) {
-    super(lowerBound, new CachingSupplier<>(ObjectMapper::new), resourceName);
+    this(lowerBound, resourceName, null);
+  }
+
+  /**
+   * Creates a new {@link JsonProvider} that, if {@code indexed} is
+   * {@code true}, builds a flat index of the document and a Bloom
+   * filter with which requests for paths it does not contain are
+   * rejected.
+   *
+   * @param lowerBound the {@linkplain #lowerBound() lower type bound}
+   * of this {@link JsonProvider}; may be {@code null}
+   *
+   * @param resourceName the name of the classpath resource to read
+   * from; must not be {@code null}
+   *
+   * @param indexed whether a flat index of the document should be
+   * built
+   *
+   * @exception NullPointerException if {@code resourceName} is {@code
+   * null}
+   *
+   * @see InputStreamJacksonProvider#InputStreamJacksonProvider(Type,
+   * java.util.function.Supplier, String, boolean)
+   */
+  public JsonProvider(final Type lowerBound, final String resourceName, final boolean indexed) {
+    this(lowerBound, resourceName, indexed, false);
+  }
+
+  /**
+   * Creates a new {@link JsonProvider} that, if {@code indexed} is
+   * {@code true}, builds a flat index of the document, and that, if
+   * {@code streaming} is {@code true}, materializes only those
+   * top-level members of the document that are actually requested.
+   *
+   * @param lowerBound the {@linkplain #lowerBound() lower type bound}
+   * of this {@link JsonProvider}; may be {@code null}
+   *
+   * @param resourceName the name of the classpath resource to read
+   * from; must not be {@code null}
+   *
+   * @param indexed whether a flat index of the document should be
+   * built
+   *
+   * @param streaming whether only the top-level members of the
+   * document that are actually requested should be materialized
+   *
+   * @exception NullPointerException if {@code resourceName} is {@code
+   * null}
+   *
+   * @see InputStreamJacksonProvider#InputStreamJacksonProvider(Type,
+   * java.util.function.Supplier, String, boolean, boolean)
+   */
+  public JsonProvider(final Type lowerBound, final String resourceName, final boolean indexed, final boolean streaming) {
+    super(lowerBound, new CachingSupplier<>(customizing(ObjectMapper::new)), resourceName, indexed, streaming);
+  }
+
+  /**
+   * Creates a new {@link JsonProvider} that, if the named resource is a
+   * file and {@code reloadDelay} is non-{@code null}, watches it
+   * and reads it again whenever it changes.
+   *
+   * @param lowerBound the {@linkplain #lowerBound() lower type bound}
+   * of this {@link JsonProvider}; may be {@code null}
+   *
+   * @param resourceName the name of the classpath resource to read
+   * from; must not be {@code null}
+   *
+   * @param reloadDelay how long the file must go unchanged before it
+   * is read again; {@code null} or a negative {@link Duration}
+   * disables watching
+   *
+   * @exception NullPointerException if {@code resourceName} is {@code
+   * null}
+   *
+   * @see #JsonProvider(Type, String, Duration, boolean)
+   */
+  public JsonProvider(final Type lowerBound, final String resourceName, final Duration reloadDelay) {
+    this(lowerBound, resourceName, reloadDelay, false);
+  }
+
+  /**
+   * Creates a new {@link JsonProvider} that, if the named resource is a
+   * file and {@code reloadDelay} is non-{@code null}, watches it
+   * and reads it again whenever it changes, and that,
+   * if {@code merged} is {@code true}, reads every resource with the
+   * supplied name and merges them into one document, the first found
+   * on the classpath taking precedence and a file in the {@code
+   * user.dir} directory serving only as the lowest-precedence
+   * default.
+   *
+   * @param lowerBound the {@linkplain #lowerBound() lower type bound}
+   * of this {@link JsonProvider}; may be {@code null}
+   *
+   * @param resourceName the name of the classpath resource to read
+   * from; must not be {@code null}
+   *
+   * @param reloadDelay how long the file must go unchanged before it
+   * is read again; {@code null} or a negative {@link Duration}
+   * disables watching
+   *
+   * @param merged whether every resource with the supplied name
+   * should be read and merged into one document
+   *
+   * @exception NullPointerException if {@code resourceName} is {@code
+   * null}
+   *
+   * @see InputStreamJacksonProvider#InputStreamJacksonProvider(Type,
+   * java.util.function.Supplier, String, boolean, Duration, Duration,
+   * boolean)
+   */
+  public JsonProvider(final Type lowerBound, final String resourceName, final Duration reloadDelay, final boolean merged) {
+    super(lowerBound, new CachingSupplier<>(customizing(ObjectMapper::new)), resourceName, false, Duration.ZERO, reloadDelay, merged);
   }
 
 }
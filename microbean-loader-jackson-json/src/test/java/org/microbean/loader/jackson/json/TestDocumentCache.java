@@ -0,0 +1,137 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2022 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package org.microbean.loader.jackson.json;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import java.nio.file.Files;
+
+import java.nio.file.attribute.FileTime;
+
+import java.time.Duration;
+
+import java.util.List;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.junit.jupiter.api.Test;
+
+import org.microbean.loader.DefaultLoader;
+
+import org.microbean.loader.api.Loader;
+
+import org.microbean.loader.jackson.InputStreamJacksonProvider;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import static org.microbean.loader.api.Loader.loader;
+
+final class TestDocumentCache {
+
+  private TestDocumentCache() {
+    super();
+  }
+
+  @Test
+  final void testDocumentReadOnceUntilChanged() throws IOException {
+    final java.nio.file.Path file = Files.createTempFile("application", ".json");
+    try {
+      Files.writeString(file, "{ \"documentCache\" : \"froovus\" }");
+      final AtomicInteger opens = new AtomicInteger();
+      final InputStreamJacksonProvider provider = provider(file, opens, Duration.ZERO);
+      assertEquals("froovus", load(provider, "documentCache"));
+      assertEquals("froovus", load(provider, "documentCache"));
+      assertEquals(1, opens.get());
+
+      Files.writeString(file, "{ \"documentCache\" : \"blatz\" }");
+      Files.setLastModifiedTime(file, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() + 10_000L));
+      assertEquals("blatz", load(provider, "documentCache"));
+      assertEquals(2, opens.get());
+      assertEquals("blatz", load(provider, "documentCache"));
+      assertEquals(2, opens.get());
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  @Test
+  final void testNoRevalidation() throws IOException {
+    final java.nio.file.Path file = Files.createTempFile("application", ".json");
+    try {
+      Files.writeString(file, "{ \"documentCache\" : \"froovus\" }");
+      final AtomicInteger opens = new AtomicInteger();
+      final InputStreamJacksonProvider provider = provider(file, opens, null);
+      assertEquals("froovus", load(provider, "documentCache"));
+
+      Files.writeString(file, "{ \"documentCache\" : \"blatz\" }");
+      Files.setLastModifiedTime(file, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() + 10_000L));
+      assertEquals("froovus", load(provider, "documentCache"));
+      assertEquals(1, opens.get());
+
+      provider.refresh();
+      assertEquals("blatz", load(provider, "documentCache"));
+      assertEquals(2, opens.get());
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  private static final InputStreamJacksonProvider provider(final java.nio.file.Path file,
+                                                           final AtomicInteger opens,
+                                                           final Duration revalidationInterval) {
+    final ObjectMapper mapper = new ObjectMapper();
+    return
+      new InputStreamJacksonProvider(String.class, // keeps DefaultLoader from asking for its AmbiguityHandler
+                                     (l, p) -> mapper.readerFor(mapper.constructType(p.qualified())),
+                                     (l, p) -> {
+                                       opens.incrementAndGet();
+                                       try {
+                                         return Files.newInputStream(file);
+                                       } catch (final IOException e) {
+                                         throw new UncheckedIOException(e.getMessage(), e);
+                                       }
+                                     },
+                                     is -> {
+                                       try {
+                                         is.close();
+                                       } catch (final IOException e) {
+                                         throw new UncheckedIOException(e.getMessage(), e);
+                                       }
+                                     },
+                                     false,
+                                     false,
+                                     (l, p) -> {
+                                       try {
+                                         return Files.getLastModifiedTime(file);
+                                       } catch (final IOException e) {
+                                         throw new UncheckedIOException(e.getMessage(), e);
+                                       }
+                                     },
+                                     revalidationInterval);
+  }
+
+  private static final String load(final InputStreamJacksonProvider provider, final String... names) {
+    // A new Loader each time, so that its own cache of loaded values
+    // does not hide the provider's behavior.
+    final Loader<?> loader = loader().as(DefaultLoader.class).plus(provider);
+    return loader.load(String.class, List.of(names)).orElse(null);
+  }
+
+}
@@ -0,0 +1,89 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2022 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package org.microbean.loader.jackson.json;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import org.microbean.loader.DefaultLoader;
+
+import org.microbean.loader.api.Loader;
+
+import org.microbean.type.JavaType.Token;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import static org.microbean.loader.api.Loader.loader;
+
+final class TestLazyCollections {
+
+  private TestLazyCollections() {
+    super();
+  }
+
+  @Test
+  final void testListView() {
+    final Loader<?> loader = loader().as(DefaultLoader.class).plus(new JsonProvider("playground.json"));
+    final List<Object> array = loader.load(new Token<List<Object>>() {}, "array").get();
+    assertEquals(5, array.size());
+    assertEquals(34, array.get(0));
+    assertEquals(Boolean.FALSE, array.get(1));
+    assertEquals(Map.of("a", "b"), array.get(2));
+    assertSame(array.get(2), array.get(2));
+    assertEquals(List.of("frood"), array.get(4));
+    assertThrows(UnsupportedOperationException.class, () -> array.add("nope"));
+  }
+
+  @Test
+  final void testMapView() {
+    final Loader<?> loader = loader().as(DefaultLoader.class).plus(new JsonProvider());
+    final Map<String, Object> root = loader.load(new Token<Map<String, Object>>() {}).get();
+    assertEquals(3, root.size());
+    assertFalse(root.containsKey("@qualifiers"));
+    assertNull(root.get("@qualifiers"));
+    assertEquals(37, root.get("frobnicationInterval"));
+    assertEquals("froovus", root.get("hork"));
+    assertEquals(Map.of("blatz", "foo"), root.get("gorp"));
+    assertEquals(List.of("frobnicationInterval", "gorp", "hork"), new ArrayList<>(root.keySet()));
+    assertTrue(root.entrySet().contains(Map.entry("hork", "froovus")));
+    assertThrows(UnsupportedOperationException.class, () -> root.put("hork", "nope"));
+  }
+
+  @Test
+  final void testConcreteCollectionsAreRead() {
+    final Loader<?> loader = loader().as(DefaultLoader.class).plus(new JsonProvider("playground.json"));
+    final ArrayList<Object> array = loader.load(new Token<ArrayList<Object>>() {}, "array").get();
+    assertEquals(List.of(34, false, Map.of("a", "b"), "hoopy", List.of("frood")), array);
+    array.add("mutable");
+    assertEquals(6, array.size());
+
+    final HashMap<String, Object> root = loader.load(new Token<HashMap<String, Object>>() {}).get();
+    assertTrue(root.containsKey("@qualifiers"));
+    root.remove("@qualifiers");
+    assertFalse(root.containsKey("@qualifiers"));
+  }
+
+}
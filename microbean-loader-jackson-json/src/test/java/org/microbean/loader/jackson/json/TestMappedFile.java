@@ -0,0 +1,70 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2022 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package org.microbean.loader.jackson.json;
+
+import java.io.IOException;
+
+import java.nio.file.Files;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import org.microbean.loader.DefaultLoader;
+
+import org.microbean.loader.api.Loader;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import static org.microbean.loader.api.Loader.loader;
+
+final class TestMappedFile {
+
+  private TestMappedFile() {
+    super();
+  }
+
+  @Test
+  final void testUserDirFallback() throws IOException {
+    final java.nio.file.Path userDir = java.nio.file.Path.of(System.getProperty("user.dir", ".")).toAbsolutePath();
+    final java.nio.file.Path file = Files.createTempFile(userDir, "mapped", ".json");
+    try {
+      Files.writeString(file, "{ \"mappedFile\" : { \"value\" : \"froovus\" } }");
+      final Loader<?> loader =
+        loader().as(DefaultLoader.class).plus(new JsonProvider(String.class, file.getFileName().toString()));
+      assertEquals("froovus", loader.load(String.class, List.of("mappedFile", "value")).get());
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  @Test
+  final void testLargeUserDirFallback() throws IOException {
+    final java.nio.file.Path userDir = java.nio.file.Path.of(System.getProperty("user.dir", ".")).toAbsolutePath();
+    final java.nio.file.Path file = Files.createTempFile(userDir, "mapped", ".json");
+    try {
+      // Large enough to be memory-mapped.
+      Files.writeString(file, "{ \"mappedFile\" : { \"value\" : \"froovus\", \"padding\" : \"" + "x".repeat(1 << 20) + "\" } }");
+      final Loader<?> loader =
+        loader().as(DefaultLoader.class).plus(new JsonProvider(String.class, file.getFileName().toString()));
+      assertEquals("froovus", loader.load(String.class, List.of("mappedFile", "value")).get());
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+}
@@ -0,0 +1,62 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2022 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package org.microbean.loader.jackson.json;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import org.microbean.loader.DefaultLoader;
+
+import org.microbean.loader.api.Loader;
+
+import org.microbean.path.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import static org.microbean.loader.api.Loader.loader;
+
+final class TestMayContain {
+
+  private TestMayContain() {
+    super();
+  }
+
+  @Test
+  final void testIndexedProviderRejectsMissingPaths() {
+    final JsonProvider provider = new JsonProvider(String.class, "application.json", true);
+    final Loader<?> loader = loader().as(DefaultLoader.class).plus(provider);
+    // Nothing has been read yet, so nothing can be rejected.
+    assertTrue(provider.mayContain(loader, loader.absolutePath(Path.of(String.class, "nonexistent"))));
+    assertEquals("froovus", loader.load(String.class, "hork").get());
+    assertFalse(provider.mayContain(loader, loader.absolutePath(Path.of(String.class, "nonexistent"))));
+    assertFalse(provider.mayContain(loader, loader.absolutePath(Path.of(String.class, List.of("gorp", "nonexistent")))));
+    assertTrue(provider.mayContain(loader, loader.absolutePath(Path.of(String.class, "hork"))));
+    assertTrue(provider.mayContain(loader, loader.absolutePath(Path.of(String.class, List.of("gorp", "blatz")))));
+  }
+
+  @Test
+  final void testUnindexedProviderRejectsNothing() {
+    final JsonProvider provider = new JsonProvider(String.class, "application.json", false);
+    final Loader<?> loader = loader().as(DefaultLoader.class).plus(provider);
+    assertEquals("froovus", loader.load(String.class, "hork").get());
+    assertTrue(provider.mayContain(loader, loader.absolutePath(Path.of(String.class, "nonexistent"))));
+  }
+
+}
@@ -0,0 +1,81 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2022 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package org.microbean.loader.jackson.json;
+
+import java.io.IOException;
+
+import java.net.URL;
+
+import java.nio.file.Files;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import org.microbean.loader.DefaultLoader;
+
+import org.microbean.loader.api.Loader;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import static org.microbean.loader.api.Loader.loader;
+
+final class TestMergedResources {
+
+  private TestMergedResources() {
+    super();
+  }
+
+  @Test
+  final void testClasspathResourcesMergedInOrderOverUserDirFile() throws IOException {
+    final java.nio.file.Path userDir = java.nio.file.Path.of(System.getProperty("user.dir", ".")).toAbsolutePath();
+    final java.nio.file.Path file = userDir.resolve("merged.json");
+    Files.writeString(file, "{ \"mergedResources\" : { \"host\" : \"example.com\", \"timeout\" : \"60\", \"retries\" : \"3\" } }");
+    try {
+      // Two merged.json resources are on the test classpath: the one
+      // in target/test-classes, then the one in
+      // src/test/merged-resources (see pom.xml).
+      final List<URL> resources = Collections.list(ClassLoader.getSystemResources("merged.json"));
+      assertEquals(Integer.valueOf(2), Integer.valueOf(resources.size()));
+      assertTrue(resources.get(1).toExternalForm().contains("merged-resources"));
+
+      final Loader<?> merged =
+        loader().as(DefaultLoader.class).plus(new JsonProvider(String.class, "merged.json", null, true));
+      // The first classpath resource wins...
+      assertEquals("localhost", merged.load(String.class, List.of("mergedResources", "host")).get());
+      assertEquals("8080", merged.load(String.class, List.of("mergedResources", "port")).get());
+      assertEquals("false", merged.load(String.class, List.of("mergedResources", "tls", "enabled")).get());
+      assertEquals("TLSv1.3", merged.load(String.class, List.of("mergedResources", "tls", "protocol")).get());
+      // ...then the second classpath resource supplies defaults...
+      assertEquals("default", merged.load(String.class, List.of("mergedResources", "tls", "ciphers")).get());
+      assertEquals("30", merged.load(String.class, List.of("mergedResources", "timeout")).get());
+      // ...and the file in user.dir is consulted last of all.
+      assertEquals("3", merged.load(String.class, List.of("mergedResources", "retries")).get());
+
+      // Without merging, only the first classpath resource is seen.
+      final Loader<?> unmerged =
+        loader().as(DefaultLoader.class).plus(new JsonProvider(String.class, "merged.json"));
+      assertEquals("localhost", unmerged.load(String.class, List.of("mergedResources", "host")).get());
+      assertEquals("8080", unmerged.load(String.class, List.of("mergedResources", "port")).get());
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+}
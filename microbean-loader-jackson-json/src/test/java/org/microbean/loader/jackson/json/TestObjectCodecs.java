@@ -0,0 +1,60 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2022 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package org.microbean.loader.jackson.json;
+
+import java.util.List;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.junit.jupiter.api.Test;
+
+import org.microbean.loader.DefaultLoader;
+
+import org.microbean.loader.api.Loader;
+
+import org.microbean.loader.jackson.InputStreamJacksonProvider;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import static org.microbean.loader.api.Loader.loader;
+
+final class TestObjectCodecs {
+
+  private TestObjectCodecs() {
+    super();
+  }
+
+  @Test
+  final void testMapperFoundOnce() {
+    final ObjectMapper mapper = new ObjectMapper();
+    final AtomicInteger mappers = new AtomicInteger();
+    final InputStreamJacksonProvider provider =
+      new InputStreamJacksonProvider(String.class, // keeps DefaultLoader from asking for its AmbiguityHandler
+                                     () -> {
+                                       mappers.incrementAndGet();
+                                       return mapper;
+                                     },
+                                     "application.json");
+    final Loader<?> loader = loader().as(DefaultLoader.class).plus(provider);
+    assertEquals("froovus", loader.load(String.class, List.of("hork")).get());
+    assertEquals("37", loader.load(String.class, List.of("frobnicationInterval")).get());
+    assertEquals(1, mappers.get());
+  }
+
+}
@@ -0,0 +1,73 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2022 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package org.microbean.loader.jackson.json;
+
+import java.io.IOException;
+
+import java.nio.file.Files;
+
+import java.time.Duration;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import org.microbean.loader.DefaultLoader;
+
+import org.microbean.loader.api.Loader;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import static org.microbean.loader.api.Loader.loader;
+
+final class TestReload {
+
+  private TestReload() {
+    super();
+  }
+
+  @Test
+  final void testReload() throws InterruptedException, IOException {
+    final java.nio.file.Path userDir = java.nio.file.Path.of(System.getProperty("user.dir", ".")).toAbsolutePath();
+    final java.nio.file.Path file = Files.createTempFile(userDir, "reload", ".json");
+    try (final JsonProvider provider = new JsonProvider(String.class, file.getFileName().toString(), Duration.ofMillis(50L))) {
+      Files.writeString(file, "{ \"reload\" : \"froovus\" }");
+      assertEquals("froovus", load(provider));
+      Files.writeString(file, "{ \"reload\" : \"blatz\" }");
+      // The change is noticed in the background; the old value is
+      // served until it has been.
+      final long deadline = System.nanoTime() + Duration.ofSeconds(30L).toNanos();
+      String value = load(provider);
+      while (!"blatz".equals(value) && System.nanoTime() < deadline) {
+        assertEquals("froovus", value);
+        Thread.sleep(50L);
+        value = load(provider);
+      }
+      assertEquals("blatz", value);
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  private static final String load(final JsonProvider provider) {
+    // A new Loader each time, so that its own cache of loaded values
+    // does not hide the provider's behavior.
+    final Loader<?> loader = loader().as(DefaultLoader.class).plus(provider);
+    return loader.load(String.class, List.of("reload")).orElse(null);
+  }
+
+}
@@ -0,0 +1,138 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2022 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package org.microbean.loader.jackson.json;
+
+import java.math.BigDecimal;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import com.fasterxml.jackson.core.ObjectCodec;
+
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import com.fasterxml.jackson.databind.cfg.CoercionAction;
+import com.fasterxml.jackson.databind.cfg.CoercionInputShape;
+
+import com.fasterxml.jackson.databind.json.JsonMapper;
+
+import com.fasterxml.jackson.databind.node.BooleanNode;
+import com.fasterxml.jackson.databind.node.DoubleNode;
+import com.fasterxml.jackson.databind.node.IntNode;
+import com.fasterxml.jackson.databind.node.LongNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import com.fasterxml.jackson.databind.node.ValueNode;
+
+import com.fasterxml.jackson.databind.type.LogicalType;
+
+import org.junit.jupiter.api.Test;
+
+import org.microbean.loader.DefaultLoader;
+
+import org.microbean.loader.api.Loader;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import static org.microbean.loader.api.Loader.loader;
+
+final class TestScalars {
+
+  private TestScalars() {
+    super();
+  }
+
+  @Test
+  final void testReadScalar() {
+    final ScalarProvider p = new ScalarProvider();
+    assertEquals("froovus", p.readScalar(TextNode.valueOf("froovus"), String.class));
+    assertEquals(Integer.valueOf(37), p.readScalar(IntNode.valueOf(37), int.class));
+    assertEquals(Long.valueOf(37L), p.readScalar(IntNode.valueOf(37), Long.class));
+    assertEquals("37", p.readScalar(IntNode.valueOf(37), String.class));
+    assertEquals(Integer.valueOf(5432), p.readScalar(TextNode.valueOf("5432"), Integer.class));
+    assertEquals(Boolean.TRUE, p.readScalar(BooleanNode.TRUE, boolean.class));
+    assertEquals(new BigDecimal("1.5"), p.readScalar(DoubleNode.valueOf(1.5D), BigDecimal.class));
+    assertEquals(Color.RED, p.readScalar(TextNode.valueOf("RED"), Color.class));
+
+    // These are left to Jackson.
+    assertNull(p.readScalar(LongNode.valueOf(Long.MAX_VALUE), Integer.class));
+    assertNull(p.readScalar(DoubleNode.valueOf(1.5D), Integer.class));
+    assertNull(p.readScalar(TextNode.valueOf("x"), Integer.class));
+    assertNull(p.readScalar(TextNode.valueOf("red"), AnnotatedColor.class));
+  }
+
+  @Test
+  final void testCoercionConfigRespected() {
+    final ObjectMapper noScalarCoercion = JsonMapper.builder().disable(MapperFeature.ALLOW_COERCION_OF_SCALARS).build();
+    ScalarProvider p = new ScalarProvider(noScalarCoercion.reader());
+    assertNull(p.readScalar(TextNode.valueOf("5432"), Integer.class));
+    assertNull(p.readScalar(TextNode.valueOf("true"), Boolean.class));
+    assertNull(p.readScalar(IntNode.valueOf(37), Double.class));
+    assertEquals(Integer.valueOf(37), p.readScalar(IntNode.valueOf(37), Integer.class));
+
+    final ObjectMapper noTextualCoercion = new ObjectMapper();
+    noTextualCoercion.coercionConfigFor(LogicalType.Textual).setCoercion(CoercionInputShape.Integer, CoercionAction.Fail);
+    p = new ScalarProvider(noTextualCoercion.reader());
+    assertNull(p.readScalar(IntNode.valueOf(37), String.class));
+    assertEquals("1.5", p.readScalar(DoubleNode.valueOf(1.5D), String.class));
+
+    // Without an ObjectReader only shape-preserving conversions are
+    // handled.
+    p = new ScalarProvider(new ObjectMapper());
+    assertNull(p.readScalar(TextNode.valueOf("5432"), Integer.class));
+    assertNull(p.readScalar(BooleanNode.TRUE, String.class));
+    assertEquals(Long.valueOf(37L), p.readScalar(IntNode.valueOf(37), Long.class));
+    assertEquals("froovus", p.readScalar(TextNode.valueOf("froovus"), String.class));
+  }
+
+  @Test
+  final void testFallback() {
+    final Loader<?> loader = loader().as(DefaultLoader.class).plus(new JsonProvider());
+    assertEquals(Integer.valueOf(37), loader.load(Integer.class, List.of("frobnicationInterval")).get());
+  }
+
+  public static enum Color {
+    RED, GREEN
+  }
+
+  public static enum AnnotatedColor {
+    @JsonProperty("red") RED,
+    @JsonProperty("green") GREEN
+  }
+
+  private static final class ScalarProvider extends JsonProvider {
+
+    private final ObjectCodec codec;
+
+    private ScalarProvider() {
+      this(new ObjectMapper().reader());
+    }
+
+    private ScalarProvider(final ObjectCodec codec) {
+      super();
+      this.codec = codec;
+    }
+
+    private final Object readScalar(final ValueNode node, final Class<?> type) {
+      return this.readScalar(this.codec, node, type);
+    }
+
+  }
+
+}
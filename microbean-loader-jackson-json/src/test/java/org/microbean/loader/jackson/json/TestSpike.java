@@ -16,13 +16,19 @@
  */
 package org.microbean.loader.jackson.json;
 
+import java.lang.reflect.Type;
+
 import java.util.List;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 import com.fasterxml.jackson.annotation.JsonAutoDetect;
 import com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
+import com.fasterxml.jackson.core.TreeNode;
+
 import org.junit.jupiter.api.Test;
 
 import org.microbean.loader.DefaultLoader;
@@ -31,6 +37,8 @@ import org.microbean.loader.api.Loader;
 
 import org.microbean.loader.jackson.Configuration;
 
+import org.microbean.path.Path;
+
 import org.microbean.qualifier.Qualifiers;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -68,6 +76,22 @@ final class TestSpike {
     final String blatz = loader.load(String.class, List.of("gorp", "blatz")).orElse(null);
   }
 
+  @Test
+  final void testOneParsePerLookup() {
+    final AtomicInteger horkParses = new AtomicInteger();
+    final Loader<?> loader = loader().as(DefaultLoader.class).plus(new JsonProvider() {
+        @Override
+        protected final TreeNode rootNode(final Loader<?> requestor, final Path<? extends Type> absolutePath) {
+          if ("hork".equals(absolutePath.lastElement().name())) {
+            horkParses.incrementAndGet();
+          }
+          return super.rootNode(requestor, absolutePath);
+        }
+      });
+    assertEquals("froovus", loader.load(String.class, "hork").get());
+    assertEquals(1, horkParses.get());
+  }
+
   @JsonAutoDetect(creatorVisibility = Visibility.NONE,
                   fieldVisibility = Visibility.NONE,
                   getterVisibility = Visibility.NONE,
@@ -0,0 +1,106 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2022 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package org.microbean.loader.jackson.json;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import java.util.List;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.junit.jupiter.api.Test;
+
+import org.microbean.loader.DefaultLoader;
+
+import org.microbean.loader.api.Loader;
+
+import org.microbean.loader.jackson.InputStreamJacksonProvider;
+
+import org.microbean.path.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import static org.microbean.loader.api.Loader.loader;
+
+final class TestStreaming {
+
+  private TestStreaming() {
+    super();
+  }
+
+  @Test
+  final void testSectionsReadOnce() {
+    final ObjectMapper mapper = new ObjectMapper();
+    final AtomicInteger opens = new AtomicInteger();
+    final InputStreamJacksonProvider provider =
+      new InputStreamJacksonProvider(String.class, // keeps DefaultLoader from asking for its AmbiguityHandler
+                                     (l, p) -> mapper.readerFor(mapper.constructType(p.qualified())),
+                                     (l, p) -> {
+                                       opens.incrementAndGet();
+                                       return TestStreaming.class.getClassLoader().getResourceAsStream("application.json");
+                                     },
+                                     is -> {
+                                       try {
+                                         is.close();
+                                       } catch (final IOException e) {
+                                         throw new UncheckedIOException(e.getMessage(), e);
+                                       }
+                                     },
+                                     false,
+                                     true);
+    assertEquals("froovus", load(provider, "hork"));
+    assertEquals(1, opens.get());
+    assertEquals("froovus", load(provider, "hork"));
+    assertEquals(1, opens.get());
+    assertEquals("foo", load(provider, "gorp", "blatz"));
+    assertEquals(2, opens.get());
+    // The first scan recorded every top-level name, so a missing
+    // member does not cause the document to be read again.
+    assertNull(load(provider, "nope"));
+    assertEquals(2, opens.get());
+    assertNull(load(provider, "nope"));
+    assertEquals(2, opens.get());
+    assertEquals("froovus", load(provider, "hork"));
+    assertEquals(2, opens.get());
+  }
+
+  @Test
+  final void testStreamingJsonProvider() {
+    final JsonProvider provider = new JsonProvider(String.class, "application.json", false, true);
+    final Loader<?> loader = loader().as(DefaultLoader.class).plus(provider);
+    assertTrue(provider.mayContain(loader, loader.absolutePath(Path.of(String.class, "nope"))));
+    assertEquals("froovus", load(provider, "hork"));
+    assertFalse(provider.mayContain(loader, loader.absolutePath(Path.of(String.class, "nope"))));
+    assertTrue(provider.mayContain(loader, loader.absolutePath(Path.of(String.class, "gorp"))));
+    assertEquals("foo", load(provider, "gorp", "blatz"));
+    assertNull(load(provider, "nope"));
+  }
+
+  private static final String load(final InputStreamJacksonProvider provider, final String... names) {
+    // A new Loader each time, so that its own cache of loaded values
+    // does not hide the provider's behavior.
+    final Loader<?> loader = loader().as(DefaultLoader.class).plus(provider);
+    return loader.load(String.class, List.of(names)).orElse(null);
+  }
+
+}
@@ -0,0 +1,298 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2022 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package org.microbean.loader.jackson.properties;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.ObjectCodec;
+import com.fasterxml.jackson.core.TreeNode;
+
+import com.fasterxml.jackson.databind.node.MissingNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+
+import com.fasterxml.jackson.dataformat.javaprop.JavaPropsFactory;
+
+/**
+ * An immutable object {@link TreeNode} representing every property
+ * whose key begins with a given dotted prefix, backed by a sorted
+ * index of all properties shared by every such node.
+ *
+ * <p>Children are found by binary search and created on demand: a
+ * key with no further dotted segments yields a {@link TextNode}, and
+ * a prefix of other keys yields another {@link PropertiesNode}.  No
+ * nested tree is ever built; {@link #traverse(ObjectCodec)} instead
+ * hands the relevant properties to a Java properties {@link
+ * JsonParser}, which nests them (interpreting numeric segments as
+ * array indices) only when data binding asks for them.</p>
+ *
+ * <p>Keys are split on dots only; index markers such as {@code [1]}
+ * are not recognized during traversal.  If a key is also a prefix of
+ * other keys, its child is the {@link PropertiesNode}, and its own
+ * value is visible only through {@link #traverse(ObjectCodec)}.</p>
+ *
+ * @author <a href="https://about.me/lairdnelson"
+ * target="_parent">Laird Nelson</a>
+ *
+ * @threadsafety Instances of this class are safe for concurrent use
+ * by multiple threads.
+ */
+final class PropertiesNode implements TreeNode {
+
+
+  /*
+   * Static fields.
+   */
+
+
+  private static final JavaPropsFactory JAVA_PROPS_FACTORY = new JavaPropsFactory();
+
+
+  /*
+   * Instance fields.
+   */
+
+
+  private final String[] keys;
+
+  private final String[] values;
+
+  private final String prefix;
+
+  private final int from;
+
+  private final int to;
+
+  private final ConcurrentMap<String, TreeNode> children;
+
+  private volatile List<String> names;
+
+
+  /*
+   * Constructors.
+   */
+
+
+  private PropertiesNode(final String[] keys, final String[] values, final String prefix, final int from, final int to) {
+    super();
+    this.keys = keys;
+    this.values = values;
+    this.prefix = prefix;
+    this.from = from;
+    this.to = to;
+    this.children = new ConcurrentHashMap<>();
+  }
+
+
+  /*
+   * Instance methods.
+   */
+
+
+  @Override // TreeNode
+  public final JsonToken asToken() {
+    return JsonToken.START_OBJECT;
+  }
+
+  @Override // TreeNode
+  public final JsonParser.NumberType numberType() {
+    return null;
+  }
+
+  @Override // TreeNode
+  public final int size() {
+    return this.names().size();
+  }
+
+  @Override // TreeNode
+  public final boolean isValueNode() {
+    return false;
+  }
+
+  @Override // TreeNode
+  public final boolean isContainerNode() {
+    return true;
+  }
+
+  @Override // TreeNode
+  public final boolean isMissingNode() {
+    return false;
+  }
+
+  @Override // TreeNode
+  public final boolean isArray() {
+    return false;
+  }
+
+  @Override // TreeNode
+  public final boolean isObject() {
+    return true;
+  }
+
+  @Override // TreeNode
+  public final TreeNode get(final String name) {
+    TreeNode child = this.children.get(name);
+    if (child == null) {
+      child = this.child(name);
+      if (child != null) {
+        final TreeNode existing = this.children.putIfAbsent(name, child);
+        if (existing != null) {
+          child = existing;
+        }
+      }
+    }
+    return child;
+  }
+
+  @Override // TreeNode
+  public final TreeNode get(final int index) {
+    return null;
+  }
+
+  @Override // TreeNode
+  public final TreeNode path(final String name) {
+    final TreeNode child = this.get(name);
+    return child == null ? MissingNode.getInstance() : child;
+  }
+
+  @Override // TreeNode
+  public final TreeNode path(final int index) {
+    return MissingNode.getInstance();
+  }
+
+  @Override // TreeNode
+  public final Iterator<String> fieldNames() {
+    return this.names().iterator();
+  }
+
+  @Override // TreeNode
+  public final TreeNode at(final JsonPointer pointer) {
+    TreeNode node = this;
+    JsonPointer p = pointer;
+    while (node != null && !p.matches()) {
+      node = node.get(p.getMatchingProperty());
+      p = p.tail();
+    }
+    return node == null ? MissingNode.getInstance() : node;
+  }
+
+  @Override // TreeNode
+  public final TreeNode at(final String pointerExpression) {
+    return this.at(JsonPointer.compile(pointerExpression));
+  }
+
+  @Override // TreeNode
+  public final JsonParser traverse() {
+    return this.traverse(null);
+  }
+
+  @Override // TreeNode
+  public final JsonParser traverse(final ObjectCodec codec) {
+    final int prefixLength = this.prefix.length();
+    final Map<String, String> properties = new LinkedHashMap<>();
+    for (int i = this.from; i < this.to; i++) {
+      properties.put(this.keys[i].substring(prefixLength), this.values[i]);
+    }
+    final JavaPropsFactory factory =
+      codec != null && codec.getFactory() instanceof JavaPropsFactory f ? f : JAVA_PROPS_FACTORY;
+    final JsonParser parser = factory.createParser(properties);
+    parser.setCodec(codec);
+    return parser;
+  }
+
+  @Override // Object
+  public final String toString() {
+    return this.prefix.isEmpty() ? "{...}" : this.prefix + "{...}";
+  }
+
+  private final TreeNode child(final String name) {
+    final String key = this.prefix + name;
+    // Keys beginning with key + '.' sort at or after it, and strictly
+    // before key + '/' ('/' being the character after '.').
+    final int childFrom = this.lowerBound(key + '.');
+    final int childTo = this.lowerBound(key + '/');
+    if (childFrom < childTo) {
+      return new PropertiesNode(this.keys, this.values, key + '.', childFrom, childTo);
+    }
+    final int i = Arrays.binarySearch(this.keys, this.from, this.to, key);
+    return i >= 0 ? TextNode.valueOf(this.values[i]) : null;
+  }
+
+  private final int lowerBound(final String key) {
+    final int i = Arrays.binarySearch(this.keys, this.from, this.to, key);
+    return i >= 0 ? i : -(i + 1);
+  }
+
+  private final List<String> names() {
+    List<String> names = this.names;
+    if (names == null) {
+      final int prefixLength = this.prefix.length();
+      final Set<String> set = new LinkedHashSet<>();
+      for (int i = this.from; i < this.to; i++) {
+        final String key = this.keys[i];
+        final int dot = key.indexOf('.', prefixLength);
+        set.add(dot < 0 ? key.substring(prefixLength) : key.substring(prefixLength, dot));
+      }
+      names = List.copyOf(set);
+      this.names = names;
+    }
+    return names;
+  }
+
+
+  /*
+   * Static methods.
+   */
+
+
+  /**
+   * Returns a new root {@link PropertiesNode} indexing the supplied
+   * properties.
+   *
+   * @param properties the properties to index; must not be {@code
+   * null}; keys and values are converted to {@link String}s
+   *
+   * @return a new root {@link PropertiesNode}; never {@code null}
+   *
+   * @exception NullPointerException if {@code properties} is {@code
+   * null}
+   */
+  static final PropertiesNode of(final Map<?, ?> properties) {
+    final SortedMap<String, String> sorted = new TreeMap<>();
+    for (final Entry<?, ?> e : properties.entrySet()) {
+      sorted.put(String.valueOf(e.getKey()), String.valueOf(e.getValue()));
+    }
+    final String[] keys = sorted.keySet().toArray(new String[0]);
+    final String[] values = sorted.values().toArray(new String[0]);
+    return new PropertiesNode(keys, values, "", 0, keys.length);
+  }
+
+}
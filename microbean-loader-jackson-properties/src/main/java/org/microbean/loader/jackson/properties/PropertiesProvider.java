@@ -16,30 +16,65 @@
  */
 package org.microbean.loader.jackson.properties;
 
+import java.io.IOException;
+import java.io.InputStream;
+
 import java.lang.reflect.Type;
 
+import java.time.Duration;
+
+import java.util.Properties;
+
 import java.util.function.Supplier;
 
+import com.fasterxml.jackson.core.ObjectCodec;
+import com.fasterxml.jackson.core.TreeNode;
+
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import com.fasterxml.jackson.dataformat.javaprop.JavaPropsMapper;
 
+import org.microbean.loader.api.Loader;
+
 import org.microbean.loader.jackson.InputStreamJacksonProvider;
 
 import org.microbean.invoke.CachingSupplier;
 
+import org.microbean.path.Path;
+
+import static org.microbean.loader.jackson.ObjectMapperCustomizer.customizing;
+
 /**
  * An {@link InputStreamJacksonProvider} that reads Java
  * properties-formatted files and classpath resources.
  *
+ * <p>The {@link JavaPropsMapper} used is customized by every {@link
+ * org.microbean.loader.jackson.ObjectMapperCustomizer} that {@link
+ * java.util.ServiceLoader} can find.</p>
+ *
+ * <p>A {@link PropertiesProvider} may be {@linkplain
+ * #PropertiesProvider(Type, String, Duration, boolean) created} to
+ * index its properties by their dotted keys instead of converting
+ * them into a tree of nested nodes.</p>
+ *
  * @author <a href="https://about.me/lairdnelson"
  * target="_parent">Laird Nelson</a>
  *
  * @see InputStreamJacksonProvider
+ *
+ * @see org.microbean.loader.jackson.ObjectMapperCustomizer
  */
 public class PropertiesProvider extends InputStreamJacksonProvider {
 
 
+  /*
+   * Instance fields.
+   */
+
+
+  private final boolean flat;
+
+
   /*
    * Constructors.
    */
@@ -83,9 +118,134 @@ public class PropertiesProvider extends InputStreamJacksonProvider {
    *
    * @exception NullPointerException if {@code resourceName} is {@code
    * null}
+   *
+   * @see #PropertiesProvider(Type, String, Duration)
    */
   public PropertiesProvider(final Type lowerBound, final String resourceName) {
-    super(lowerBound, new CachingSupplier<>(JavaPropsMapper::new), resourceName);
+    this(lowerBound, resourceName, null);
+  }
+
+  /**
+   * Creates a new {@link PropertiesProvider} that, if the named resource is a
+   * file and {@code reloadDelay} is non-{@code null}, watches it
+   * and reads it again whenever it changes.
+   *
+   * @param lowerBound the {@linkplain #lowerBound() lower type bound}
+   * of this {@link InputStreamJacksonProvider} implementation; may be
+   * {@code null}
+   *
+   * @param resourceName the name of the classpath resource to read
+   * from; must not be {@code null}
+   *
+   * @param reloadDelay how long the file must go unchanged before it
+   * is read again; {@code null} or a negative {@link Duration}
+   * disables watching
+   *
+   * @exception NullPointerException if {@code resourceName} is {@code
+   * null}
+   *
+   * @see #PropertiesProvider(Type, String, Duration, boolean)
+   */
+  public PropertiesProvider(final Type lowerBound, final String resourceName, final Duration reloadDelay) {
+    this(lowerBound, resourceName, reloadDelay, false);
+  }
+
+  /**
+   * Creates a new {@link PropertiesProvider} that, if the named
+   * resource is a file and {@code reloadDelay} is non-{@code null},
+   * watches it and reads it again whenever it changes,
+   * and that, if {@code flat} is {@code true}, indexes its properties
+   * by their dotted keys.
+   *
+   * <p>When {@code flat} is {@code true}, the resource is {@linkplain
+   * Properties#load(InputStream) loaded} once into an immutable,
+   * sorted index of its keys and values, without any conversion into
+   * a tree of nested nodes.  Path elements are resolved against the
+   * index by binary search, and a key with no further dotted segments
+   * is read directly as a scalar.  The properties beneath a dotted
+   * prefix are nested (as they would be otherwise, interpreting
+   * numeric segments as array indices) only when a non-scalar type is
+   * requested for that prefix, and only those properties.  Keys are
+   * split on dots only, so list elements cannot be addressed
+   * individually by index qualifiers, and index markers such as
+   * {@code [1]} are not recognized during path resolution.</p>
+   *
+   * @param lowerBound the {@linkplain #lowerBound() lower type bound}
+   * of this {@link InputStreamJacksonProvider} implementation; may be
+   * {@code null}
+   *
+   * @param resourceName the name of the classpath resource to read
+   * from; must not be {@code null}
+   *
+   * @param reloadDelay how long the file must go unchanged before it
+   * is read again; {@code null} or a negative {@link Duration}
+   * disables watching
+   *
+   * @param flat whether properties should be indexed by their dotted
+   * keys rather than converted into a tree
+   *
+   * @exception NullPointerException if {@code resourceName} is {@code
+   * null}
+   *
+   * @see InputStreamJacksonProvider#InputStreamJacksonProvider(Type,
+   * java.util.function.Supplier, String, boolean, Duration, Duration)
+   */
+  public PropertiesProvider(final Type lowerBound, final String resourceName, final Duration reloadDelay, final boolean flat) {
+    super(lowerBound, new CachingSupplier<>(customizing(JavaPropsMapper::new)), resourceName, false, Duration.ZERO, reloadDelay);
+    this.flat = flat;
+  }
+
+
+  /*
+   * Instance methods.
+   */
+
+
+  /**
+   * Reads and returns the root node of the properties available from
+   * the supplied {@link InputStream}.
+   *
+   * <p>If this {@link PropertiesProvider} was {@linkplain
+   * #PropertiesProvider(Type, String, Duration, boolean) created} with
+   * {@code flat} set to {@code true}, the properties are {@linkplain
+   * Properties#load(InputStream) loaded} directly and the returned
+   * root node indexes them.  Otherwise the properties are read into a
+   * tree as usual.</p>
+   *
+   * @param requestingLoader the {@link Loader} seeking a value; must
+   * not be {@code null}
+   *
+   * @param absolutePath an {@linkplain Path#absolute() absolute
+   * <code>Path</code>} for which a value is being sought; must not be
+   * {@code null}
+   *
+   * @param objectCodec the {@link ObjectCodec} suitable for the
+   * request; must not be {@code null}
+   *
+   * @param inputStream the {@link InputStream} to read; must not be
+   * {@code null}
+   *
+   * @return the root node, or {@code null}
+   *
+   * @exception IOException if an input or output error occurs
+   *
+   * @nullability This method may return {@code null}.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple
+   * threads.
+   */
+  @Override // InputStreamJacksonProvider
+  protected TreeNode readDocument(final Loader<?> requestingLoader,
+                                  final Path<? extends Type> absolutePath,
+                                  final ObjectCodec objectCodec,
+                                  final InputStream inputStream)
+    throws IOException {
+    if (!this.flat) {
+      return super.readDocument(requestingLoader, absolutePath, objectCodec, inputStream);
+    }
+    final Properties properties = new Properties();
+    properties.load(inputStream);
+    return PropertiesNode.of(properties);
   }
 
 }
@@ -0,0 +1,85 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2022 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package org.microbean.loader.jackson.properties;
+
+import java.io.IOException;
+
+import java.nio.file.Files;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import org.microbean.loader.DefaultLoader;
+
+import org.microbean.loader.api.Loader;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import static org.microbean.loader.api.Loader.loader;
+
+final class TestFlatIndex {
+
+  private TestFlatIndex() {
+    super();
+  }
+
+  @Test
+  final void testRealWorld() {
+    final Loader<?> loader =
+      loader().as(DefaultLoader.class).plus(new PropertiesProvider(null, "realworld.properties", null, true));
+    assertEquals("localhost", loader.load(String.class, "hostname").orElse(null));
+  }
+
+  @Test
+  final void testScalarsAndSubtrees() throws IOException {
+    final java.nio.file.Path userDir = java.nio.file.Path.of(System.getProperty("user.dir", ".")).toAbsolutePath();
+    final java.nio.file.Path file = Files.createTempFile(userDir, "flat", ".properties");
+    try {
+      Files.writeString(file,
+                        """
+                        flatIndex.db.host = localhost
+                        flatIndex.db.port = 5432
+                        flatIndex.db.pool.max = 10
+                        flatIndex.servers.1 = a
+                        flatIndex.servers.2 = b
+                        """);
+      final String resourceName = file.getFileName().toString();
+      final Loader<?> flat = loader().as(DefaultLoader.class).plus(new PropertiesProvider(null, resourceName, null, true));
+      assertEquals("localhost", flat.load(String.class, List.of("flatIndex", "db", "host")).get());
+      assertEquals(Integer.valueOf(5432), flat.load(Integer.class, List.of("flatIndex", "db", "port")).get());
+      assertNull(flat.load(String.class, List.of("flatIndex", "db", "user")).orElse(null));
+
+      // Non-scalar requests nest just the properties beneath the
+      // prefix, exactly as a tree-based PropertiesProvider would.
+      final Loader<?> tree = loader().as(DefaultLoader.class).plus(new PropertiesProvider(null, resourceName));
+      final Db db = flat.load(Db.class, List.of("flatIndex", "db")).get();
+      assertEquals(new Db("localhost", 5432, new Pool(10)), db);
+      assertEquals(tree.load(Db.class, List.of("flatIndex", "db")).get(), db);
+      assertArrayEquals(new String[] { "a", "b" }, flat.load(String[].class, List.of("flatIndex", "servers")).get());
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  public static record Db(String host, int port, Pool pool) {}
+
+  public static record Pool(int max) {}
+
+}
@@ -0,0 +1,122 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2021–2022 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package org.microbean.loader.jackson.smile;
+
+import java.lang.reflect.Type;
+
+import java.time.Duration;
+
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+
+import org.microbean.loader.jackson.InputStreamJacksonProvider;
+
+import org.microbean.invoke.CachingSupplier;
+
+import static org.microbean.loader.jackson.ObjectMapperCustomizer.customizing;
+
+/**
+ * An {@link InputStreamJacksonProvider} that reads Smile-encoded
+ * {@code application.smile} classpath resources.
+ *
+ * <p>The {@link SmileMapper} used is customized by every {@link
+ * org.microbean.loader.jackson.ObjectMapperCustomizer} that {@link
+ * java.util.ServiceLoader} can find.</p>
+ *
+ * @author <a href="https://about.me/lairdnelson"
+ * target="_parent">Laird Nelson</a>
+ *
+ * @see InputStreamJacksonProvider
+ *
+ * @see org.microbean.loader.jackson.ObjectMapperCustomizer
+ */
+public class SmileProvider extends InputStreamJacksonProvider {
+
+
+  /*
+   * Constructors.
+   */
+
+
+  /**
+   * Creates a new {@link SmileProvider} that reads Smile-encoded
+   * {@code application.smile} classpath resources.
+   *
+   * @see #SmileProvider(Type, String)
+   */
+  public SmileProvider() {
+    this(null, "application.smile");
+  }
+
+  /**
+   * Creates a new {@link SmileProvider}.
+   *
+   * @param resourceName the name of the classpath resource to read
+   * from; must not be {@code null}
+   *
+   * @exception NullPointerException if {@code resourceName} is {@code
+   * null}
+   *
+   * @see #SmileProvider(Type, String)
+   */
+  public SmileProvider(final String resourceName) {
+    this(null, resourceName);
+  }
+
+  /**
+   * Creates a new {@link SmileProvider}.
+   *
+   * @param lowerBound the {@linkplain #lowerBound() lower type bound}
+   * of this {@link SmileProvider}; may be {@code null}
+   *
+   * @param resourceName the name of the classpath resource to read
+   * from; must not be {@code null}
+   *
+   * @exception NullPointerException if {@code resourceName} is {@code
+   * null}
+   *
+   * @see #SmileProvider(Type, String, Duration)
+   */
+  public SmileProvider(final Type lowerBound, final String resourceName) {
+    this(lowerBound, resourceName, null);
+  }
+
+  /**
+   * Creates a new {@link SmileProvider} that, if the named resource is a
+   * file and {@code reloadDelay} is non-{@code null}, watches it
+   * and reads it again whenever it changes.
+   *
+   * @param lowerBound the {@linkplain #lowerBound() lower type bound}
+   * of this {@link SmileProvider}; may be {@code null}
+   *
+   * @param resourceName the name of the classpath resource to read
+   * from; must not be {@code null}
+   *
+   * @param reloadDelay how long the file must go unchanged before it
+   * is read again; {@code null} or a negative {@link Duration}
+   * disables watching
+   *
+   * @exception NullPointerException if {@code resourceName} is {@code
+   * null}
+   *
+   * @see InputStreamJacksonProvider#InputStreamJacksonProvider(Type,
+   * java.util.function.Supplier, String, boolean, Duration, Duration)
+   */
+  public SmileProvider(final Type lowerBound, final String resourceName, final Duration reloadDelay) {
+    super(lowerBound, new CachingSupplier<>(customizing(SmileMapper::new)), resourceName, false, Duration.ZERO, reloadDelay);
+  }
+
+}
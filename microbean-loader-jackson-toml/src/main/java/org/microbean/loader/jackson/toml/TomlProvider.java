@@ -18,20 +18,30 @@ package org.microbean.loader.jackson.toml;
 
 import java.lang.reflect.Type;
 
+import java.time.Duration;
+
 import com.fasterxml.jackson.dataformat.toml.TomlMapper;
 
 import org.microbean.loader.jackson.InputStreamJacksonProvider;
 
 import org.microbean.invoke.CachingSupplier;
 
+import static org.microbean.loader.jackson.ObjectMapperCustomizer.customizing;
+
 /**
  * An {@link InputStreamJacksonProvider} that reads TOML-formatted
  * {@code application.toml} classpath resources.
  *
+ * <p>The {@link TomlMapper} used is customized by every {@link
+ * org.microbean.loader.jackson.ObjectMapperCustomizer} that {@link
+ * java.util.ServiceLoader} can find.</p>
+ *
  * @author <a href="https://about.me/lairdnelson"
  * target="_parent">Laird Nelson</a>
  *
  * @see InputStreamJacksonProvider
+ *
+ * @see org.microbean.loader.jackson.ObjectMapperCustomizer
  */
 public class TomlProvider extends InputStreamJacksonProvider {
 
@@ -63,9 +73,37 @@ public class TomlProvider extends InputStreamJacksonProvider {
    *
    * @exception NullPointerException if {@code resourceName} is {@code
    * null}
+   *
+   * @see #TomlProvider(Type, String, Duration)
    */
   public TomlProvider(final Type lowerBound, final String resourceName) {
-    super(lowerBound, new CachingSupplier<>(TomlMapper::new), resourceName);
+    this(lowerBound, resourceName, null);
+  }
+
+  /**
+   * Creates a new {@link TomlProvider} that, if the named resource is a
+   * file and {@code reloadDelay} is non-{@code null}, watches it
+   * and reads it again whenever it changes.
+   *
+   * @param lowerBound the {@linkplain #lowerBound() lower type bound}
+   * of this {@link InputStreamJacksonProvider} implementation; may be
+   * {@code null}
+   *
+   * @param resourceName the name of the classpath resource to read
+   * from; must not be {@code null}
+   *
+   * @param reloadDelay how long the file must go unchanged before it
+   * is read again; {@code null} or a negative {@link Duration}
+   * disables watching
+   *
+   * @exception NullPointerException if {@code resourceName} is {@code
+   * null}
+   *
+   * @see InputStreamJacksonProvider#InputStreamJacksonProvider(Type,
+   * java.util.function.Supplier, String, boolean, Duration, Duration)
+   */
+  public TomlProvider(final Type lowerBound, final String resourceName, final Duration reloadDelay) {
+    super(lowerBound, new CachingSupplier<>(customizing(TomlMapper::new)), resourceName, false, Duration.ZERO, reloadDelay);
   }
 
 }
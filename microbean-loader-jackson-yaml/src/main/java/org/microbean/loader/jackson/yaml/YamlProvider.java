@@ -16,30 +16,71 @@
  */
 package org.microbean.loader.jackson.yaml;
 
+import java.io.IOException;
+
 import java.lang.reflect.Type;
 
+import java.time.Duration;
+
 import java.util.function.Supplier;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.TreeNode;
+
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
 import com.fasterxml.jackson.dataformat.yaml.YAMLMapper;
 
+import org.microbean.loader.api.Loader;
+
 import org.microbean.loader.jackson.InputStreamJacksonProvider;
 
 import org.microbean.invoke.CachingSupplier;
 
+import org.microbean.path.Path;
+
+import org.microbean.qualifier.Qualifier;
+import org.microbean.qualifier.Qualifiers;
+
+import static org.microbean.loader.jackson.ObjectMapperCustomizer.customizing;
+
 /**
  * An {@link InputStreamJacksonProvider} that reads YAML-formatted
  * {@code application.yaml} classpath resources.
  *
+ * <p>The {@link YAMLMapper} used is customized by every {@link
+ * org.microbean.loader.jackson.ObjectMapperCustomizer} that {@link
+ * java.util.ServiceLoader} can find.</p>
+ *
+ * <p>A {@link YamlProvider} may be {@linkplain #YamlProvider(Type,
+ * String, Duration, boolean) created} to read YAML streams containing
+ * several documents, each of which may declare the qualifiers (such
+ * as an environment or a profile) under which it applies in a
+ * top-level {@code @qualifiers} mapping.</p>
+ *
  * @author <a href="https://about.me/lairdnelson"
  * target="_parent">Laird Nelson</a>
  *
  * @see InputStreamJacksonProvider
+ *
+ * @see org.microbean.loader.jackson.ObjectMapperCustomizer
  */
 public class YamlProvider extends InputStreamJacksonProvider {
 
 
+  /*
+   * Instance fields.
+   */
+
+
+  private final boolean profiles;
+
+
   /*
    * Constructors.
    */
@@ -67,9 +108,291 @@ public class YamlProvider extends InputStreamJacksonProvider {
    *
    * @exception NullPointerException if {@code resourceName} is {@code
    * null}
+   *
+   * @see #YamlProvider(Type, String, Duration)
    */
   public YamlProvider(final Type lowerBound, final String resourceName) {
-    super(lowerBound, new CachingSupplier<>(YAMLMapper::new), resourceName);
+    this(lowerBound, resourceName, null);
+  }
+
+  /**
+   * Creates a new {@link YamlProvider} that, if the named resource is a
+   * file and {@code reloadDelay} is non-{@code null}, watches it
+   * and reads it again whenever it changes.
+   *
+   * @param lowerBound the {@linkplain #lowerBound() lower type bound}
+   * of this {@link InputStreamJacksonProvider} implementation; may be
+   * {@code null}
+   *
+   * @param resourceName the name of the classpath resource to read
+   * from; must not be {@code null}
+   *
+   * @param reloadDelay how long the file must go unchanged before it
+   * is read again; {@code null} or a negative {@link Duration}
+   * disables watching
+   *
+   * @exception NullPointerException if {@code resourceName} is {@code
+   * null}
+   *
+   * @see #YamlProvider(Type, String, Duration, boolean)
+   */
+  public YamlProvider(final Type lowerBound, final String resourceName, final Duration reloadDelay) {
+    this(lowerBound, resourceName, reloadDelay, false);
+  }
+
+  /**
+   * Creates a new {@link YamlProvider} that, if {@code indexed} is
+   * {@code true}, builds a flat index of the document, and that, if
+   * {@code streaming} is {@code true}, materializes only those
+   * top-level members of the document that are actually requested.
+   *
+   * <p>A streaming {@link YamlProvider} reads only the first document
+   * in its resource, and so cannot select among documents by
+   * profile.</p>
+   *
+   * @param lowerBound the {@linkplain #lowerBound() lower type bound}
+   * of this {@link InputStreamJacksonProvider} implementation; may be
+   * {@code null}
+   *
+   * @param resourceName the name of the classpath resource to read
+   * from; must not be {@code null}
+   *
+   * @param indexed whether a flat index of the document should be
+   * built
+   *
+   * @param streaming whether only the top-level members of the
+   * document that are actually requested should be materialized
+   *
+   * @exception NullPointerException if {@code resourceName} is {@code
+   * null}
+   *
+   * @see InputStreamJacksonProvider#InputStreamJacksonProvider(Type,
+   * java.util.function.Supplier, String, boolean, boolean)
+   */
+  public YamlProvider(final Type lowerBound, final String resourceName, final boolean indexed, final boolean streaming) {
+    super(lowerBound, new CachingSupplier<>(customizing(YAMLMapper::new)), resourceName, indexed, streaming);
+    this.profiles = false;
+  }
+
+  /**
+   * Creates a new {@link YamlProvider} that, if the named resource is a
+   * file and {@code reloadDelay} is non-{@code null}, watches it
+   * and reads it again whenever it changes, and that,
+   * if {@code profiles} is {@code true}, reads every document in the
+   * resource, keeping only those that apply to a request.
+   *
+   * <p>When {@code profiles} is {@code true}, a document applies to a
+   * request if it has no top-level {@code @qualifiers} mapping, or if
+   * at least one entry in that mapping names a {@linkplain
+   * Path#qualifiers() qualifier of the requested path} with an equal
+   * (textual) value.  Documents that apply are merged in the order
+   * they appear, later documents taking precedence, as if by {@link
+   * InputStreamJacksonProvider#merge(ObjectNode, ObjectNode)}, and
+   * their {@code @qualifiers} mappings are removed from the result.
+   * The result is cached for each distinct set of qualifiers, so
+   * requests alternating among a few sets of qualifiers do not cause
+   * the resource to be read again.  Documents that do not apply, and documents that are not mappings,
+   * are skipped as they are parsed without being materialized.  Only
+   * the top-level members preceding {@code @qualifiers} in a document
+   * that turns out not to apply are materialized, and only briefly, so
+   * {@code @qualifiers} is best placed first.</p>
+   *
+   * @param lowerBound the {@linkplain #lowerBound() lower type bound}
+   * of this {@link InputStreamJacksonProvider} implementation; may be
+   * {@code null}
+   *
+   * @param resourceName the name of the classpath resource to read
+   * from; must not be {@code null}
+   *
+   * @param reloadDelay how long the file must go unchanged before it
+   * is read again; {@code null} or a negative {@link Duration}
+   * disables watching
+   *
+   * @param profiles whether the resource may contain several
+   * documents to be selected among by qualifiers
+   *
+   * @exception NullPointerException if {@code resourceName} is {@code
+   * null}
+   *
+   * @see #YamlProvider(Type, String, Duration, boolean, boolean)
+   */
+  public YamlProvider(final Type lowerBound, final String resourceName, final Duration reloadDelay, final boolean profiles) {
+    this(lowerBound, resourceName, reloadDelay, profiles, false);
+  }
+
+  /**
+   * Creates a new {@link YamlProvider} that behaves as described by
+   * the {@link #YamlProvider(Type, String, Duration, boolean)}
+   * constructor, and that, if {@code merged} is {@code true}, reads
+   * every resource with the supplied name and merges them into one
+   * document, the first found on the classpath taking precedence and a
+   * file in the {@code user.dir} directory serving only as the
+   * lowest-precedence default.
+   *
+   * <p>When both {@code profiles} and {@code merged} are {@code
+   * true}, documents are selected within each resource before the
+   * resources are merged.</p>
+   *
+   * @param lowerBound the {@linkplain #lowerBound() lower type bound}
+   * of this {@link InputStreamJacksonProvider} implementation; may be
+   * {@code null}
+   *
+   * @param resourceName the name of the classpath resource to read
+   * from; must not be {@code null}
+   *
+   * @param reloadDelay how long the file must go unchanged before it
+   * is read again; {@code null} or a negative {@link Duration}
+   * disables watching
+   *
+   * @param profiles whether the resource may contain several
+   * documents to be selected among by qualifiers
+   *
+   * @param merged whether every resource with the supplied name
+   * should be read and merged into one document
+   *
+   * @exception NullPointerException if {@code resourceName} is {@code
+   * null}
+   *
+   * @see InputStreamJacksonProvider#InputStreamJacksonProvider(Type,
+   * java.util.function.Supplier, String, boolean, Duration, Duration,
+   * boolean)
+   */
+  public YamlProvider(final Type lowerBound,
+                      final String resourceName,
+                      final Duration reloadDelay,
+                      final boolean profiles,
+                      final boolean merged) {
+    super(lowerBound, new CachingSupplier<>(customizing(YAMLMapper::new)), resourceName, false, Duration.ZERO, reloadDelay, merged);
+    this.profiles = profiles;
+  }
+
+
+  /*
+   * Instance methods.
+   */
+
+
+  /**
+   * Reads and returns the root node of the document available from
+   * the supplied {@link JsonParser}.
+   *
+   * <p>If this {@link YamlProvider} was {@linkplain #YamlProvider(Type,
+   * String, Duration, boolean) created} with {@code profiles} set to
+   * {@code true}, the returned root node is the merger of every
+   * document that applies to the supplied {@code absolutePath}, or
+   * {@code null} if there is no such document.  Otherwise it is the
+   * first document.</p>
+   *
+   * @param requestingLoader the {@link Loader} seeking a value; must
+   * not be {@code null}
+   *
+   * @param absolutePath an {@linkplain Path#absolute() absolute
+   * <code>Path</code>} for which a value is being sought; must not be
+   * {@code null}
+   *
+   * @param parser a {@link JsonParser} with an {@link
+   * com.fasterxml.jackson.core.ObjectCodec} set; must not be {@code
+   * null}
+   *
+   * @return the root node, or {@code null}
+   *
+   * @exception IOException if an input or output error occurs
+   *
+   * @nullability This method may return {@code null}.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple
+   * threads.
+   */
+  @Override // InputStreamJacksonProvider
+  protected TreeNode readDocument(final Loader<?> requestingLoader,
+                                  final Path<? extends Type> absolutePath,
+                                  final JsonParser parser)
+    throws IOException {
+    if (!this.profiles) {
+      return super.readDocument(requestingLoader, absolutePath, parser);
+    }
+    final Qualifiers<? extends String, ?> qualifiers = absolutePath.qualifiers();
+    ObjectNode root = null;
+    JsonToken token;
+    while ((token = parser.nextToken()) != null) {
+      if (token != JsonToken.START_OBJECT) {
+        parser.skipChildren();
+        continue;
+      }
+      final ObjectNode document = JsonNodeFactory.instance.objectNode();
+      boolean applies = true;
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        final String name = parser.currentName();
+        parser.nextToken();
+        final JsonNode value = parser.readValueAsTree();
+        document.set(name, value);
+        if (name.equals("@qualifiers") && !applies(value, qualifiers)) {
+          applies = false;
+          break;
+        }
+      }
+      if (applies) {
+        // The qualifiers selected the document; they are not part of
+        // its configuration, and would otherwise be merged with (and
+        // misrepresent) the qualifiers of other documents.
+        document.remove("@qualifiers");
+        root = root == null ? document : merge(root, document);
+      } else {
+        // Skip the rest of this document without materializing it.
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+          parser.nextToken();
+          parser.skipChildren();
+        }
+      }
+    }
+    return root;
+  }
+
+  /**
+   * Returns the {@linkplain Path#qualifiers() qualifiers} of the
+   * supplied {@code absolutePath} if this {@link YamlProvider} was
+   * {@linkplain #YamlProvider(Type, String, Duration, boolean)
+   * created} with {@code profiles} set to {@code true}, since they
+   * determine which documents are read, and {@code null} otherwise.
+   *
+   * @param requestingLoader the {@link Loader} seeking a value; must
+   * not be {@code null}
+   *
+   * @param absolutePath an {@linkplain Path#absolute() absolute
+   * <code>Path</code>} for which a value is being sought; must not be
+   * {@code null}
+   *
+   * @return a key, or {@code null}
+   *
+   * @nullability This method may return {@code null}.
+   *
+   * @idempotency This method is idempotent and deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple
+   * threads.
+   */
+  @Override // InputStreamJacksonProvider
+  protected Object documentKey(final Loader<?> requestingLoader, final Path<? extends Type> absolutePath) {
+    return this.profiles ? absolutePath.qualifiers() : null;
+  }
+
+
+  /*
+   * Static methods.
+   */
+
+
+  private static final boolean applies(final JsonNode documentQualifiers, final Qualifiers<? extends String, ?> qualifiers) {
+    if (documentQualifiers == null || documentQualifiers.isEmpty()) {
+      return true;
+    }
+    for (final Qualifier<? extends String, ?> q : qualifiers) {
+      final JsonNode value = documentQualifiers.get(q.name());
+      if (value != null && value.isValueNode() && value.asText().equals(String.valueOf(q.value()))) {
+        return true;
+      }
+    }
+    return false;
   }
 
 }
@@ -0,0 +1,189 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2022 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package org.microbean.loader.jackson.yaml;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Objects;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import com.fasterxml.jackson.dataformat.yaml.YAMLMapper;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import static org.microbean.loader.jackson.ObjectMapperCustomizer.customizing;
+
+// Checks that binding an already-parsed YAML tree (as
+// JacksonProvider#reader(Loader, Path) does) to a nested graph of
+// records and JavaBeans gives the same result whether or not the
+// YAMLMapper has been customized.  BindingBenchmark in
+// microbean-loader-benchmarks measures binding with and without
+// Blackbird.
+final class TestBinding {
+
+  private TestBinding() {
+    super();
+  }
+
+  @Test
+  final void testBindingUnchanged() throws Exception {
+    final YAMLMapper plain = new YAMLMapper();
+    final JsonNode tree = plain.readTree(document(8, 4));
+    final Service expected = plain.readerFor(Service.class).readValue(tree);
+    assertEquals(expected, customizing(YAMLMapper::new).get().readerFor(Service.class).readValue(tree));
+    assertEquals(8, expected.endpoints().size());
+    assertEquals(4, expected.dataSources().size());
+  }
+
+  private static final String document(final int endpoints, final int dataSources) {
+    final StringBuilder sb = new StringBuilder();
+    sb.append("name: inventory\n");
+    sb.append("version: 42\n");
+    sb.append("enabled: true\n");
+    sb.append("endpoints:\n");
+    for (int i = 0; i < endpoints; i++) {
+      sb.append("  - host: host-").append(i).append(".example.com\n");
+      sb.append("    port: ").append(8000 + i).append('\n');
+      sb.append("    tls: ").append(i % 2 == 0).append('\n');
+      sb.append("    timeouts:\n");
+      sb.append("      connectMillis: ").append(100 + i).append('\n');
+      sb.append("      readMillis: ").append(1000 + i).append('\n');
+      sb.append("    tags: [a, b, c]\n");
+    }
+    sb.append("dataSources:\n");
+    for (int i = 0; i < dataSources; i++) {
+      sb.append("  ds").append(i).append(":\n");
+      sb.append("    url: jdbc:postgresql://db-").append(i).append("/inventory\n");
+      sb.append("    user: app\n");
+      sb.append("    minimumIdle: ").append(i % 4).append('\n');
+      sb.append("    maximumPoolSize: ").append(10 + i).append('\n');
+      sb.append("    idleTimeoutMillis: ").append(60_000L * (i + 1)).append('\n');
+      sb.append("    autoCommit: ").append(i % 3 != 0).append('\n');
+    }
+    return sb.toString();
+  }
+
+
+  /*
+   * Representative configuration classes.
+   */
+
+
+  public static record Service(String name,
+                               int version,
+                               boolean enabled,
+                               List<Endpoint> endpoints,
+                               LinkedHashMap<String, DataSource> dataSources) {}
+
+  public static record Endpoint(String host, int port, boolean tls, Timeouts timeouts, List<String> tags) {}
+
+  public static record Timeouts(long connectMillis, long readMillis) {}
+
+  public static final class DataSource {
+
+    private String url;
+
+    private String user;
+
+    private int minimumIdle;
+
+    private int maximumPoolSize;
+
+    private long idleTimeoutMillis;
+
+    private boolean autoCommit;
+
+    public DataSource() {
+      super();
+    }
+
+    public final String getUrl() {
+      return this.url;
+    }
+
+    public final void setUrl(final String url) {
+      this.url = url;
+    }
+
+    public final String getUser() {
+      return this.user;
+    }
+
+    public final void setUser(final String user) {
+      this.user = user;
+    }
+
+    public final int getMinimumIdle() {
+      return this.minimumIdle;
+    }
+
+    public final void setMinimumIdle(final int minimumIdle) {
+      this.minimumIdle = minimumIdle;
+    }
+
+    public final int getMaximumPoolSize() {
+      return this.maximumPoolSize;
+    }
+
+    public final void setMaximumPoolSize(final int maximumPoolSize) {
+      this.maximumPoolSize = maximumPoolSize;
+    }
+
+    public final long getIdleTimeoutMillis() {
+      return this.idleTimeoutMillis;
+    }
+
+    public final void setIdleTimeoutMillis(final long idleTimeoutMillis) {
+      this.idleTimeoutMillis = idleTimeoutMillis;
+    }
+
+    public final boolean isAutoCommit() {
+      return this.autoCommit;
+    }
+
+    public final void setAutoCommit(final boolean autoCommit) {
+      this.autoCommit = autoCommit;
+    }
+
+    @Override // Object
+    public final int hashCode() {
+      return Objects.hash(this.url, this.user, this.minimumIdle, this.maximumPoolSize, this.idleTimeoutMillis, this.autoCommit);
+    }
+
+    @Override // Object
+    public final boolean equals(final Object other) {
+      if (other == this) {
+        return true;
+      } else if (other instanceof DataSource her) {
+        return
+          Objects.equals(this.url, her.url) &&
+          Objects.equals(this.user, her.user) &&
+          this.minimumIdle == her.minimumIdle &&
+          this.maximumPoolSize == her.maximumPoolSize &&
+          this.idleTimeoutMillis == her.idleTimeoutMillis &&
+          this.autoCommit == her.autoCommit;
+      } else {
+        return false;
+      }
+    }
+
+  }
+
+}
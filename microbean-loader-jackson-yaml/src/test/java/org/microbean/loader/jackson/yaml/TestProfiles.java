@@ -0,0 +1,144 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2022 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package org.microbean.loader.jackson.yaml;
+
+import java.io.IOException;
+
+import java.lang.reflect.Type;
+
+import java.nio.file.Files;
+
+import java.util.List;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.TreeNode;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import com.fasterxml.jackson.dataformat.yaml.YAMLMapper;
+
+import org.junit.jupiter.api.Test;
+
+import org.microbean.loader.DefaultLoader;
+
+import org.microbean.loader.api.Loader;
+
+import org.microbean.path.Path;
+import org.microbean.path.Path.Element;
+
+import org.microbean.qualifier.Qualifiers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import static org.microbean.loader.api.Loader.loader;
+
+final class TestProfiles {
+
+  private static final String DOCUMENTS =
+    """
+    profiles:
+      shared: base
+      common: everywhere
+    ---
+    "@qualifiers":
+      env: test
+    profiles:
+      shared: test
+      onlyInTest: present
+    ---
+    "@qualifiers":
+      env: prod
+    profiles:
+      shared: prod
+    """;
+
+  private TestProfiles() {
+    super();
+  }
+
+  @Test
+  final void testDocumentsSelectedByQualifiers() throws IOException {
+    final java.nio.file.Path userDir = java.nio.file.Path.of(System.getProperty("user.dir", ".")).toAbsolutePath();
+    final java.nio.file.Path file = Files.createTempFile(userDir, "profiles", ".yaml");
+    try {
+      Files.writeString(file, DOCUMENTS);
+      final Loader<?> loader =
+        loader().as(DefaultLoader.class).plus(new YamlProvider(String.class, file.getFileName().toString(), null, true));
+
+      assertEquals("test", loader.load(path("test", "shared")).get());
+      assertEquals("everywhere", loader.load(path("test", "common")).get());
+      assertEquals("present", loader.load(path("test", "onlyInTest")).get());
+
+      assertEquals("prod", loader.load(path("prod", "shared")).get());
+      assertNull(loader.load(path("prod", "onlyInTest")).orElse(null));
+
+      // No qualifiers: only the unqualified document applies.
+      assertEquals("base", loader.load(String.class, List.of("profiles", "shared")).get());
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  @Test
+  final void testAlternatingQualifiersReadOncePerQualifiers() throws IOException {
+    final java.nio.file.Path userDir = java.nio.file.Path.of(System.getProperty("user.dir", ".")).toAbsolutePath();
+    final java.nio.file.Path file = Files.createTempFile(userDir, "profiles", ".yaml");
+    try {
+      Files.writeString(file, DOCUMENTS);
+      final AtomicInteger reads = new AtomicInteger();
+      final YamlProvider provider = new YamlProvider(String.class, file.getFileName().toString(), null, true) {
+          @Override // YamlProvider
+          protected final TreeNode readDocument(final Loader<?> requestingLoader,
+                                                final Path<? extends Type> absolutePath,
+                                                final JsonParser parser)
+            throws IOException {
+            reads.incrementAndGet();
+            return super.readDocument(requestingLoader, absolutePath, parser);
+          }
+        };
+      for (int i = 0; i < 3; i++) {
+        // A new Loader each time, so that its own cache of loaded
+        // values does not hide the provider's behavior.
+        final Loader<?> loader = loader().as(DefaultLoader.class).plus(provider);
+        assertEquals("test", loader.load(path("test", "shared")).get());
+        assertEquals("prod", loader.load(path("prod", "shared")).get());
+      }
+      assertEquals(Integer.valueOf(2), Integer.valueOf(reads.get()));
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  @Test
+  final void testQualifiersRemovedFromMergedDocument() throws IOException {
+    final YamlProvider provider = new YamlProvider(String.class, "profiles.yaml", null, true);
+    try (final JsonParser parser = new YAMLMapper().createParser(DOCUMENTS)) {
+      final JsonNode root = (JsonNode)provider.readDocument(null, path("test", "shared"), parser);
+      assertEquals("test", root.path("profiles").path("shared").asText());
+      assertFalse(root.has("@qualifiers"));
+    }
+  }
+
+  private static final Path<? extends Type> path(final String env, final String name) {
+    return Path.of(Qualifiers.of("env", env), List.of(Element.of(Object.class, "profiles")), Element.of(String.class, name));
+  }
+
+}
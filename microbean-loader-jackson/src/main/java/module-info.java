@@ -30,10 +30,15 @@ module org.microbean.loader.jackson {
 
   opens org.microbean.loader.jackson to com.fasterxml.jackson.databind;
 
+  provides org.microbean.loader.jackson.ObjectMapperCustomizer with org.microbean.loader.jackson.BlackbirdObjectMapperCustomizer;
+
   requires transitive com.fasterxml.jackson.core;
   requires transitive com.fasterxml.jackson.databind;
+  requires static com.fasterxml.jackson.module.blackbird;
   requires java.logging;
   requires org.microbean.loader.api;
   requires transitive org.microbean.loader;
+
+  uses org.microbean.loader.jackson.ObjectMapperCustomizer;
   
 }
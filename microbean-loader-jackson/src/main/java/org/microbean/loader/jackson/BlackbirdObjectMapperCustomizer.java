@@ -0,0 +1,199 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2022 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package org.microbean.loader.jackson;
+
+import java.util.Objects;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+
+/**
+ * An {@link ObjectMapperCustomizer} that {@linkplain
+ * ObjectMapper#registerModule(com.fasterxml.jackson.databind.Module)
+ * registers} the Jackson <a
+ * href="https://github.com/FasterXML/jackson-modules-base/tree/2.13/blackbird"
+ * target="_top">Blackbird</a> module, which replaces reflective
+ * property access during data binding with {@link
+ * java.lang.invoke.LambdaMetafactory}-generated accessors, if and
+ * only if that module is present at runtime and this {@link
+ * BlackbirdObjectMapperCustomizer} is {@linkplain #enabled()
+ * enabled}.
+ *
+ * <p>Blackbird is an optional dependency of this module.  When it is
+ * absent, {@link #customize(ObjectMapper)} does nothing.</p>
+ *
+ * <p>Blackbird changes how every bound class is accessed, so its use
+ * is opt-in.  An instance {@linkplain java.util.ServiceLoader
+ * discovered} by {@link
+ * ObjectMapperCustomizer#customizing(java.util.function.Supplier)} is
+ * enabled only if the {@value #ENABLED_PROPERTY} system property is
+ * {@code true}.  An application may instead customize its own
+ * {@link ObjectMapper}s with an instance {@linkplain
+ * #BlackbirdObjectMapperCustomizer(boolean) created} enabled.</p>
+ *
+ * <p>When running on the module path, packages containing classes to
+ * be bound must be open to the {@code
+ * com.fasterxml.jackson.module.blackbird} module (or to the unnamed
+ * module, if Blackbird is on the classpath) for Blackbird to
+ * accelerate them; otherwise Jackson's ordinary reflective access is
+ * used.</p>
+ *
+ * @author <a href="https://about.me/lairdnelson"
+ * target="_parent">Laird Nelson</a>
+ *
+ * @see ObjectMapperCustomizer
+ */
+public final class BlackbirdObjectMapperCustomizer implements ObjectMapperCustomizer {
+
+
+  /*
+   * Static fields.
+   */
+
+
+  /**
+   * The name of the system property that, if {@code true}, enables
+   * instances created by the {@link
+   * #BlackbirdObjectMapperCustomizer()} constructor.
+   */
+  public static final String ENABLED_PROPERTY = "org.microbean.loader.jackson.blackbird";
+
+  private static final Logger logger = Logger.getLogger(BlackbirdObjectMapperCustomizer.class.getName());
+
+  private static final boolean AVAILABLE = probe();
+
+
+  /*
+   * Instance fields.
+   */
+
+
+  private final boolean enabled;
+
+
+  /*
+   * Constructors.
+   */
+
+
+  /**
+   * Creates a new {@link BlackbirdObjectMapperCustomizer} that is
+   * {@linkplain #enabled() enabled} if and only if the {@value
+   * #ENABLED_PROPERTY} system property is {@code true}.
+   *
+   * <p>This constructor is the one used by {@link
+   * java.util.ServiceLoader}.</p>
+   *
+   * @see #BlackbirdObjectMapperCustomizer(boolean)
+   */
+  public BlackbirdObjectMapperCustomizer() {
+    this(Boolean.getBoolean(ENABLED_PROPERTY));
+  }
+
+  /**
+   * Creates a new {@link BlackbirdObjectMapperCustomizer}.
+   *
+   * @param enabled whether the {@link #customize(ObjectMapper)}
+   * method should register Blackbird when it is present
+   */
+  public BlackbirdObjectMapperCustomizer(final boolean enabled) {
+    super();
+    this.enabled = enabled;
+  }
+
+
+  /*
+   * Instance methods.
+   */
+
+
+  /**
+   * Returns {@code true} if this {@link
+   * BlackbirdObjectMapperCustomizer} registers Blackbird when it is
+   * present.
+   *
+   * @return {@code true} if this {@link
+   * BlackbirdObjectMapperCustomizer} registers Blackbird when it is
+   * present
+   */
+  public final boolean enabled() {
+    return this.enabled;
+  }
+
+  /**
+   * Registers a new {@link BlackbirdModule} with the supplied {@link
+   * ObjectMapper} if this {@link BlackbirdObjectMapperCustomizer} is
+   * {@linkplain #enabled() enabled} and Blackbird is present at
+   * runtime, and does nothing otherwise.
+   *
+   * @param mapper the {@link ObjectMapper} to customize; must not be
+   * {@code null}
+   *
+   * @exception NullPointerException if {@code mapper} is {@code null}
+   */
+  @Override // ObjectMapperCustomizer
+  public final void customize(final ObjectMapper mapper) {
+    Objects.requireNonNull(mapper, "mapper");
+    if (this.enabled && AVAILABLE) {
+      mapper.registerModule(new BlackbirdModule());
+    }
+  }
+
+
+  /*
+   * Static methods.
+   */
+
+
+  /**
+   * Returns {@code true} if the Jackson Blackbird module is present at
+   * runtime and usable by this class.
+   *
+   * @return {@code true} if the Jackson Blackbird module is present
+   * at runtime and usable by this class
+   */
+  public static final boolean available() {
+    return AVAILABLE;
+  }
+
+  private static final boolean probe() {
+    final Class<?> c;
+    try {
+      c = Class.forName("com.fasterxml.jackson.module.blackbird.BlackbirdModule",
+                        false,
+                        BlackbirdObjectMapperCustomizer.class.getClassLoader());
+    } catch (final ClassNotFoundException | LinkageError e) {
+      if (logger.isLoggable(Level.FINE)) {
+        logger.log(Level.FINE, "Blackbird is not available", e);
+      }
+      return false;
+    }
+    // This module requires Blackbird statically.  If Blackbird ended
+    // up on the classpath instead of the module path, this module
+    // must be told to read the unnamed module it is in.
+    final Module module = BlackbirdObjectMapperCustomizer.class.getModule();
+    if (!module.canRead(c.getModule())) {
+      module.addReads(c.getModule());
+    }
+    return true;
+  }
+
+}
@@ -0,0 +1,230 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2022 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package org.microbean.loader.jackson;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import java.nio.file.Files;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+
+/**
+ * A utility class, usable from the command line or from a build, that
+ * converts a configuration document from one Jackson-supported format
+ * (such as YAML or TOML) to another (such as Smile or CBOR).
+ *
+ * <p>The document is copied token by token, so input in a format
+ * whose Jackson parser streams (JSON, YAML, Smile and CBOR) is never
+ * held in memory as a whole.  The Jackson TOML and properties
+ * parsers, by contrast, read their entire input before producing any
+ * tokens, so TOML and properties documents are held in memory while
+ * they are converted.</p>
+ *
+ * <p>Formats are identified by file extension.  The {@link
+ * JsonFactory} for a format is loaded reflectively, so only the
+ * Jackson dataformat modules for the formats actually converted need
+ * to be present.</p>
+ *
+ * <p>Only the first document in the input is converted, since that
+ * is the only one an {@link InputStreamJacksonProvider} reads.</p>
+ *
+ * @author <a href="https://about.me/lairdnelson"
+ * target="_parent">Laird Nelson</a>
+ *
+ * @see #main(String[])
+ */
+public final class FormatConverter {
+
+
+  /*
+   * Static fields.
+   */
+
+
+  private static final Map<String, String> FACTORY_CLASS_NAMES =
+    Map.of("cbor", "com.fasterxml.jackson.dataformat.cbor.CBORFactory",
+           "json", "com.fasterxml.jackson.core.JsonFactory",
+           "properties", "com.fasterxml.jackson.dataformat.javaprop.JavaPropsFactory",
+           "smile", "com.fasterxml.jackson.dataformat.smile.SmileFactory",
+           "toml", "com.fasterxml.jackson.dataformat.toml.TomlFactory",
+           "yaml", "com.fasterxml.jackson.dataformat.yaml.YAMLFactory",
+           "yml", "com.fasterxml.jackson.dataformat.yaml.YAMLFactory");
+
+
+  /*
+   * Constructors.
+   */
+
+
+  private FormatConverter() {
+    super();
+  }
+
+
+  /*
+   * Static methods.
+   */
+
+
+  /**
+   * Converts the file named by the first argument into the file named
+   * by the second, choosing formats by file extension.
+   *
+   * <p>For example:</p>
+   *
+   * <blockquote><pre>java org.microbean.loader.jackson.FormatConverter application.yaml application.smile</pre></blockquote>
+   *
+   * @param args the command line arguments; must contain exactly two
+   * elements
+   *
+   * @exception IOException if an input or output error occurs
+   *
+   * @see #convert(java.nio.file.Path, java.nio.file.Path)
+   */
+  public static final void main(final String[] args) throws IOException {
+    if (args == null || args.length != 2) {
+      System.err.println("Usage: " + FormatConverter.class.getName() + " <input file> <output file>");
+      System.err.println("Supported extensions: " + new TreeSet<>(FACTORY_CLASS_NAMES.keySet()));
+      System.exit(1);
+      return;
+    }
+    convert(java.nio.file.Path.of(args[0]), java.nio.file.Path.of(args[1]));
+  }
+
+  /**
+   * Converts the {@code input} file into the {@code output} file,
+   * choosing formats by file extension.
+   *
+   * @param input the file to read; must not be {@code null}
+   *
+   * @param output the file to write, which will be created or
+   * replaced; must not be {@code null}
+   *
+   * @exception NullPointerException if either argument is {@code
+   * null}
+   *
+   * @exception IllegalArgumentException if either file's extension
+   * does not identify a supported format
+   *
+   * @exception IllegalStateException if the Jackson dataformat module
+   * for either format is not available
+   *
+   * @exception IOException if an input or output error occurs
+   *
+   * @see #factory(java.nio.file.Path)
+   *
+   * @see #convert(JsonFactory, InputStream, JsonFactory, OutputStream)
+   */
+  public static final void convert(final java.nio.file.Path input, final java.nio.file.Path output) throws IOException {
+    final JsonFactory inputFactory = factory(input);
+    final JsonFactory outputFactory = factory(output);
+    try (final InputStream in = new BufferedInputStream(Files.newInputStream(input));
+         final OutputStream out = new BufferedOutputStream(Files.newOutputStream(output))) {
+      convert(inputFactory, in, outputFactory, out);
+    }
+  }
+
+  /**
+   * Reads the first document from the supplied {@link InputStream}
+   * using a {@link JsonParser} created by the supplied {@code
+   * inputFactory} and copies it, token by token, to the supplied
+   * {@link OutputStream} using a {@link JsonGenerator} created by the
+   * supplied {@code outputFactory}.
+   *
+   * <p>Each stream is closed afterwards if and only if the relevant
+   * factory enables {@link JsonParser.Feature#AUTO_CLOSE_SOURCE} or
+   * {@link JsonGenerator.Feature#AUTO_CLOSE_TARGET} respectively, as
+   * it does by default.</p>
+   *
+   * @param inputFactory the {@link JsonFactory} for the input format;
+   * must not be {@code null}
+   *
+   * @param in the {@link InputStream} to read; must not be {@code
+   * null}
+   *
+   * @param outputFactory the {@link JsonFactory} for the output
+   * format; must not be {@code null}
+   *
+   * @param out the {@link OutputStream} to write; must not be {@code
+   * null}
+   *
+   * @exception NullPointerException if any argument is {@code null}
+   *
+   * @exception IOException if an input or output error occurs
+   */
+  public static final void convert(final JsonFactory inputFactory,
+                                   final InputStream in,
+                                   final JsonFactory outputFactory,
+                                   final OutputStream out)
+    throws IOException {
+    Objects.requireNonNull(in, "in");
+    Objects.requireNonNull(out, "out");
+    try (final JsonParser parser = inputFactory.createParser(in);
+         final JsonGenerator generator = outputFactory.createGenerator(out)) {
+      if (parser.nextToken() != null) {
+        generator.copyCurrentStructure(parser);
+      }
+      generator.flush();
+    }
+  }
+
+  /**
+   * Returns a new {@link JsonFactory} suitable for the format
+   * identified by the extension of the supplied file.
+   *
+   * @param file the file; must not be {@code null}
+   *
+   * @return a new {@link JsonFactory}; never {@code null}
+   *
+   * @exception NullPointerException if {@code file} is {@code null}
+   *
+   * @exception IllegalArgumentException if {@code file}'s extension
+   * does not identify a supported format
+   *
+   * @exception IllegalStateException if the Jackson dataformat module
+   * for the format is not available
+   */
+  public static final JsonFactory factory(final java.nio.file.Path file) {
+    final String fileName = String.valueOf(file.getFileName());
+    final int dot = fileName.lastIndexOf('.');
+    final String extension = dot < 0 ? "" : fileName.substring(dot + 1).toLowerCase(Locale.ROOT);
+    final String className = FACTORY_CLASS_NAMES.get(extension);
+    if (className == null) {
+      throw new IllegalArgumentException("file: " + file + "; supported extensions: " + new TreeSet<>(FACTORY_CLASS_NAMES.keySet()));
+    }
+    try {
+      return
+        (JsonFactory)Class.forName(className, true, FormatConverter.class.getClassLoader())
+        .getDeclaredConstructor()
+        .newInstance();
+    } catch (final ReflectiveOperationException | LinkageError e) {
+      throw new IllegalStateException("The Jackson dataformat for ." + extension + " files is not available", e);
+    }
+  }
+
+}
@@ -22,25 +22,70 @@ import java.io.FileNotFoundException;
 import java.io.InputStream;
 import java.io.UncheckedIOException;
 
+import java.lang.ref.Reference;
+import java.lang.ref.WeakReference;
+
 import java.lang.reflect.Type;
 
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+
+import java.nio.ByteBuffer;
+
+import java.nio.channels.FileChannel;
+
 import java.nio.file.Files;
 import java.nio.file.NoSuchFileException;
 import java.nio.file.Paths;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
 
+import java.nio.file.attribute.BasicFileAttributes;
+
+import java.time.Duration;
+
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map.Entry;
 import java.util.Objects;
+import java.util.Set;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
+import java.util.jar.JarEntry;
+
+import java.util.stream.Stream;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
 import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.core.ObjectCodec;
 import com.fasterxml.jackson.core.TreeNode;
 
 import com.fasterxml.jackson.databind.DeserializationConfig;
 import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 
 import org.microbean.development.annotation.Convenience;
 
@@ -50,6 +95,11 @@ import org.microbean.path.Path;
 
 import org.microbean.type.JavaTypes;
 
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
 /**
  * A {@link JacksonProvider} built around an {@link
  * InputStream}-providing {@linkplain BiFunction bifunction} and an
@@ -58,7 +108,64 @@ import org.microbean.type.JavaTypes;
  * @author <a href="https://about.me/lairdnelson"
  * target="_parent">Laird Nelson</a>
  */
-public class InputStreamJacksonProvider extends JacksonProvider {
+public class InputStreamJacksonProvider extends JacksonProvider implements AutoCloseable {
+
+
+  /*
+   * Static fields.
+   */
+
+
+  /**
+   * The revalidation interval used by an {@linkplain
+   * #InputStreamJacksonProvider(Type, Supplier, String, boolean)
+   * indexed} {@link InputStreamJacksonProvider} unless another is
+   * supplied.
+   *
+   * <p>With an interval of {@link Duration#ZERO} a cached document
+   * is never known to be current without revalidating it, so the
+   * Bloom filter built alongside its index could never be used to
+   * reject a request.</p>
+   *
+   * @see #InputStreamJacksonProvider(Type, Supplier, String, boolean,
+   * Duration)
+   *
+   * @see #rootNodeCurrent(Loader, Path, TreeNode)
+   */
+  public static final Duration DEFAULT_INDEXED_REVALIDATION_INTERVAL = Duration.ofSeconds(1L);
+
+  private static final Logger logger = Logger.getLogger(InputStreamJacksonProvider.class.getName());
+
+  /**
+   * The greatest number of documents, each for a different
+   * {@linkplain #documentKey(Loader, Path) key}, that are cached at
+   * once.
+   */
+  private static final int MAX_DOCUMENTS = 8;
+
+  /**
+   * The key under which a document is cached when its {@linkplain
+   * #documentKey(Loader, Path) document key} is {@code null}.
+   */
+  private static final Object NULL_KEY = new Object();
+
+  /**
+   * The size in bytes below which a file is read rather than
+   * memory-mapped.
+   *
+   * <p>Mapping a file costs more up front than reading it, so it only
+   * pays off for large files.</p>
+   */
+  private static final long MAPPING_THRESHOLD = 1L << 20;
+
+  /**
+   * Whether files may be memory-mapped at all.
+   *
+   * <p>On Windows a mapped file cannot be replaced or deleted until
+   * its mapping is garbage collected, which would get in the way of
+   * anything editing it.</p>
+   */
+  private static final boolean MAPPING_PERMITTED = !System.getProperty("os.name", "").startsWith("Windows");
 
 
   /*
@@ -72,6 +179,51 @@ public class InputStreamJacksonProvider extends JacksonProvider {
 
   private final Consumer<? super InputStream> inputStreamReadConsumer;
 
+  private final BiFunction<? super Loader<?>, ? super Path<? extends Type>, ? extends List<URL>> resourcesFunction;
+
+  private final BiFunction<? super Loader<?>, ? super Path<? extends Type>, ? extends ClassLoader> classLoaderFunction;
+
+  private final boolean streaming;
+
+  private final BiFunction<? super Loader<?>, ? super Path<? extends Type>, ?> fingerprintFunction;
+
+  private final long revalidationIntervalNanos;
+
+  private final BiFunction<? super Loader<?>, ? super Path<? extends Type>, ? extends java.nio.file.Path> fileFunction;
+
+  private final long reloadDelayNanos;
+
+  /**
+   * The {@link Watcher} discarding the documents read from a file
+   * whenever it changes, or {@code null} if there is none.
+   */
+  private volatile Watcher watcher;
+
+  private boolean closed; // @GuardedBy("this")
+
+  /**
+   * The most recently read documents, indexed by the {@linkplain
+   * #key(Loader, Path) keys} of the requests they were read for, if
+   * this {@link InputStreamJacksonProvider} was {@linkplain
+   * #InputStreamJacksonProvider(Type, BiFunction, BiFunction,
+   * Consumer, boolean, boolean, BiFunction, Duration) supplied with a
+   * fingerprint function}.
+   *
+   * <p>Discarding every cached document is done by replacing the map
+   * rather than clearing it, so that a document read before the
+   * discard, but cached after it, is cached in a map that is no
+   * longer consulted.</p>
+   */
+  private volatile ConcurrentMap<Object, Document> documents;
+
+  /**
+   * The top-level sections of the document materialized so far, if
+   * this {@link InputStreamJacksonProvider} is {@linkplain
+   * #InputStreamJacksonProvider(Type, BiFunction, BiFunction,
+   * Consumer, boolean, boolean) streaming}, or {@code null}.
+   */
+  private volatile Sections sections;
+
 
   /*
    * Constructors.
@@ -107,10 +259,7 @@ public class InputStreamJacksonProvider extends JacksonProvider {
   public InputStreamJacksonProvider(final Type lowerBound,
                                     final Supplier<? extends ObjectMapper> mapperSupplier,
                                     final String resourceName) {
-    this(lowerBound,
-         objectCodecFunction(mapperSupplier),
-         (l, p) -> inputStream(classLoader(p), resourceName),
-         InputStreamJacksonProvider::closeInputStream);
+    this(lowerBound, mapperSupplier, resourceName, false);
   }
 
   /**
@@ -120,187 +269,1474 @@ public class InputStreamJacksonProvider extends JacksonProvider {
    * of this {@link InputStreamJacksonProvider} implementation; may be
    * {@code null}
    *
-   * @param objectCodecFunction a {@link BiFunction} that returns an
-   * {@link ObjectCodec} when supplied with a {@link Loader} and a
-   * {@link Path}; may be {@code null}
+   * @param mapperSupplier a {@link Supplier}, deterministic or not,
+   * of {@link ObjectMapper} instances; ordinarily callers should
+   * supply a {@link Supplier} that caches; may be {@code null}
    *
-   * @param inputStreamFunction a {@link BiFunction} that returns an
-   * open {@link InputStream} when supplied with a {@link Loader} and
-   * a {@link Path}; may be {@code null}
+   * @param resourceName a resource name that is treated first as a
+   * classpath resource and finally as the name of a file relative to
+   * the directory identified by the {@link System#getProperty(String,
+   * String) user.dir} system property
    *
-   * @param inputStreamReadConsumer a {@link Consumer} that is called
-   * with an {@link InputStream} after the {@link InputStream} has
-   * been fully read; may be {@code null}; normally should
-   * {@linkplain InputStream#close() close} the {@link InputStream}
+   * @param indexed whether a flat index of every node in a tree
+   * should be built when its root node is first seen; if {@code
+   * true}, the cached document is revalidated no more often than
+   * every {@link #DEFAULT_INDEXED_REVALIDATION_INTERVAL}, and
+   * otherwise on every request
+   *
+   * @see #InputStreamJacksonProvider(Type, Supplier, String, boolean,
+   * Duration)
+   *
+   * @see #inputStream(ClassLoader, String)
    */
   public InputStreamJacksonProvider(final Type lowerBound,
-                                    final BiFunction<? super Loader<?>, ? super Path<? extends Type>, ? extends ObjectCodec> objectCodecFunction,
-                                    final BiFunction<? super Loader<?>, ? super Path<? extends Type>, ? extends InputStream> inputStreamFunction,
-                                    final Consumer<? super InputStream> inputStreamReadConsumer) {
-    super(lowerBound);
-    this.objectCodecFunction = objectCodecFunction == null ? InputStreamJacksonProvider::returnNull : objectCodecFunction;
-    this.inputStreamFunction = inputStreamFunction == null ? InputStreamJacksonProvider::returnNull : inputStreamFunction;
-    this.inputStreamReadConsumer = inputStreamReadConsumer == null ? InputStreamJacksonProvider::sink : inputStreamReadConsumer;
+                                    final Supplier<? extends ObjectMapper> mapperSupplier,
+                                    final String resourceName,
+                                    final boolean indexed) {
+    this(lowerBound, mapperSupplier, resourceName, indexed, indexed ? DEFAULT_INDEXED_REVALIDATION_INTERVAL : Duration.ZERO);
   }
 
-
-  /*
-   * Instance methods.
-   */
-
-
   /**
-   * Invokes the {@link BiFunction#apply(Object, Object)} method of
-   * the {@code objectCodecFunction} {@linkplain
-   * #InputStreamJacksonProvider(Type, BiFunction, BiFunction,
-   * Consumer) supplied at construction time} and returns the result.
+   * Creates a new {@link InputStreamJacksonProvider}.
    *
-   * @param requestingLoader the {@link Loader} requesting a value;
-   * must not be {@code null}
+   * <p>The document is read once and cached.  Whether the resource
+   * has changed since it was read is determined by comparing its
+   * {@linkplain #fingerprint(ClassLoader, String) fingerprint} with
+   * the fingerprint it had when it was read, no more often than
+   * indicated by the supplied {@code revalidationInterval}.  Taking a
+   * fingerprint is not free: it looks the resource up again with
+   * {@link ClassLoader#getResource(String)} and then reads the
+   * attributes of a file or opens a {@link JarURLConnection} to find
+   * a jar entry, so with an interval of {@link Duration#ZERO} every
+   * request pays that cost.</p>
    *
-   * @param absolutePath the {@linkplain Path#absolute() absolute}
-   * {@link Path} the {@code requestingLoader} is currently
-   * requesting; must not be {@code null}
+   * <p>A file of a megabyte or more that is found relative to the
+   * directory identified by the {@link System#getProperty(String,
+   * String) user.dir} system property is {@linkplain
+   * FileChannel#map(FileChannel.MapMode, long, long) memory-mapped}
+   * rather than read through a heap buffer, except on Windows, where
+   * a mapped file cannot be replaced or deleted until its mapping is
+   * garbage collected.</p>
    *
-   * @return an {@link ObjectCodec} suitable for the supplied
-   * arguments, or {@code null} if this {@link
-   * InputStreamJacksonProvider} should not handle the current request
+   * <p>Different requests may find the resource with different
+   * {@link ClassLoader}s, and so may find different resources.  A
+   * cached document is therefore only ever used for requests whose
+   * {@link ClassLoader} is the one that found it.</p>
    *
-   * @nullability This method may return {@code null}.
+   * @param lowerBound the {@linkplain #lowerBound() lower type bound}
+   * of this {@link InputStreamJacksonProvider} implementation; may be
+   * {@code null}
    *
-   * @threadsafety This method is safe for concurrent use by multiple
-   * threads, but the {@code objectCodecFunction} {@linkplain
-   * #InputStreamJacksonProvider(Type, BiFunction, BiFunction,
-   * Consumer) supplied at construction time} may not be.
+   * @param mapperSupplier a {@link Supplier}, deterministic or not,
+   * of {@link ObjectMapper} instances; ordinarily callers should
+   * supply a {@link Supplier} that caches; may be {@code null}
    *
-   * @idempotency This method is idempotent and deterministic if the
-   * {@code objectCodecFunction} {@linkplain
-   * #InputStreamJacksonProvider(Type, BiFunction, BiFunction,
-   * Consumer) supplied at construction time} is.
+   * @param resourceName a resource name that is treated first as a
+   * classpath resource and finally as the name of a file relative to
+   * the directory identified by the {@link System#getProperty(String,
+   * String) user.dir} system property
+   *
+   * @param indexed whether a flat index of every node in a tree
+   * should be built when its root node is first seen
+   *
+   * @param revalidationInterval the minimum amount of time that must
+   * elapse before a cached document is checked for changes; {@link
+   * Duration#ZERO} causes every request to check; {@code null} or a
+   * negative {@link Duration} causes the document to be read only
+   * once (or whenever the {@link #refresh()} method is called)
+   *
+   * @see #InputStreamJacksonProvider(Type, BiFunction, BiFunction,
+   * Consumer, boolean, boolean, BiFunction, Duration)
+   *
+   * @see #inputStream(ClassLoader, String)
+   *
+   * @see #fingerprint(ClassLoader, String)
    */
-  @Override // JacksonProvider
-  protected final ObjectCodec objectCodec(final Loader<?> requestingLoader, final Path<? extends Type> absolutePath) {
-    return this.objectCodecFunction.apply(requestingLoader, absolutePath);
-  }
-
-  @Override // JacksonProvider
-  protected TreeNode rootNode(final Loader<?> requestingLoader,
-                              final Path<? extends Type> absolutePath) {
-    InputStream is = null;
-    RuntimeException runtimeException = null;
-    ObjectCodec objectCodec = this.objectCodec(requestingLoader, absolutePath);
-    if (objectCodec == null) {
-      return null;
-    }
-    JsonParser parser = null;
-    try {
-      is = this.inputStreamFunction.apply(requestingLoader, absolutePath);
-      if (is == null) {
-        return null;
-      }
-      parser = objectCodec.getFactory().createParser(is);
-      parser.setCodec(objectCodec);
-      return parser.readValueAsTree();
-    } catch (final IOException ioException) {
-      runtimeException = new UncheckedIOException(ioException.getMessage(), ioException);
-    } catch (final RuntimeException e) {
-      runtimeException = e;
-    } finally {
-      try {
-        if (parser != null) {
-          parser.setCodec(null);
-          parser.close();
-        }
-      } catch (final IOException ioException) {
-        if (runtimeException == null) {
-          runtimeException = new UncheckedIOException(ioException.getMessage(), ioException);
-        } else {
-          runtimeException.addSuppressed(ioException);
-        }
-      } catch (final RuntimeException e) {
-        if (runtimeException == null) {
-          runtimeException = e;
-        } else {
-          runtimeException.addSuppressed(e);
-        }
-      } finally {
-        try {
-          if (is != null) {
-            this.inputStreamReadConsumer.accept(is);
-          }
-        } catch (final RuntimeException e) {
-          if (runtimeException == null) {
-            runtimeException = e;
-          } else {
-            runtimeException.addSuppressed(e);
-          }
-        } finally {
-          if (runtimeException != null) {
-            throw runtimeException;
-          }
-        }
-      }
-    }
-    return null;
+  public InputStreamJacksonProvider(final Type lowerBound,
+                                    final Supplier<? extends ObjectMapper> mapperSupplier,
+                                    final String resourceName,
+                                    final boolean indexed,
+                                    final Duration revalidationInterval) {
+    this(lowerBound, mapperSupplier, resourceName, indexed, revalidationInterval, null);
   }
 
-
-  /*
-   * Static methods.
-   */
-
-
   /**
-   * Returns an open {@link InputStream} loaded using the supplied
-   * {@link ClassLoader} and a name of a classpath resource.
+   * Creates a new {@link InputStreamJacksonProvider}.
    *
-   * <p>This method never returns {@code null}.</p>
+   * <p>The document is read once and cached, as described by the
+   * {@link #InputStreamJacksonProvider(Type, Supplier, String,
+   * boolean, Duration)} constructor.</p>
    *
-   * @param cl the {@link ClassLoader} that will actually cause the
-   * {@link InputStream} to be created and opened; may be {@code null}
-   * in which case the system classloader will be used instead
+   * <p>If {@code reloadDelay} is non-{@code null} and not negative,
+   * and the resource turns out to be a file, then, once the document
+   * has first been read, the file is watched using a {@link
+   * WatchService}.  Whenever it changes, and then no further changes
+   * to it have been seen for {@code reloadDelay}, every cached
+   * document read from it is discarded in a single step, and is read
+   * again by the next request that needs it.  Until then requests are
+   * answered from the cached documents without waiting.  Documents
+   * read from the file are not revalidated while it is being watched,
+   * so the {@code revalidationInterval} applies only to documents
+   * that other {@link ClassLoader}s found elsewhere.  Nothing about
+   * the request that first read the document is retained by the
+   * watch other than the {@link ClassLoader} that found the file,
+   * which is only weakly reachable from it.  Because the file is
+   * expected to be rewritten, possibly while it is being read, it is
+   * never memory-mapped.</p>
    *
-   * @param resourceName the name of the classpath resource for which
-   * an {@link InputStream} will be created and opened; must not be
+   * @param lowerBound the {@linkplain #lowerBound() lower type bound}
+   * of this {@link InputStreamJacksonProvider} implementation; may be
    * {@code null}
    *
-   * @return a non-{@code null}, open {@link InputStream}
+   * @param mapperSupplier a {@link Supplier}, deterministic or not,
+   * of {@link ObjectMapper} instances; ordinarily callers should
+   * supply a {@link Supplier} that caches; may be {@code null}
    *
-   * @exception NullPointerException if {@code resourceName} is {@code
-   * null}
+   * @param resourceName a resource name that is treated first as a
+   * classpath resource and finally as the name of a file relative to
+   * the directory identified by the {@link System#getProperty(String,
+   * String) user.dir} system property
    *
-   * @nullability This method never returns {@code null}.
+   * @param indexed whether a flat index of every node in a tree
+   * should be built when its root node is first seen
    *
-   * @idempotency This method is idempotent and deterministic.
+   * @param revalidationInterval the minimum amount of time that must
+   * elapse before a cached document is checked for changes when its
+   * file is not being watched; {@link Duration#ZERO} causes every
+   * request to check; {@code null} or a negative {@link Duration}
+   * causes the document to be read only once (or whenever the {@link
+   * #refresh()} method is called)
    *
-   * @threadsafety This method is safe for concurrent use by multiple
-   * threads.
+   * @param reloadDelay how long a watched file must go unchanged
+   * before it is read again; {@code null} or a negative {@link
+   * Duration} disables watching
+   *
+   * @see #close()
+   *
+   * @see #inputStream(ClassLoader, String)
+   *
+   * @see #fingerprint(ClassLoader, String)
    */
-  @Convenience
-  protected static final InputStream inputStream(final ClassLoader cl, final String resourceName) {
-    final InputStream returnValue;
-    InputStream temp = cl == null ? ClassLoader.getSystemResourceAsStream(resourceName) : cl.getResourceAsStream(resourceName);
-    if (temp == null) {
-      try {
-        temp = new BufferedInputStream(Files.newInputStream(Paths.get(System.getProperty("user.dir", "."), resourceName)));
-      } catch (final FileNotFoundException /* this probably isn't thrown */ | NoSuchFileException e) {
-
-      } catch (final IOException ioException) {
-        throw new UncheckedIOException(ioException.getMessage(), ioException);
-      } finally {
-        returnValue = temp;
-      }
-    } else if (temp instanceof BufferedInputStream) {
-      returnValue = (BufferedInputStream)temp;
-    } else {
-      returnValue = new BufferedInputStream(temp);
-    }
-    return returnValue;
+  public InputStreamJacksonProvider(final Type lowerBound,
+                                    final Supplier<? extends ObjectMapper> mapperSupplier,
+                                    final String resourceName,
+                                    final boolean indexed,
+                                    final Duration revalidationInterval,
+                                    final Duration reloadDelay) {
+    this(lowerBound, mapperSupplier, resourceName, indexed, revalidationInterval, reloadDelay, false);
   }
 
   /**
-   * Calls {@link InputStream#close()} on the supplied {@link
-   * InputStream} if it is non-{@code null}.
+   * Creates a new {@link InputStreamJacksonProvider}.
+   *
+   * <p>If {@code merged} is {@code false}, this constructor behaves
+   * exactly like the {@link #InputStreamJacksonProvider(Type,
+   * Supplier, String, boolean, Duration, Duration)} constructor.</p>
+   *
+   * <p>If {@code merged} is {@code true}, then instead of only the
+   * first classpath resource with the supplied name, <em>every</em>
+   * classpath resource with that name, {@linkplain
+   * ClassLoader#getResources(String) in classpath order}, is read,
+   * together with the file of that name relative to the directory
+   * identified by the {@link System#getProperty(String, String)
+   * user.dir} system property, if it exists.  The resources are
+   * parsed concurrently, each by way of the {@link
+   * #readDocument(Loader, Path, ObjectCodec, InputStream)} method,
+   * and their root nodes are then merged, as if by the {@link
+   * #merge(ObjectNode, ObjectNode)} method, into a single document
+   * that is cached as a whole.  A classpath resource takes precedence
+   * over every classpath resource that follows it, and the file in
+   * the {@code user.dir} directory, which for a single resource is
+   * only a fallback, serves as the lowest-precedence default of all.
+   * So, as with a single resource, the first one found wins, and those
+   * found later serve as defaults.  A resource
+   * whose root node is not an object replaces, rather than merges
+   * with, those of lower precedence.  The document's fingerprint
+   * covers every resource (and the possibly nonexistent file), so the
+   * appearance, disappearance or modification of any of them is
+   * detected upon revalidation, and only the file, if any, is
+   * watched.</p>
+   *
+   * @param lowerBound the {@linkplain #lowerBound() lower type bound}
+   * of this {@link InputStreamJacksonProvider} implementation; may be
+   * {@code null}
+   *
+   * @param mapperSupplier a {@link Supplier}, deterministic or not,
+   * of {@link ObjectMapper} instances; ordinarily callers should
+   * supply a {@link Supplier} that caches; may be {@code null}
+   *
+   * @param resourceName a resource name that is treated as the name
+   * of classpath resources and of a file relative to the directory
+   * identified by the {@link System#getProperty(String, String)
+   * user.dir} system property
+   *
+   * @param indexed whether a flat index of every node in a tree
+   * should be built when its root node is first seen
+   *
+   * @param revalidationInterval the minimum amount of time that must
+   * elapse before a cached document is checked for changes when its
+   * file is not being watched; {@link Duration#ZERO} causes every
+   * request to check; {@code null} or a negative {@link Duration}
+   * causes the document to be read only once (or whenever the {@link
+   * #refresh()} method is called)
+   *
+   * @param reloadDelay how long a watched file must go unchanged
+   * before it is read again; {@code null} or a negative {@link
+   * Duration} disables watching
+   *
+   * @param merged whether every resource with the supplied name
+   * should be read and merged into one document
+   *
+   * @see #merge(ObjectNode, ObjectNode)
+   *
+   * @see #InputStreamJacksonProvider(Type, Supplier, String, boolean,
+   * Duration, Duration)
+   */
+  public InputStreamJacksonProvider(final Type lowerBound,
+                                    final Supplier<? extends ObjectMapper> mapperSupplier,
+                                    final String resourceName,
+                                    final boolean indexed,
+                                    final Duration revalidationInterval,
+                                    final Duration reloadDelay,
+                                    final boolean merged) {
+    this(lowerBound,
+         objectCodecFunction(mapperSupplier),
+         (l, p) -> inputStream(classLoader(p), resourceName, reloadDelay == null || reloadDelay.isNegative()),
+         InputStreamJacksonProvider::closeInputStream,
+         merged ? (l, p) -> resources(classLoader(p), resourceName) : null,
+         (l, p) -> classLoader(p),
+         indexed,
+         false,
+         (l, p) -> merged ? fingerprints(classLoader(p), resourceName) : fingerprint(classLoader(p), resourceName),
+         revalidationInterval,
+         (l, p) -> merged ? Paths.get(System.getProperty("user.dir", "."), resourceName) : file(classLoader(p), resourceName),
+         reloadDelay);
+  }
+
+  /**
+   * Creates a new {@link InputStreamJacksonProvider}.
+   *
+   * <p>If {@code streaming} is {@code false}, this constructor
+   * behaves as {@link #InputStreamJacksonProvider(Type, Supplier,
+   * String, boolean)} does.  Otherwise only the top-level members of
+   * the document that are actually requested are materialized, as
+   * {@link #InputStreamJacksonProvider(Type, BiFunction, BiFunction,
+   * Consumer, boolean, boolean)} describes.  A streaming {@link
+   * InputStreamJacksonProvider} does not keep its sections apart by
+   * {@link ClassLoader}, so it should only be used where every
+   * request finds the same resource.</p>
+   *
+   * @param lowerBound the {@linkplain #lowerBound() lower type bound}
+   * of this {@link InputStreamJacksonProvider} implementation; may be
+   * {@code null}
+   *
+   * @param mapperSupplier a {@link Supplier}, deterministic or not,
+   * of {@link ObjectMapper} instances; ordinarily callers should
+   * supply a {@link Supplier} that caches; may be {@code null}
+   *
+   * @param resourceName a resource name that is treated first as a
+   * classpath resource and finally as the name of a file relative to
+   * the directory identified by the {@link System#getProperty(String,
+   * String) user.dir} system property
+   *
+   * @param indexed whether a flat index of every node in a tree
+   * should be built when its root node is first seen
+   *
+   * @param streaming whether only the top-level members of the
+   * document that are actually requested should be materialized
+   *
+   * @see #InputStreamJacksonProvider(Type, BiFunction, BiFunction,
+   * Consumer, boolean, boolean)
+   */
+  public InputStreamJacksonProvider(final Type lowerBound,
+                                    final Supplier<? extends ObjectMapper> mapperSupplier,
+                                    final String resourceName,
+                                    final boolean indexed,
+                                    final boolean streaming) {
+    this(lowerBound,
+         objectCodecFunction(mapperSupplier),
+         (l, p) -> inputStream(classLoader(p), resourceName, true),
+         InputStreamJacksonProvider::closeInputStream,
+         null,
+         (l, p) -> classLoader(p),
+         indexed,
+         streaming,
+         streaming ? null : (l, p) -> fingerprint(classLoader(p), resourceName),
+         indexed ? DEFAULT_INDEXED_REVALIDATION_INTERVAL : Duration.ZERO,
+         null,
+         null);
+  }
+
+  /**
+   * Creates a new {@link InputStreamJacksonProvider}.
+   *
+   * @param lowerBound the {@linkplain #lowerBound() lower type bound}
+   * of this {@link InputStreamJacksonProvider} implementation; may be
+   * {@code null}
+   *
+   * @param objectCodecFunction a {@link BiFunction} that returns an
+   * {@link ObjectCodec} when supplied with a {@link Loader} and a
+   * {@link Path}; may be {@code null}
+   *
+   * @param inputStreamFunction a {@link BiFunction} that returns an
+   * open {@link InputStream} when supplied with a {@link Loader} and
+   * a {@link Path}; may be {@code null}
+   *
+   * @param inputStreamReadConsumer a {@link Consumer} that is called
+   * with an {@link InputStream} after the {@link InputStream} has
+   * been fully read; may be {@code null}; normally should
+   * {@linkplain InputStream#close() close} the {@link InputStream}
+   */
+  public InputStreamJacksonProvider(final Type lowerBound,
+                                    final BiFunction<? super Loader<?>, ? super Path<? extends Type>, ? extends ObjectCodec> objectCodecFunction,
+                                    final BiFunction<? super Loader<?>, ? super Path<? extends Type>, ? extends InputStream> inputStreamFunction,
+                                    final Consumer<? super InputStream> inputStreamReadConsumer) {
+    this(lowerBound, objectCodecFunction, inputStreamFunction, inputStreamReadConsumer, false);
+  }
+
+  /**
+   * Creates a new {@link InputStreamJacksonProvider}.
+   *
+   * @param lowerBound the {@linkplain #lowerBound() lower type bound}
+   * of this {@link InputStreamJacksonProvider} implementation; may be
+   * {@code null}
+   *
+   * @param objectCodecFunction a {@link BiFunction} that returns an
+   * {@link ObjectCodec} when supplied with a {@link Loader} and a
+   * {@link Path}; may be {@code null}
+   *
+   * @param inputStreamFunction a {@link BiFunction} that returns an
+   * open {@link InputStream} when supplied with a {@link Loader} and
+   * a {@link Path}; may be {@code null}
+   *
+   * @param inputStreamReadConsumer a {@link Consumer} that is called
+   * with an {@link InputStream} after the {@link InputStream} has
+   * been fully read; may be {@code null}; normally should
+   * {@linkplain InputStream#close() close} the {@link InputStream}
+   *
+   * @param indexed whether a flat index of every node in a tree
+   * should be built when its root node is first seen
+   *
+   * @see
+   * org.microbean.loader.spi.AbstractTreeBasedProvider#AbstractTreeBasedProvider(Type,
+   * boolean)
+   */
+  public InputStreamJacksonProvider(final Type lowerBound,
+                                    final BiFunction<? super Loader<?>, ? super Path<? extends Type>, ? extends ObjectCodec> objectCodecFunction,
+                                    final BiFunction<? super Loader<?>, ? super Path<? extends Type>, ? extends InputStream> inputStreamFunction,
+                                    final Consumer<? super InputStream> inputStreamReadConsumer,
+                                    final boolean indexed) {
+    this(lowerBound, objectCodecFunction, inputStreamFunction, inputStreamReadConsumer, indexed, false);
+  }
+
+  /**
+   * Creates a new {@link InputStreamJacksonProvider}.
+   *
+   * <p>If {@code streaming} is {@code true}, then the {@link
+   * #rootNode(Loader, Path)} method does not materialize the entire
+   * document.  Instead it scans the document's token stream, {@link
+   * JsonParser#skipChildren() skipping} every top-level member other
+   * than the one named by the first non-empty name in the requested
+   * {@link Path} (and the root {@code @qualifiers} member, if any),
+   * and materializes only that member.  The first such scan also
+   * records the names of all of the document's top-level members, so
+   * a request for a member the document lacks never causes it to be
+   * scanned again, and later scans stop as soon as the requested
+   * member has been materialized.  Materialized members are
+   * retained, so each top-level member of the document is read at
+   * most once.  Requests that address the root of the
+   * document itself, and documents whose root is not an object,
+   * cause the entire document to be materialized as usual.  Because
+   * materialized members are retained, changes to the underlying
+   * document are not seen by a streaming {@link
+   * InputStreamJacksonProvider}.  Streaming suits very large
+   * documents of which only a few sections are ever read.</p>
+   *
+   * @param lowerBound the {@linkplain #lowerBound() lower type bound}
+   * of this {@link InputStreamJacksonProvider} implementation; may be
+   * {@code null}
+   *
+   * @param objectCodecFunction a {@link BiFunction} that returns an
+   * {@link ObjectCodec} when supplied with a {@link Loader} and a
+   * {@link Path}; may be {@code null}
+   *
+   * @param inputStreamFunction a {@link BiFunction} that returns an
+   * open {@link InputStream} when supplied with a {@link Loader} and
+   * a {@link Path}; may be {@code null}
+   *
+   * @param inputStreamReadConsumer a {@link Consumer} that is called
+   * with an {@link InputStream} after the {@link InputStream} has
+   * been fully read; may be {@code null}; normally should
+   * {@linkplain InputStream#close() close} the {@link InputStream}
+   *
+   * @param indexed whether a flat index of every node in a tree
+   * should be built when its root node is first seen
+   *
+   * @param streaming whether only the top-level members of the
+   * document that are actually requested should be materialized
+   *
+   * @see
+   * org.microbean.loader.spi.AbstractTreeBasedProvider#AbstractTreeBasedProvider(Type,
+   * boolean)
+   */
+  public InputStreamJacksonProvider(final Type lowerBound,
+                                    final BiFunction<? super Loader<?>, ? super Path<? extends Type>, ? extends ObjectCodec> objectCodecFunction,
+                                    final BiFunction<? super Loader<?>, ? super Path<? extends Type>, ? extends InputStream> inputStreamFunction,
+                                    final Consumer<? super InputStream> inputStreamReadConsumer,
+                                    final boolean indexed,
+                                    final boolean streaming) {
+    this(lowerBound, objectCodecFunction, inputStreamFunction, inputStreamReadConsumer, indexed, streaming, null, null);
+  }
+
+  /**
+   * Creates a new {@link InputStreamJacksonProvider}.
+   *
+   * <p>If {@code fingerprintFunction} is non-{@code null} and {@code
+   * streaming} is {@code false}, then the document is read once and
+   * cached, together with the fingerprint returned by {@code
+   * fingerprintFunction} just before it was read.  No more often than
+   * indicated by the supplied {@code revalidationInterval}, {@code
+   * fingerprintFunction} is called again, and if the fingerprint it
+   * returns is not {@linkplain Object#equals(Object) equal to} the
+   * cached one, the document is read again.  A {@code null}
+   * fingerprint means that the document's freshness cannot be
+   * determined, so a document read under a {@code null} fingerprint
+   * is never cached.  If {@code fingerprintFunction} is {@code null},
+   * the document is read on every request, as {@link
+   * #InputStreamJacksonProvider(Type, BiFunction, BiFunction,
+   * Consumer, boolean, boolean)} describes.</p>
+   *
+   * @param lowerBound the {@linkplain #lowerBound() lower type bound}
+   * of this {@link InputStreamJacksonProvider} implementation; may be
+   * {@code null}
+   *
+   * @param objectCodecFunction a {@link BiFunction} that returns an
+   * {@link ObjectCodec} when supplied with a {@link Loader} and a
+   * {@link Path}; may be {@code null}
+   *
+   * @param inputStreamFunction a {@link BiFunction} that returns an
+   * open {@link InputStream} when supplied with a {@link Loader} and
+   * a {@link Path}; may be {@code null}
+   *
+   * @param inputStreamReadConsumer a {@link Consumer} that is called
+   * with an {@link InputStream} after the {@link InputStream} has
+   * been fully read; may be {@code null}; normally should
+   * {@linkplain InputStream#close() close} the {@link InputStream}
+   *
+   * @param indexed whether a flat index of every node in a tree
+   * should be built when its root node is first seen
+   *
+   * @param streaming whether only the top-level members of the
+   * document that are actually requested should be materialized
+   *
+   * @param fingerprintFunction a {@link BiFunction} that returns an
+   * object identifying the current state of the document that {@code
+   * inputStreamFunction} would return when supplied with a {@link
+   * Loader} and a {@link Path}; may be {@code null}
+   *
+   * @param revalidationInterval the minimum amount of time that must
+   * elapse before a cached document is checked for changes; {@link
+   * Duration#ZERO} causes every request to check; {@code null} or a
+   * negative {@link Duration} causes the document to be read only
+   * once (or whenever the {@link #refresh()} method is called)
+   *
+   * @see #fingerprint(ClassLoader, String)
+   */
+  public InputStreamJacksonProvider(final Type lowerBound,
+                                    final BiFunction<? super Loader<?>, ? super Path<? extends Type>, ? extends ObjectCodec> objectCodecFunction,
+                                    final BiFunction<? super Loader<?>, ? super Path<? extends Type>, ? extends InputStream> inputStreamFunction,
+                                    final Consumer<? super InputStream> inputStreamReadConsumer,
+                                    final boolean indexed,
+                                    final boolean streaming,
+                                    final BiFunction<? super Loader<?>, ? super Path<? extends Type>, ?> fingerprintFunction,
+                                    final Duration revalidationInterval) {
+    this(lowerBound,
+         objectCodecFunction,
+         inputStreamFunction,
+         inputStreamReadConsumer,
+         null,
+         null,
+         indexed,
+         streaming,
+         fingerprintFunction,
+         revalidationInterval,
+         null,
+         null);
+  }
+
+  private InputStreamJacksonProvider(final Type lowerBound,
+                                     final BiFunction<? super Loader<?>, ? super Path<? extends Type>, ? extends ObjectCodec> objectCodecFunction,
+                                     final BiFunction<? super Loader<?>, ? super Path<? extends Type>, ? extends InputStream> inputStreamFunction,
+                                     final Consumer<? super InputStream> inputStreamReadConsumer,
+                                     final BiFunction<? super Loader<?>, ? super Path<? extends Type>, ? extends List<URL>> resourcesFunction,
+                                     final BiFunction<? super Loader<?>, ? super Path<? extends Type>, ? extends ClassLoader> classLoaderFunction,
+                                     final boolean indexed,
+                                     final boolean streaming,
+                                     final BiFunction<? super Loader<?>, ? super Path<? extends Type>, ?> fingerprintFunction,
+                                     final Duration revalidationInterval,
+                                     final BiFunction<? super Loader<?>, ? super Path<? extends Type>, ? extends java.nio.file.Path> fileFunction,
+                                     final Duration reloadDelay) {
+    super(lowerBound, indexed);
+    this.streaming = streaming;
+    this.fingerprintFunction = fingerprintFunction;
+    this.revalidationIntervalNanos =
+      revalidationInterval == null || revalidationInterval.isNegative() ? -1L : revalidationInterval.toNanos();
+    this.fileFunction = fileFunction;
+    this.reloadDelayNanos = fileFunction == null || reloadDelay == null || reloadDelay.isNegative() ? -1L : reloadDelay.toNanos();
+    this.objectCodecFunction = objectCodecFunction == null ? InputStreamJacksonProvider::returnNull : objectCodecFunction;
+    this.inputStreamFunction = inputStreamFunction == null ? InputStreamJacksonProvider::returnNull : inputStreamFunction;
+    this.inputStreamReadConsumer = inputStreamReadConsumer == null ? InputStreamJacksonProvider::sink : inputStreamReadConsumer;
+    this.resourcesFunction = resourcesFunction;
+    this.classLoaderFunction = classLoaderFunction;
+    this.documents = new ConcurrentHashMap<>();
+  }
+
+
+  /*
+   * Instance methods.
+   */
+
+
+  /**
+   * Invokes the {@link BiFunction#apply(Object, Object)} method of
+   * the {@code objectCodecFunction} {@linkplain
+   * #InputStreamJacksonProvider(Type, BiFunction, BiFunction,
+   * Consumer) supplied at construction time} and returns the result.
+   *
+   * @param requestingLoader the {@link Loader} requesting a value;
+   * must not be {@code null}
+   *
+   * @param absolutePath the {@linkplain Path#absolute() absolute}
+   * {@link Path} the {@code requestingLoader} is currently
+   * requesting; must not be {@code null}
+   *
+   * @return an {@link ObjectCodec} suitable for the supplied
+   * arguments, or {@code null} if this {@link
+   * InputStreamJacksonProvider} should not handle the current request
+   *
+   * @nullability This method may return {@code null}.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple
+   * threads, but the {@code objectCodecFunction} {@linkplain
+   * #InputStreamJacksonProvider(Type, BiFunction, BiFunction,
+   * Consumer) supplied at construction time} may not be.
+   *
+   * @idempotency This method is idempotent and deterministic if the
+   * {@code objectCodecFunction} {@linkplain
+   * #InputStreamJacksonProvider(Type, BiFunction, BiFunction,
+   * Consumer) supplied at construction time} is.
+   */
+  @Override // JacksonProvider
+  protected final ObjectCodec objectCodec(final Loader<?> requestingLoader, final Path<? extends Type> absolutePath) {
+    return this.objectCodecFunction.apply(requestingLoader, absolutePath);
+  }
+
+  /**
+   * Discards any cached document so that the next request reads the
+   * document again.
+   *
+   * <p>Calling this method is necessary only if this {@link
+   * InputStreamJacksonProvider} was created with a {@code null} or
+   * negative revalidation interval, or if a document's fingerprint
+   * can change without its contents changing, or vice versa.</p>
+   *
+   * @threadsafety This method is safe for concurrent use by multiple
+   * threads.
+   *
+   * @see #InputStreamJacksonProvider(Type, BiFunction, BiFunction,
+   * Consumer, boolean, boolean, BiFunction, Duration)
+   */
+  public final void refresh() {
+    this.documents = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * Stops watching the file backing this {@link
+   * InputStreamJacksonProvider}'s document, if it is being watched,
+   * and ensures it will not be watched in the future.
+   *
+   * <p>The cached document, if any, is retained, and from then on is
+   * revalidated as described by the {@link
+   * #InputStreamJacksonProvider(Type, Supplier, String, boolean,
+   * Duration)} constructor.</p>
+   *
+   * <p>This method is idempotent.</p>
+   *
+   * @threadsafety This method is safe for concurrent use by multiple
+   * threads.
+   *
+   * @see #InputStreamJacksonProvider(Type, Supplier, String, boolean,
+   * Duration, Duration)
+   */
+  @Override // AutoCloseable
+  public final synchronized void close() {
+    this.closed = true;
+    final Watcher watcher = this.watcher;
+    if (watcher != null) {
+      this.watcher = null;
+      watcher.close();
+    }
+  }
+
+  @Override // JacksonProvider
+  protected TreeNode rootNode(final Loader<?> requestingLoader,
+                              final Path<? extends Type> absolutePath) {
+    if (!this.streaming) {
+      return this.fingerprintFunction == null ? this.read(requestingLoader, absolutePath, null) : this.document(requestingLoader, absolutePath);
+    }
+    final String name = firstName(absolutePath);
+    final Sections sections = this.sections;
+    if (sections != null && sections.covers(name)) {
+      return sections.root();
+    }
+    return this.read(requestingLoader, absolutePath, name);
+  }
+
+  /**
+   * Returns {@code false} if the document definitely does not
+   * contain a node for the supplied {@code absolutePath}, and {@code
+   * true} if it might.
+   *
+   * <p>If this {@link InputStreamJacksonProvider} is {@linkplain
+   * #InputStreamJacksonProvider(Type, BiFunction, BiFunction,
+   * Consumer, boolean, boolean) streaming}, this method returns
+   * {@code false} only if the top-level member named by the first
+   * non-empty name in the supplied {@code absolutePath} is not among
+   * the names recorded when the document was first scanned.  The most recently seen
+   * tree may not yet reflect members that are being materialized
+   * concurrently, so it is not consulted.  Otherwise this method
+   * returns the result of invoking the {@link
+   * org.microbean.loader.spi.AbstractTreeBasedProvider#mayContain(Loader,
+   * Path)} method.</p>
+   *
+   * @param requestor the {@link Loader} seeking a value; must not be
+   * {@code null}
+   *
+   * @param absolutePath an {@linkplain Path#absolute() absolute
+   * <code>Path</code>} for which the supplied {@link Loader} is
+   * seeking a value; must not be {@code null}
+   *
+   * @return {@code false} if the document definitely does not
+   * contain a node for the supplied {@code absolutePath}; {@code
+   * true} if it might
+   *
+   * @exception NullPointerException if {@code absolutePath} is {@code
+   * null}
+   *
+   * @idempotency This method is neither idempotent nor
+   * deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple
+   * threads.
+   */
+  @Override // AbstractTreeBasedProvider<TreeNode>
+  public boolean mayContain(final Loader<?> requestor, final Path<? extends Type> absolutePath) {
+    if (this.streaming) {
+      final Sections sections = this.sections;
+      if (sections == null || sections.complete()) {
+        return true;
+      }
+      final String name = firstName(absolutePath);
+      return name == null || sections.names() == null || sections.names().contains(name);
+    }
+    return super.mayContain(requestor, absolutePath);
+  }
+
+  /**
+   * Returns {@code true} if the supplied {@code rootNode} is the root
+   * node of the cached document and the {@link #rootNode(Loader,
+   * Path)} method would return it for the supplied arguments without
+   * reading or revalidating anything.
+   *
+   * <p>This is the case only if this {@link
+   * InputStreamJacksonProvider} is not {@linkplain
+   * #InputStreamJacksonProvider(Type, BiFunction, BiFunction,
+   * Consumer, boolean, boolean) streaming}, was {@linkplain
+   * #InputStreamJacksonProvider(Type, BiFunction, BiFunction,
+   * Consumer, boolean, boolean, BiFunction, Duration) supplied with a
+   * fingerprint function}, and has cached a document for the
+   * supplied request's {@linkplain #documentKey(Loader, Path) key}
+   * that either is read from a watched file or does not yet need to
+   * be revalidated.  A document that has been {@linkplain #refresh()
+   * discarded}, whether explicitly or because its file changed, is
+   * therefore never current.</p>
+   *
+   * @param requestor the {@link Loader} seeking a value; must not be
+   * {@code null}
+   *
+   * @param absolutePath an {@linkplain Path#absolute() absolute
+   * <code>Path</code>} for which a value is being sought; must not be
+   * {@code null}
+   *
+   * @param rootNode the most recently seen root node; must not be
+   * {@code null}
+   *
+   * @return {@code true} if {@code rootNode} is the current root node
+   *
+   * @threadsafety This method is safe for concurrent use by multiple
+   * threads.
+   */
+  @Override // AbstractTreeBasedProvider<TreeNode>
+  protected boolean rootNodeCurrent(final Loader<?> requestor,
+                                    final Path<? extends Type> absolutePath,
+                                    final TreeNode rootNode) {
+    if (this.streaming || this.fingerprintFunction == null) {
+      return false;
+    }
+    final Object key = this.key(requestor, absolutePath);
+    final Document document = this.documents.get(key);
+    return
+      document != null &&
+      document.root() == rootNode &&
+      (this.watched(key) ||
+       this.revalidationIntervalNanos < 0L ||
+       System.nanoTime() - document.validated() < this.revalidationIntervalNanos);
+  }
+
+  /**
+   * Reads and returns the root node of the document available from
+   * the supplied {@link InputStream} in service of the supplied
+   * request.
+   *
+   * <p>The default implementation creates a {@link JsonParser} for
+   * the supplied {@link InputStream} using the supplied {@link
+   * ObjectCodec}'s {@linkplain ObjectCodec#getFactory() factory} and
+   * returns the result of invoking the {@link #readDocument(Loader,
+   * Path, JsonParser)} method with it.  Overrides may instead read
+   * the {@link InputStream} directly, bypassing the parser entirely.
+   * An override whose result depends on the request must also
+   * override the {@link #documentKey(Loader, Path)} method
+   * accordingly.</p>
+   *
+   * <p>This method is not called if this {@link
+   * InputStreamJacksonProvider} is {@linkplain
+   * #InputStreamJacksonProvider(Type, BiFunction, BiFunction,
+   * Consumer, boolean, boolean) streaming}.</p>
+   *
+   * @param requestingLoader the {@link Loader} seeking a value; must
+   * not be {@code null}
+   *
+   * @param absolutePath an {@linkplain Path#absolute() absolute
+   * <code>Path</code>} for which a value is being sought; must not be
+   * {@code null}
+   *
+   * @param objectCodec the {@link ObjectCodec} suitable for the
+   * request; must not be {@code null}
+   *
+   * @param inputStream the {@link InputStream} to read; must not be
+   * {@code null}; need not be closed by this method
+   *
+   * @return the root node, or {@code null}
+   *
+   * @exception IOException if an input or output error occurs
+   *
+   * @nullability This method and its overrides may return {@code
+   * null}.
+   *
+   * @threadsafety This method is, and its overrides must be, safe for
+   * concurrent use by multiple threads.
+   *
+   * @see #readDocument(Loader, Path, JsonParser)
+   */
+  protected TreeNode readDocument(final Loader<?> requestingLoader,
+                                  final Path<? extends Type> absolutePath,
+                                  final ObjectCodec objectCodec,
+                                  final InputStream inputStream)
+    throws IOException {
+    final JsonParser parser = objectCodec.getFactory().createParser(inputStream);
+    try {
+      parser.setCodec(objectCodec);
+      return this.readDocument(requestingLoader, absolutePath, parser);
+    } finally {
+      parser.setCodec(null);
+      parser.close();
+    }
+  }
+
+  /**
+   * Reads and returns the root node of the document available from
+   * the supplied {@link JsonParser}, which is positioned before its
+   * first token, in service of the supplied request.
+   *
+   * <p>The default implementation returns the result of invoking
+   * {@link JsonParser#readValueAsTree()}.  Overrides may, for
+   * example, select among several documents in the same input.  An
+   * override whose result depends on the request must also override
+   * the {@link #documentKey(Loader, Path)} method accordingly.</p>
+   *
+   * <p>This method is called by the default implementation of the
+   * {@link #readDocument(Loader, Path, ObjectCodec, InputStream)}
+   * method.</p>
+   *
+   * @param requestingLoader the {@link Loader} seeking a value; must
+   * not be {@code null}
+   *
+   * @param absolutePath an {@linkplain Path#absolute() absolute
+   * <code>Path</code>} for which a value is being sought; must not be
+   * {@code null}
+   *
+   * @param parser a {@link JsonParser} with an {@link ObjectCodec}
+   * set; must not be {@code null}; must not be closed by this method
+   *
+   * @return the root node, or {@code null}
+   *
+   * @exception IOException if an input or output error occurs
+   *
+   * @nullability This method and its overrides may return {@code
+   * null}.
+   *
+   * @threadsafety This method is, and its overrides must be, safe for
+   * concurrent use by multiple threads.
+   *
+   * @see #documentKey(Loader, Path)
+   */
+  protected TreeNode readDocument(final Loader<?> requestingLoader,
+                                  final Path<? extends Type> absolutePath,
+                                  final JsonParser parser)
+    throws IOException {
+    return parser.readValueAsTree();
+  }
+
+  /**
+   * Returns an object that, together with the document's
+   * fingerprint, identifies the cached document suitable for the
+   * supplied request, or {@code null} if the same document is
+   * suitable for every request.
+   *
+   * <p>Two requests whose keys are {@linkplain
+   * Object#equals(Object) equal} must be satisfiable by the same
+   * document as returned by the {@link #readDocument(Loader, Path,
+   * ObjectCodec, InputStream)} method.  A document is cached for
+   * each of a small number of distinct keys, so requests with a
+   * handful of alternating keys do not cause the document to be read
+   * again; if more keys than that are seen, the cached documents are
+   * discarded and read again as needed.</p>
+   *
+   * <p>The default implementation returns {@code null}.</p>
+   *
+   * @param requestingLoader the {@link Loader} seeking a value; must
+   * not be {@code null}
+   *
+   * @param absolutePath an {@linkplain Path#absolute() absolute
+   * <code>Path</code>} for which a value is being sought; must not be
+   * {@code null}
+   *
+   * @return a key, or {@code null}
+   *
+   * @nullability This method and its overrides may return {@code
+   * null}.
+   *
+   * @idempotency This method is, and its overrides must be,
+   * idempotent and deterministic.
+   *
+   * @threadsafety This method is, and its overrides must be, safe for
+   * concurrent use by multiple threads.
+   *
+   * @see #readDocument(Loader, Path, ObjectCodec, InputStream)
+   */
+  protected Object documentKey(final Loader<?> requestingLoader, final Path<? extends Type> absolutePath) {
+    return null;
+  }
+
+  // Returns the non-null key under which the document suitable for
+  // the supplied request is cached: its documentKey(Loader, Path),
+  // together with the ClassLoader that finds it, if it is a resource.
+  private final Object key(final Loader<?> requestingLoader, final Path<? extends Type> absolutePath) {
+    final Object documentKey = this.documentKey(requestingLoader, absolutePath);
+    if (this.classLoaderFunction == null) {
+      return documentKey == null ? NULL_KEY : documentKey;
+    }
+    return new ResourceKey(this.classLoaderFunction.apply(requestingLoader, absolutePath), documentKey);
+  }
+
+  private final TreeNode document(final Loader<?> requestingLoader, final Path<? extends Type> absolutePath) {
+    if (this.objectCodec(requestingLoader, absolutePath) == null) {
+      // This request is not one this provider handles.
+      return null;
+    }
+    final Object key = this.key(requestingLoader, absolutePath);
+    final ConcurrentMap<Object, Document> documents = this.documents;
+    final Document document = documents.get(key);
+    final long now = System.nanoTime();
+    final Object fingerprint;
+    if (document == null) {
+      fingerprint = this.fingerprintFunction.apply(requestingLoader, absolutePath);
+    } else if (this.watched(key) ||
+               this.revalidationIntervalNanos < 0L ||
+               now - document.validated() < this.revalidationIntervalNanos) {
+      return document.root();
+    } else {
+      fingerprint = this.fingerprintFunction.apply(requestingLoader, absolutePath);
+      if (fingerprint != null && fingerprint.equals(document.fingerprint())) {
+        if (this.revalidationIntervalNanos > 0L) {
+          documents.replace(key, document, new Document(fingerprint, document.root(), now));
+        }
+        return document.root();
+      }
+    }
+    if (this.reloadDelayNanos >= 0L && this.watcher == null) {
+      // Start watching before reading so that no change made after
+      // the read can be missed.
+      this.watch(requestingLoader, absolutePath);
+    }
+    final TreeNode root = this.read(requestingLoader, absolutePath, null);
+    // Because the fingerprint was taken before the document was read,
+    // a change made during the read will be seen the next time the
+    // document is revalidated.  If another thread has replaced the
+    // document in the meantime, its document is kept.
+    if (fingerprint == null && !this.watched(key)) {
+      if (document != null) {
+        documents.remove(key, document);
+      }
+    } else {
+      final Document newDocument = new Document(fingerprint, root, now);
+      if (document != null) {
+        documents.replace(key, document, newDocument);
+      } else {
+        if (documents.size() >= MAX_DOCUMENTS) {
+          // Racy, so the bound may be overshot slightly, but not for
+          // long.
+          documents.clear();
+        }
+        documents.putIfAbsent(key, newDocument);
+      }
+    }
+    return root;
+  }
+
+  // Returns true if the document cached under the supplied key is
+  // read from a file that is being watched, and so need not be
+  // revalidated.
+  private final boolean watched(final Object key) {
+    final Watcher watcher = this.watcher;
+    return watcher != null && watcher.backs(key);
+  }
+
+  private final synchronized void watch(final Loader<?> requestingLoader, final Path<? extends Type> absolutePath) {
+    if (this.closed || this.watcher != null) {
+      return;
+    }
+    final java.nio.file.Path file = this.fileFunction.apply(requestingLoader, absolutePath);
+    if (file == null) {
+      return;
+    }
+    final java.nio.file.Path directory = file.toAbsolutePath().getParent();
+    if (directory == null || !Files.isDirectory(directory)) {
+      return;
+    }
+    WatchService watchService = null;
+    try {
+      watchService = directory.getFileSystem().newWatchService();
+      directory.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE);
+    } catch (final IOException | RuntimeException e) {
+      logger.log(Level.WARNING, "Could not watch " + file + "; it will not be reloaded", e);
+      if (watchService != null) {
+        try {
+          watchService.close();
+        } catch (final IOException ioException) {
+          e.addSuppressed(ioException);
+        }
+      }
+      return;
+    }
+    final Watcher watcher = new Watcher(watchService, file, this.key(requestingLoader, absolutePath));
+    final Thread thread = new Thread(watcher, InputStreamJacksonProvider.class.getSimpleName() + " watcher: " + file);
+    thread.setDaemon(true);
+    this.watcher = watcher;
+    thread.start();
+  }
+
+  private final synchronized void unwatch(final Watcher watcher) {
+    if (this.watcher == watcher) {
+      this.watcher = null;
+    }
+  }
+
+  private final TreeNode read(final Loader<?> requestingLoader,
+                              final Path<? extends Type> absolutePath,
+                              final String name) {
+    InputStream is = null;
+    RuntimeException runtimeException = null;
+    ObjectCodec objectCodec = this.objectCodec(requestingLoader, absolutePath);
+    if (objectCodec == null) {
+      return null;
+    } else if (this.resourcesFunction != null) {
+      return this.readMerged(requestingLoader, absolutePath, objectCodec);
+    }
+    JsonParser parser = null;
+    try {
+      is = this.inputStreamFunction.apply(requestingLoader, absolutePath);
+      if (is == null) {
+        return null;
+      }
+      if (!this.streaming) {
+        return this.readDocument(requestingLoader, absolutePath, objectCodec, is);
+      }
+      parser = objectCodec.getFactory().createParser(is);
+      parser.setCodec(objectCodec);
+      return this.readSection(parser, name);
+    } catch (final IOException ioException) {
+      runtimeException = new UncheckedIOException(ioException.getMessage(), ioException);
+    } catch (final RuntimeException e) {
+      runtimeException = e;
+    } catch (final InternalError e) {
+      if (!(is instanceof ByteBufferInputStream)) {
+        throw e;
+      }
+      runtimeException = mappingFault(e);
+    } finally {
+      try {
+        if (parser != null) {
+          parser.setCodec(null);
+          parser.close();
+        }
+      } catch (final IOException ioException) {
+        if (runtimeException == null) {
+          runtimeException = new UncheckedIOException(ioException.getMessage(), ioException);
+        } else {
+          runtimeException.addSuppressed(ioException);
+        }
+      } catch (final RuntimeException e) {
+        if (runtimeException == null) {
+          runtimeException = e;
+        } else {
+          runtimeException.addSuppressed(e);
+        }
+      } finally {
+        try {
+          if (is != null) {
+            this.inputStreamReadConsumer.accept(is);
+          }
+        } catch (final RuntimeException e) {
+          if (runtimeException == null) {
+            runtimeException = e;
+          } else {
+            runtimeException.addSuppressed(e);
+          }
+        } finally {
+          if (runtimeException != null) {
+            throw runtimeException;
+          }
+        }
+      }
+    }
+    return null;
+  }
+
+
+  private final TreeNode readMerged(final Loader<?> requestingLoader,
+                                    final Path<? extends Type> absolutePath,
+                                    final ObjectCodec objectCodec) {
+    final List<URL> urls = this.resourcesFunction.apply(requestingLoader, absolutePath);
+    if (urls == null || urls.isEmpty()) {
+      return null;
+    }
+    // Resources are parsed concurrently, but encounter order is
+    // preserved, so they are always merged in the same order.
+    final Stream<URL> s = urls.size() == 1 ? urls.stream() : urls.parallelStream();
+    final List<TreeNode> roots = s.map(url -> this.readResource(requestingLoader, absolutePath, objectCodec, url)).toList();
+    TreeNode returnValue = null;
+    // The first resource takes precedence, so merging starts with the
+    // last.
+    for (int i = roots.size() - 1; i >= 0; i--) {
+      final TreeNode root = roots.get(i);
+      if (root == null || root.isMissingNode()) {
+        continue;
+      } else if (returnValue instanceof ObjectNode target && root instanceof ObjectNode source) {
+        // target was read by this method and is not yet shared, so it
+        // can be modified in place.
+        returnValue = merge(target, source);
+      } else {
+        returnValue = root;
+      }
+    }
+    return returnValue;
+  }
+
+  private final TreeNode readResource(final Loader<?> requestingLoader,
+                                      final Path<? extends Type> absolutePath,
+                                      final ObjectCodec objectCodec,
+                                      final URL url) {
+    try (final InputStream is = openStream(url, this.reloadDelayNanos < 0L)) {
+      try {
+        return this.readDocument(requestingLoader, absolutePath, objectCodec, is);
+      } catch (final InternalError e) {
+        if (!(is instanceof ByteBufferInputStream)) {
+          throw e;
+        }
+        throw mappingFault(e);
+      }
+    } catch (final IOException ioException) {
+      throw new UncheckedIOException(ioException.getMessage(), ioException);
+    }
+  }
+
+  private final TreeNode readSection(final JsonParser parser, final String name) throws IOException {
+    final Sections sections = this.sections;
+    final Sections newSections;
+    if (name == null || parser.nextToken() != JsonToken.START_OBJECT) {
+      // Either the whole document was requested or it is not an
+      // object.  Either way, materialize it all.
+      final JsonNode root = parser.readValueAsTree();
+      if (root == null) {
+        return null;
+      }
+      newSections = new Sections(root, Set.of(), true);
+    } else {
+      final ObjectNode root = JsonNodeFactory.instance.objectNode();
+      final Set<String> names;
+      if (sections == null) {
+        names = null;
+      } else {
+        root.setAll((ObjectNode)sections.root());
+        names = sections.names();
+      }
+      // The first scan records the name of every top-level member, so
+      // that no later request for a missing member has to scan again.
+      final Set<String> seen = names == null ? new HashSet<>() : null;
+      boolean qualifiers = root.has("@qualifiers") || names != null && !names.contains("@qualifiers");
+      boolean found = false;
+      while ((seen != null || !found || !qualifiers) && parser.nextToken() == JsonToken.FIELD_NAME) {
+        final String fieldName = parser.currentName();
+        parser.nextToken();
+        if (seen != null) {
+          seen.add(fieldName);
+        }
+        if (fieldName.equals(name)) {
+          root.set(fieldName, (JsonNode)parser.readValueAsTree());
+          found = true;
+        } else if (!qualifiers && fieldName.equals("@qualifiers")) {
+          root.set(fieldName, (JsonNode)parser.readValueAsTree());
+          qualifiers = true;
+        } else {
+          parser.skipChildren();
+        }
+      }
+      newSections = new Sections(root, names == null ? Set.copyOf(seen) : names, false);
+    }
+    // Last writer wins.  A section materialized concurrently by
+    // another thread and lost here will simply be read again.  The
+    // names, once known, are the same in every Sections.
+    this.sections = newSections;
+    return newSections.root();
+  }
+
+
+  /*
+   * Static methods.
+   */
+
+
+  /**
+   * Deep-merges the supplied {@code source} node into the supplied
+   * {@code target} node and returns {@code target}.
+   *
+   * <p>Each member of {@code source} replaces the member of the same
+   * name in {@code target}, except that when both members are
+   * objects they are merged in turn.  Arrays are replaced, not
+   * concatenated.  {@code source} is not modified, but its members
+   * may end up shared with {@code target}.</p>
+   *
+   * @param target the {@link ObjectNode} to merge into; must not be
+   * {@code null}
+   *
+   * @param source the {@link ObjectNode} whose members take
+   * precedence; must not be {@code null}
+   *
+   * @return {@code target}
+   *
+   * @exception NullPointerException if either argument is {@code
+   * null}
+   *
+   * @threadsafety This method is not safe for concurrent use with
+   * other modifications of {@code target}.
+   */
+  protected static final ObjectNode merge(final ObjectNode target, final ObjectNode source) {
+    final Iterator<Entry<String, JsonNode>> i = source.fields();
+    while (i.hasNext()) {
+      final Entry<String, JsonNode> e = i.next();
+      final String name = e.getKey();
+      final JsonNode value = e.getValue();
+      if (target.get(name) instanceof ObjectNode existing && value instanceof ObjectNode valueObject) {
+        // existing may itself have come from an earlier source, so it
+        // is copied rather than modified in place.
+        target.set(name, merge(existing.deepCopy(), valueObject));
+      } else {
+        target.set(name, value);
+      }
+    }
+    return target;
+  }
+
+  private static final String firstName(final Path<? extends Type> absolutePath) {
+    final int size = absolutePath.size();
+    for (int i = 1; i < size; i++) {
+      final String name = absolutePath.get(i).name();
+      if (!name.isEmpty()) {
+        return name;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Returns an object identifying the current state of the resource
+   * that the {@link #inputStream(ClassLoader, String)} method would
+   * open when supplied with the same arguments, or {@code null} if
+   * its state cannot be determined.
+   *
+   * <p>Two fingerprints are {@linkplain Object#equals(Object) equal}
+   * if and only if they identify the same location and neither the
+   * resource's size nor its last modification time (nor, for a
+   * resource in a jar file, its CRC-32 checksum) differ.  A resource
+   * that does not exist has a fingerprint too, so that its
+   * subsequent creation can be detected.</p>
+   *
+   * @param cl the {@link ClassLoader} used to find the classpath
+   * resource; may be {@code null} in which case the system
+   * classloader will be used instead
+   *
+   * @param resourceName the name of the resource; must not be {@code
+   * null}
+   *
+   * @return a fingerprint, or {@code null}
+   *
+   * @exception NullPointerException if {@code resourceName} is {@code
+   * null}
+   *
+   * @nullability This method may return {@code null}.
+   *
+   * @idempotency This method is idempotent but not deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple
+   * threads.
+   *
+   * @see #inputStream(ClassLoader, String)
+   */
+  protected static final Object fingerprint(final ClassLoader cl, final String resourceName) {
+    final URL url = cl == null ? ClassLoader.getSystemResource(resourceName) : cl.getResource(resourceName);
+    try {
+      return url == null ? fingerprint(Paths.get(System.getProperty("user.dir", "."), resourceName)) : fingerprint(url);
+    } catch (final IOException | URISyntaxException | RuntimeException e) {
+      return null;
+    }
+  }
+
+  // Returns a List of the fingerprints of the resources that
+  // resources(cl, resourceName) returns, or null.  If the file in
+  // user.dir does not exist, its fingerprint is included anyway, so
+  // that its subsequent creation can be detected.
+  private static final Object fingerprints(final ClassLoader cl, final String resourceName) {
+    try {
+      final List<URL> urls = resources(cl, resourceName);
+      final List<Object> fingerprints = new ArrayList<>(urls.size() + 1);
+      for (final URL url : urls) {
+        final Object fingerprint = fingerprint(url);
+        if (fingerprint == null) {
+          return null;
+        }
+        fingerprints.add(fingerprint);
+      }
+      final java.nio.file.Path file = Paths.get(System.getProperty("user.dir", "."), resourceName);
+      if (!Files.isRegularFile(file)) {
+        fingerprints.add(fingerprint(file));
+      }
+      return fingerprints;
+    } catch (final IOException | URISyntaxException | RuntimeException e) {
+      return null;
+    }
+  }
+
+  private static final Object fingerprint(final URL url) throws IOException, URISyntaxException {
+    switch (url.getProtocol()) {
+    case "file":
+      return fingerprint(Paths.get(url.toURI()));
+    case "jar":
+      final URLConnection jarConnection = url.openConnection();
+      if (jarConnection instanceof JarURLConnection j) {
+        final JarEntry jarEntry = j.getJarEntry();
+        if (jarEntry != null) {
+          return new Fingerprint(url.toString(), jarEntry.getTime(), jarEntry.getSize(), jarEntry.getCrc());
+        }
+      }
+      return null;
+    default:
+      final URLConnection connection = url.openConnection();
+      final long lastModified = connection.getLastModified();
+      final long size = connection.getContentLengthLong();
+      // Without either there is no way to tell whether the resource
+      // has changed.
+      return lastModified <= 0L && size < 0L ? null : new Fingerprint(url.toString(), lastModified, size, -1L);
+    }
+  }
+
+  private static final Fingerprint fingerprint(final java.nio.file.Path path) throws IOException {
+    try {
+      final BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+      return new Fingerprint(path.toString(), attributes.lastModifiedTime().toMillis(), attributes.size(), -1L);
+    } catch (final FileNotFoundException /* this probably isn't thrown */ | NoSuchFileException e) {
+      return new Fingerprint(path.toString(), -1L, -1L, -1L);
+    }
+  }
+
+  // Returns the file that inputStream(cl, resourceName) reads, if
+  // that is a file, or null.
+  private static final java.nio.file.Path file(final ClassLoader cl, final String resourceName) {
+    final URL url = cl == null ? ClassLoader.getSystemResource(resourceName) : cl.getResource(resourceName);
+    try {
+      if (url == null) {
+        return Paths.get(System.getProperty("user.dir", "."), resourceName);
+      } else if (url.getProtocol().equals("file")) {
+        return Paths.get(url.toURI());
+      }
+    } catch (final URISyntaxException | RuntimeException e) {
+
+    }
+    return null;
+  }
+
+  // Returns the URLs of every classpath resource with the supplied
+  // name, in classpath order and without duplicates, followed by the
+  // URL of the file in user.dir, if it exists.  This is precedence
+  // order: as in inputStream(cl, resourceName), the file in user.dir
+  // is the last resort.
+  private static final List<URL> resources(final ClassLoader cl, final String resourceName) {
+    final List<URL> urls = new ArrayList<>();
+    final Set<String> seen = new HashSet<>();
+    try {
+      final Enumeration<URL> e = cl == null ? ClassLoader.getSystemResources(resourceName) : cl.getResources(resourceName);
+      while (e.hasMoreElements()) {
+        final URL url = e.nextElement();
+        // URL#equals(Object) may resolve host names, so external forms
+        // are compared instead.
+        if (seen.add(url.toExternalForm())) {
+          urls.add(url);
+        }
+      }
+      final java.nio.file.Path file = Paths.get(System.getProperty("user.dir", "."), resourceName);
+      if (Files.isRegularFile(file)) {
+        final URL url = file.toUri().toURL();
+        if (seen.add(url.toExternalForm())) {
+          urls.add(url);
+        }
+      }
+    } catch (final IOException ioException) {
+      throw new UncheckedIOException(ioException.getMessage(), ioException);
+    }
+    return urls;
+  }
+
+  private static final InputStream openStream(final URL url, final boolean mappable) throws IOException {
+    if (url.getProtocol().equals("file")) {
+      try {
+        return fileInputStream(Paths.get(url.toURI()), mappable);
+      } catch (final URISyntaxException | RuntimeException e) {
+        // Fall through to the URL's own stream.
+      }
+    }
+    return new BufferedInputStream(url.openStream());
+  }
+
+
+  /**
+   * Returns an open {@link InputStream} loaded using the supplied
+   * {@link ClassLoader} and a name of a classpath resource.
+   *
+   * <p>If there is no such classpath resource, the resource name is
+   * treated as the name of a file relative to the directory
+   * identified by the {@link System#getProperty(String, String)
+   * user.dir} system property.  Such a file is read through a heap
+   * buffer; it is never {@linkplain
+   * FileChannel#map(FileChannel.MapMode, long, long) memory-mapped},
+   * because a mapped file that is truncated while it is being read
+   * causes an {@link InternalError} that may surface anywhere in the
+   * reading thread.  (Resource-name-based {@link
+   * InputStreamJacksonProvider}s do map large files that they do not
+   * watch, and guard their own reads accordingly.)</p>
+   *
+   * <p>This method never returns {@code null}.</p>
+   *
+   * @param cl the {@link ClassLoader} that will actually cause the
+   * {@link InputStream} to be created and opened; may be {@code null}
+   * in which case the system classloader will be used instead
+   *
+   * @param resourceName the name of the classpath resource for which
+   * an {@link InputStream} will be created and opened; must not be
+   * {@code null}
+   *
+   * @return a non-{@code null}, open {@link InputStream}
+   *
+   * @exception NullPointerException if {@code resourceName} is {@code
+   * null}
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency This method is idempotent and deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple
+   * threads.
+   */
+  @Convenience
+  protected static final InputStream inputStream(final ClassLoader cl, final String resourceName) {
+    return inputStream(cl, resourceName, false);
+  }
+
+  private static final InputStream inputStream(final ClassLoader cl, final String resourceName, final boolean mappable) {
+    final InputStream returnValue;
+    InputStream temp = cl == null ? ClassLoader.getSystemResourceAsStream(resourceName) : cl.getResourceAsStream(resourceName);
+    if (temp == null) {
+      try {
+        temp = fileInputStream(Paths.get(System.getProperty("user.dir", "."), resourceName), mappable);
+      } catch (final FileNotFoundException /* this probably isn't thrown */ | NoSuchFileException e) {
+
+      } catch (final IOException ioException) {
+        throw new UncheckedIOException(ioException.getMessage(), ioException);
+      } finally {
+        returnValue = temp;
+      }
+    } else if (temp instanceof BufferedInputStream) {
+      returnValue = (BufferedInputStream)temp;
+    } else {
+      returnValue = new BufferedInputStream(temp);
+    }
+    return returnValue;
+  }
+
+  // Large regular files are memory-mapped, if mappable is true, so
+  // that their bytes are read straight out of the page cache (and
+  // shared with any other process mapping the same file) rather than
+  // copied through an intermediate heap buffer.  The mapping outlives
+  // the channel and is released when the returned InputStream becomes
+  // unreachable.  Files that are watched for changes are expected to
+  // be rewritten, possibly while they are being read, so callers pass
+  // false for them: a mapped file that shrinks underneath its reader
+  // causes a fault rather than a short read.
+  private static final InputStream fileInputStream(final java.nio.file.Path path, final boolean mappable) throws IOException {
+    if (mappable && MAPPING_PERMITTED) {
+      try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+        final long size = channel.size();
+        if (size >= MAPPING_THRESHOLD && size <= Integer.MAX_VALUE) {
+          return new ByteBufferInputStream(channel.map(FileChannel.MapMode.READ_ONLY, 0L, size));
+        }
+      } catch (final UnsupportedOperationException e) {
+        // The file is not one that can be mapped.
+      }
+    }
+    return new BufferedInputStream(Files.newInputStream(path));
+  }
+
+  // HotSpot reports a fault in a mapped buffer, such as one caused by
+  // its file being truncated, as an InternalError.  In compiled code
+  // it is raised asynchronously, so it may surface after the
+  // offending read has returned, outside ByteBufferInputStream.
+  private static final UncheckedIOException mappingFault(final InternalError e) {
+    final IOException ioException = new IOException("a memory-mapped file was modified while it was being read", e);
+    return new UncheckedIOException(ioException.getMessage(), ioException);
+  }
+
+  /**
+   * Calls {@link InputStream#close()} on the supplied {@link
+   * InputStream} if it is non-{@code null}.
    *
    * @param is the {@link InputStream}; may be {@code null} in which
    * case no action will be taken
@@ -323,16 +1759,7 @@ public class InputStreamJacksonProvider extends JacksonProvider {
     if (mapperSupplier == null) {
       return InputStreamJacksonProvider::returnNull;
     } else {
-      return (l, p) -> {
-        // Note that otherwise potential infinite loops are handled in
-        // the DefaultLoader class.
-        final ObjectMapper mapper = l.load(ObjectMapper.class).orElseGet(mapperSupplier);
-        if (mapper == null) {
-          return null;
-        }
-        final JavaType javaType = mapper.constructType(p.qualified());
-        return mapper.canDeserialize(javaType) ? mapper.readerFor(javaType) : null;
-      };
+      return new ObjectReaderFunction(mapperSupplier);
     }
   }
 
@@ -358,4 +1785,397 @@ public class InputStreamJacksonProvider extends JacksonProvider {
     return null;
   }
 
+
+  /*
+   * Inner and nested classes.
+   */
+
+
+  /**
+   * A {@link BiFunction} that returns an {@link ObjectReader} for the
+   * {@link Type} of a {@link Path}, as read by an {@link ObjectMapper}
+   * that is either loaded by the requesting {@link Loader} or, failing
+   * that, supplied by a {@link Supplier}.
+   *
+   * <p>The {@link ObjectMapper} most recently found for a requesting
+   * {@link Loader} is remembered, and {@link ObjectReader}s (and the
+   * knowledge that none can be had) are cached by {@link
+   * ObjectMapper} identity and {@link Type}, so after first use the
+   * common case costs two lookups.</p>
+   *
+   * <p>The requesting {@link Loader} is remembered only weakly.  The
+   * cached {@link ObjectReader}s, however, refer strongly to their
+   * {@link ObjectMapper}s and {@link Type}s, and so to the {@link
+   * ClassLoader}s that loaded them, so at most {@value #MAX_READERS}
+   * of them are cached; when that many are, the cache is cleared and
+   * starts over.</p>
+   *
+   * @threadsafety Instances of this class are safe for concurrent use
+   * by multiple threads.
+   */
+  private static final class ObjectReaderFunction implements BiFunction<Loader<?>, Path<? extends Type>, ObjectCodec> {
+
+    private static final Object NO_READER = new Object();
+
+    private static final int MAX_READERS = 256;
+
+    private final Supplier<? extends ObjectMapper> mapperSupplier;
+
+    private final ConcurrentMap<ReaderKey, Object> readers;
+
+    private volatile MapperMemo mapperMemo;
+
+    private ObjectReaderFunction(final Supplier<? extends ObjectMapper> mapperSupplier) {
+      super();
+      this.mapperSupplier = Objects.requireNonNull(mapperSupplier, "mapperSupplier");
+      this.readers = new ConcurrentHashMap<>();
+    }
+
+    @Override // BiFunction
+    public final ObjectCodec apply(final Loader<?> requestor, final Path<? extends Type> absolutePath) {
+      final ObjectMapper mapper = this.mapper(requestor);
+      if (mapper == null) {
+        return null;
+      }
+      final Type type = absolutePath.qualified();
+      final ReaderKey key = new ReaderKey(mapper, type);
+      Object reader = this.readers.get(key);
+      if (reader == null) {
+        final JavaType javaType = mapper.constructType(type);
+        reader = mapper.canDeserialize(javaType) ? mapper.readerFor(javaType) : NO_READER;
+        if (this.readers.size() >= MAX_READERS) {
+          // Racy, so the bound may be overshot slightly, but not for
+          // long.
+          this.readers.clear();
+        }
+        final Object old = this.readers.putIfAbsent(key, reader);
+        if (old != null) {
+          reader = old;
+        }
+      }
+      return reader == NO_READER ? null : (ObjectReader)reader;
+    }
+
+    private final ObjectMapper mapper(final Loader<?> requestor) {
+      final MapperMemo mapperMemo = this.mapperMemo;
+      if (mapperMemo != null && mapperMemo.requestor().get() == requestor) {
+        return mapperMemo.mapper();
+      }
+      // Note that otherwise potential infinite loops are handled in
+      // the DefaultLoader class.
+      final ObjectMapper mapper = requestor.load(ObjectMapper.class).orElseGet(this.mapperSupplier);
+      if (mapper != null) {
+        // Last writer wins.
+        this.mapperMemo = new MapperMemo(new WeakReference<>(requestor), mapper);
+      }
+      return mapper;
+    }
+
+    /**
+     * The {@link ObjectMapper} found for a requesting {@link Loader}.
+     *
+     * @param requestor a {@link Reference} to the requesting {@link
+     * Loader}, which is not kept reachable by this {@link MapperMemo}
+     *
+     * @param mapper the {@link ObjectMapper}
+     */
+    private static final record MapperMemo(Reference<Loader<?>> requestor, ObjectMapper mapper) {}
+
+    /**
+     * A key identifying an {@link ObjectMapper} by identity, together
+     * with the {@link Type} to be read.
+     */
+    private static final record ReaderKey(ObjectMapper mapper, Type type) {
+
+      @Override // Record
+      public final int hashCode() {
+        return 31 * System.identityHashCode(this.mapper()) + this.type().hashCode();
+      }
+
+      @Override // Record
+      public final boolean equals(final Object other) {
+        return
+          other instanceof ReaderKey her &&
+          this.mapper() == her.mapper() &&
+          this.type().equals(her.type());
+      }
+
+    }
+
+  }
+
+  /**
+   * An {@link InputStream} that reads the remaining bytes of a {@link
+   * ByteBuffer}.
+   *
+   * @threadsafety Instances of this class are not safe for
+   * concurrent use by multiple threads.
+   */
+  private static final class ByteBufferInputStream extends InputStream {
+
+    private final ByteBuffer buffer;
+
+    private ByteBufferInputStream(final ByteBuffer buffer) {
+      super();
+      this.buffer = buffer;
+    }
+
+    @Override // InputStream
+    public final int read() throws IOException {
+      try {
+        return this.buffer.hasRemaining() ? this.buffer.get() & 0xFF : -1;
+      } catch (final InternalError e) {
+        throw mappingFault(e).getCause();
+      }
+    }
+
+    @Override // InputStream
+    public final int read(final byte[] bytes, final int offset, final int length) throws IOException {
+      Objects.checkFromIndexSize(offset, length, bytes.length);
+      if (length == 0) {
+        return 0;
+      }
+      final int remaining = this.buffer.remaining();
+      if (remaining <= 0) {
+        return -1;
+      }
+      final int n = Math.min(length, remaining);
+      try {
+        this.buffer.get(bytes, offset, n);
+      } catch (final InternalError e) {
+        throw mappingFault(e).getCause();
+      }
+      return n;
+    }
+
+    @Override // InputStream
+    public final long skip(final long n) {
+      if (n <= 0L) {
+        return 0L;
+      }
+      final int skipped = (int)Math.min(n, this.buffer.remaining());
+      this.buffer.position(this.buffer.position() + skipped);
+      return skipped;
+    }
+
+    @Override // InputStream
+    public final int available() {
+      return this.buffer.remaining();
+    }
+
+  }
+
+  /**
+   * A {@link Runnable} that watches the directory containing a
+   * document's file and discards the documents read from it whenever
+   * the file changes and then stays unchanged for the reload delay.
+   *
+   * <p>A {@link Watcher} holds only the file and the {@linkplain
+   * #key(Loader, Path) key} of the document first read from it, whose
+   * {@link ClassLoader} is only weakly reachable.</p>
+   *
+   * @threadsafety Instances of this class are safe for concurrent use
+   * by multiple threads.
+   */
+  private final class Watcher implements Runnable {
+
+    private final WatchService watchService;
+
+    private final java.nio.file.Path file;
+
+    private final Object key;
+
+    private Watcher(final WatchService watchService, final java.nio.file.Path file, final Object key) {
+      super();
+      this.watchService = watchService;
+      this.file = file;
+      this.key = key;
+    }
+
+    // Returns true if the document cached under the supplied key is
+    // read from the watched file.  Every resource key for the same
+    // ClassLoader finds the same file, whatever its document key, and
+    // every merged document includes the file.
+    private final boolean backs(final Object key) {
+      return
+        resourcesFunction != null ||
+        this.key.equals(key) ||
+        this.key instanceof ResourceKey k && k.sameClassLoader(key);
+    }
+
+    @Override // Runnable
+    public final void run() {
+      try {
+        while (true) {
+          if (!this.changed(this.watchService.take())) {
+            continue;
+          }
+          // Debounce: wait until the file has gone unchanged for the
+          // reload delay.
+          long deadline = System.nanoTime() + reloadDelayNanos;
+          long remaining;
+          while ((remaining = deadline - System.nanoTime()) > 0L) {
+            final WatchKey key = this.watchService.poll(remaining, TimeUnit.NANOSECONDS);
+            if (key != null && this.changed(key)) {
+              deadline = System.nanoTime() + reloadDelayNanos;
+            }
+          }
+          this.reload();
+        }
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } catch (final ClosedWatchServiceException e) {
+
+      } finally {
+        this.close();
+        unwatch(this);
+      }
+    }
+
+    private final boolean changed(final WatchKey key) {
+      boolean changed = false;
+      for (final WatchEvent<?> event : key.pollEvents()) {
+        if (event.kind() == OVERFLOW || this.file.getFileName().equals(event.context())) {
+          changed = true;
+        }
+      }
+      if (!key.reset()) {
+        // The directory is gone.
+        this.close();
+      }
+      return changed;
+    }
+
+    private final void reload() {
+      // Only the documents read from the file are discarded; those
+      // that other ClassLoaders found elsewhere are kept.  The map is
+      // replaced rather than modified, so that a document read from
+      // the old file, but cached after this, is not consulted.
+      final ConcurrentMap<Object, Document> documents = new ConcurrentHashMap<>(InputStreamJacksonProvider.this.documents);
+      documents.keySet().removeIf(this::backs);
+      InputStreamJacksonProvider.this.documents = documents;
+    }
+
+    private final void close() {
+      try {
+        this.watchService.close();
+      } catch (final IOException e) {
+        logger.log(Level.FINE, e.getMessage(), e);
+      }
+    }
+
+  }
+
+  /**
+   * A cached document.
+   *
+   * @param fingerprint the fingerprint the document had just before
+   * it was read; may be {@code null} only if the document was read
+   * from a file being watched by a {@link Watcher}
+   *
+   * @param root the document's root node; may be {@code null}
+   *
+   * @param validated the {@link System#nanoTime()} at which {@code
+   * fingerprint} was last found to be current
+   */
+  private static final record Document(Object fingerprint, TreeNode root, long validated) {}
+
+  /**
+   * A {@linkplain #documentKey(Loader, Path) document key} qualified
+   * by the {@link ClassLoader} that finds the resource holding the
+   * document.
+   *
+   * <p>The {@link ClassLoader} is only weakly reachable from a {@link
+   * ResourceKey}, so a cached document does not prevent it from being
+   * garbage collected.  A {@link ResourceKey} whose {@link
+   * ClassLoader} has been garbage collected is equal to no other.</p>
+   */
+  private static final class ResourceKey {
+
+    private final Reference<ClassLoader> classLoader; // null means the system classloader
+
+    private final Object documentKey;
+
+    private final int hashCode;
+
+    private ResourceKey(final ClassLoader classLoader, final Object documentKey) {
+      super();
+      this.classLoader = classLoader == null ? null : new WeakReference<>(classLoader);
+      this.documentKey = documentKey;
+      this.hashCode = 31 * System.identityHashCode(classLoader) + Objects.hashCode(documentKey);
+    }
+
+    @Override // Object
+    public final int hashCode() {
+      return this.hashCode;
+    }
+
+    @Override // Object
+    public final boolean equals(final Object other) {
+      if (other == this) {
+        return true;
+      } else if (other instanceof ResourceKey her && this.hashCode == her.hashCode && Objects.equals(this.documentKey, her.documentKey)) {
+        return this.sameClassLoader(her);
+      } else {
+        return false;
+      }
+    }
+
+    // Returns true if the supplied object is a ResourceKey for the
+    // same ClassLoader as this one, which has not been garbage
+    // collected, whatever its document key.
+    private final boolean sameClassLoader(final Object other) {
+      if (!(other instanceof ResourceKey her)) {
+        return false;
+      } else if (this.classLoader == null || her.classLoader == null) {
+        return this.classLoader == her.classLoader;
+      }
+      final ClassLoader cl = this.classLoader.get();
+      return cl != null && cl == her.classLoader.get();
+    }
+
+  }
+
+  /**
+   * The state of a resource as of a moment in time.
+   *
+   * @param location the resource's location
+   *
+   * @param lastModified the resource's last modification time in
+   * milliseconds since the epoch, or a non-positive number if it is
+   * unknown
+   *
+   * @param size the resource's size in bytes, or {@code -1} if it is
+   * unknown
+   *
+   * @param crc the CRC-32 checksum of the resource's contents, or
+   * {@code -1} if it is unknown
+   */
+  private static final record Fingerprint(String location, long lastModified, long size, long crc) {}
+
+  /**
+   * The top-level members of a document that have been materialized
+   * so far by a {@linkplain #InputStreamJacksonProvider(Type,
+   * BiFunction, BiFunction, Consumer, boolean, boolean) streaming}
+   * {@link InputStreamJacksonProvider}.
+   *
+   * @param root a root node containing every member materialized so
+   * far; never mutated once published
+   *
+   * @param names the names of all of the document's top-level
+   * members, or {@code null} if the document has not yet been
+   * scanned in full
+   *
+   * @param complete whether {@code root} is the entire document
+   */
+  private static final record Sections(TreeNode root, Set<String> names, boolean complete) {
+
+    private final boolean covers(final String name) {
+      return
+        this.complete() ||
+        name != null && (((ObjectNode)this.root()).has(name) || this.names() != null && !this.names().contains(name));
+    }
+
+  }
+
 }
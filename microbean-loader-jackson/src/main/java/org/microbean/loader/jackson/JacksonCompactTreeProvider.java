@@ -0,0 +1,423 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2022 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package org.microbean.loader.jackson;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+import java.lang.reflect.Type;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+import java.util.Iterator;
+import java.util.Objects;
+
+import java.util.function.Supplier;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+import org.microbean.invoke.CachingSupplier;
+
+import org.microbean.loader.spi.CompactNode;
+import org.microbean.loader.spi.CompactTreeProvider;
+
+/**
+ * A {@link CompactTreeProvider} whose tree of {@link CompactNode}s
+ * is built from a document read by any <a
+ * href="https://github.com/FasterXML/jackson"
+ * target="_top">Jackson</a> {@link ObjectMapper}, and whose nodes
+ * are read as arbitrary {@link Type}s by that {@link ObjectMapper}.
+ *
+ * <p>Because the document is held as {@link CompactNode}s rather
+ * than as a Jackson tree model, a {@link JacksonCompactTreeProvider}
+ * retains considerably less memory than an equivalent {@link
+ * InputStreamJacksonProvider} does once its document has been
+ * read.  The document is read once, the first time it is
+ * needed.</p>
+ *
+ * @author <a href="https://about.me/lairdnelson"
+ * target="_parent">Laird Nelson</a>
+ *
+ * @see #compactNode(JsonParser)
+ *
+ * @see CompactTreeProvider
+ */
+public class JacksonCompactTreeProvider extends CompactTreeProvider {
+
+
+  /*
+   * Instance fields.
+   */
+
+
+  private final Supplier<? extends ObjectMapper> mapperSupplier;
+
+
+  /*
+   * Constructors.
+   */
+
+
+  /**
+   * Creates a new {@link JacksonCompactTreeProvider} that reads the
+   * classpath resource bearing the supplied name using the
+   * {@linkplain Thread#getContextClassLoader() context
+   * classloader}.
+   *
+   * @param mapperSupplier a {@link Supplier} of the {@link
+   * ObjectMapper} that will read the document and the values within
+   * it; ordinarily callers should supply a {@link Supplier} that
+   * caches; must not be {@code null}
+   *
+   * @param resourceName a resource name that is treated first as a
+   * classpath resource and finally as the name of a file relative to
+   * the directory identified by the {@link System#getProperty(String,
+   * String) user.dir} system property; must not be {@code null}
+   *
+   * @exception NullPointerException if either argument is {@code
+   * null}
+   *
+   * @see #JacksonCompactTreeProvider(Type, Supplier, ClassLoader,
+   * String, boolean)
+   */
+  public JacksonCompactTreeProvider(final Supplier<? extends ObjectMapper> mapperSupplier, final String resourceName) {
+    this(null, mapperSupplier, Thread.currentThread().getContextClassLoader(), resourceName, false);
+  }
+
+  /**
+   * Creates a new {@link JacksonCompactTreeProvider}.
+   *
+   * @param lowerBound the {@linkplain #lowerBound() lower type bound}
+   * of this {@link JacksonCompactTreeProvider} implementation; may be
+   * {@code null}
+   *
+   * @param mapperSupplier a {@link Supplier} of the {@link
+   * ObjectMapper} that will read the document and the values within
+   * it; ordinarily callers should supply a {@link Supplier} that
+   * caches; must not be {@code null}
+   *
+   * @param cl the {@link ClassLoader} used to find the classpath
+   * resource; may be {@code null} in which case the system
+   * classloader will be used instead
+   *
+   * @param resourceName a resource name that is treated first as a
+   * classpath resource and finally as the name of a file relative to
+   * the directory identified by the {@link System#getProperty(String,
+   * String) user.dir} system property; must not be {@code null}
+   *
+   * @param indexed whether a flat index of every node in the tree
+   * should be built when it is first read
+   *
+   * @exception NullPointerException if {@code mapperSupplier} or
+   * {@code resourceName} is {@code null}
+   *
+   * @see
+   * org.microbean.loader.spi.AbstractTreeBasedProvider#AbstractTreeBasedProvider(Type,
+   * boolean)
+   */
+  public JacksonCompactTreeProvider(final Type lowerBound,
+                                    final Supplier<? extends ObjectMapper> mapperSupplier,
+                                    final ClassLoader cl,
+                                    final String resourceName,
+                                    final boolean indexed) {
+    super(lowerBound, new CachingSupplier<>(() -> produceCompactNode(mapperSupplier, cl, resourceName)), indexed);
+    this.mapperSupplier = Objects.requireNonNull(mapperSupplier, "mapperSupplier");
+    Objects.requireNonNull(resourceName, "resourceName");
+  }
+
+
+  /*
+   * Instance methods.
+   */
+
+
+  /**
+   * Reads the supplied {@code node} as an object of the supplied
+   * {@link Type} and returns the result, or {@code null} if the
+   * {@code node} cannot be so read.
+   *
+   * <p>This implementation first calls the {@link
+   * CompactTreeProvider#read(Object, Type)} method.  If that returns
+   * {@code null} for a node that is not {@code null} or {@link
+   * CompactNode#NULL}, the node is replayed as a token stream to the
+   * {@link ObjectMapper} supplied at construction time, which reads
+   * it as the supplied {@link Type}.</p>
+   *
+   * @param node the node to read; may be {@code null}
+   *
+   * @param type the {@link Type} to read the node as; must not be
+   * {@code null}
+   *
+   * @return the result of reading {@code node} as an object of the
+   * supplied {@link Type}, or {@code null}
+   *
+   * @exception NullPointerException if {@code type} is {@code null}
+   *
+   * @exception UncheckedIOException if the {@link ObjectMapper}
+   * could not read the node
+   *
+   * @nullability This method and its overrides may return {@code
+   * null}.
+   *
+   * @idempotency This method is, and its overrides must be,
+   * idempotent and deterministic.
+   *
+   * @threadsafety This method is, and its overrides must be, safe for
+   * concurrent use by multiple threads.
+   */
+  @Override // CompactTreeProvider
+  protected Object read(final Object node, final Type type) {
+    final Object value = super.read(node, type);
+    if (value != null || node == null || node == CompactNode.NULL) {
+      return value;
+    }
+    final ObjectMapper mapper = this.mapperSupplier.get();
+    try (final TokenBuffer buffer = new TokenBuffer(mapper, false)) {
+      write(node, buffer);
+      try (final JsonParser parser = buffer.asParser(mapper)) {
+        return mapper.readValue(parser, mapper.constructType(type));
+      }
+    } catch (final IOException ioException) {
+      throw new UncheckedIOException(ioException.getMessage(), ioException);
+    }
+  }
+
+
+  /*
+   * Static methods.
+   */
+
+
+  /**
+   * Reads the value at the supplied {@link JsonParser}'s current
+   * token (or, if it has none, its next token) and returns it as a
+   * {@link CompactNode}, or returns {@code null} if that value is not
+   * an object or an array.
+   *
+   * <p>Any {@link JsonParser} may be supplied, so {@link
+   * CompactNode} trees can be built from any format Jackson can
+   * read, such as JSON, YAML, TOML or Java properties.</p>
+   *
+   * @param parser the {@link JsonParser}; must not be {@code null}
+   *
+   * @return a {@link CompactNode}, or {@code null}
+   *
+   * @exception NullPointerException if {@code parser} is {@code null}
+   *
+   * @exception IOException if the {@link JsonParser} could not read
+   * its input
+   *
+   * @nullability This method may return {@code null}.
+   *
+   * @idempotency This method is neither idempotent nor deterministic,
+   * since it consumes the supplied {@link JsonParser}'s input.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple
+   * threads provided that the supplied {@link JsonParser} is not used
+   * by any of them concurrently.
+   */
+  public static final CompactNode compactNode(final JsonParser parser) throws IOException {
+    JsonToken token = parser.currentToken();
+    if (token == null) {
+      token = parser.nextToken();
+    }
+    if (token == JsonToken.START_OBJECT) {
+      return readObject(parser, CompactNode.mapBuilder());
+    } else if (token == JsonToken.START_ARRAY) {
+      return readArray(parser, CompactNode.listBuilder());
+    }
+    return null;
+  }
+
+  private static final CompactNode readObject(final JsonParser parser, final CompactNode.Builder builder) throws IOException {
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      final String name = parser.currentName();
+      read(parser, parser.nextToken(), builder, name);
+    }
+    return builder.build();
+  }
+
+  private static final CompactNode readArray(final JsonParser parser, final CompactNode.Builder builder) throws IOException {
+    JsonToken token;
+    while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+      read(parser, token, builder, null);
+    }
+    return builder.build();
+  }
+
+  // If name is null, adds the value at the parser's current token to
+  // the list node builder; otherwise puts it under name in the map
+  // node builder.
+  private static final void read(final JsonParser parser,
+                                 final JsonToken token,
+                                 final CompactNode.Builder builder,
+                                 final String name)
+    throws IOException {
+    switch (token) {
+    case START_OBJECT:
+      final CompactNode object = readObject(parser, builder.mapBuilder());
+      if (name == null) {
+        builder.add(object);
+      } else {
+        builder.put(name, object);
+      }
+      break;
+    case START_ARRAY:
+      final CompactNode array = readArray(parser, builder.listBuilder());
+      if (name == null) {
+        builder.add(array);
+      } else {
+        builder.put(name, array);
+      }
+      break;
+    case VALUE_TRUE:
+    case VALUE_FALSE:
+      final boolean b = token == JsonToken.VALUE_TRUE;
+      if (name == null) {
+        builder.add(b);
+      } else {
+        builder.put(name, b);
+      }
+      break;
+    case VALUE_NUMBER_INT:
+      switch (parser.getNumberType()) {
+      case INT:
+      case LONG:
+        final long l = parser.getLongValue();
+        if (name == null) {
+          builder.add(l);
+        } else {
+          builder.put(name, l);
+        }
+        break;
+      default:
+        final Object bigInteger = parser.getBigIntegerValue();
+        if (name == null) {
+          builder.add(bigInteger);
+        } else {
+          builder.put(name, bigInteger);
+        }
+        break;
+      }
+      break;
+    case VALUE_NUMBER_FLOAT:
+      if (parser.getNumberType() == JsonParser.NumberType.BIG_DECIMAL) {
+        final Object bigDecimal = parser.getDecimalValue();
+        if (name == null) {
+          builder.add(bigDecimal);
+        } else {
+          builder.put(name, bigDecimal);
+        }
+      } else {
+        final double d = parser.getDoubleValue();
+        if (name == null) {
+          builder.add(d);
+        } else {
+          builder.put(name, d);
+        }
+      }
+      break;
+    case VALUE_NULL:
+      if (name == null) {
+        builder.addNull();
+      } else {
+        builder.putNull(name);
+      }
+      break;
+    case VALUE_STRING:
+      final Object text = parser.getText();
+      if (name == null) {
+        builder.add(text);
+      } else {
+        builder.put(name, text);
+      }
+      break;
+    case VALUE_EMBEDDED_OBJECT:
+      final Object embeddedObject = parser.getEmbeddedObject();
+      if (name == null) {
+        builder.add(embeddedObject);
+      } else {
+        builder.put(name, embeddedObject);
+      }
+      break;
+    default:
+      throw new IOException("unexpected token: " + token);
+    }
+  }
+
+  private static final void write(final Object node, final JsonGenerator generator) throws IOException {
+    if (node == null || node == CompactNode.NULL) {
+      generator.writeNull();
+    } else if (node instanceof CompactNode n) {
+      if (n.map()) {
+        generator.writeStartObject();
+        final Iterator<String> names = n.names();
+        while (names.hasNext()) {
+          final String name = names.next();
+          generator.writeFieldName(name);
+          write(n.get(name), generator);
+        }
+        generator.writeEndObject();
+      } else {
+        generator.writeStartArray();
+        final int size = n.size();
+        for (int i = 0; i < size; i++) {
+          write(n.get(i), generator);
+        }
+        generator.writeEndArray();
+      }
+    } else if (node instanceof String s) {
+      generator.writeString(s);
+    } else if (node instanceof Boolean b) {
+      generator.writeBoolean(b.booleanValue());
+    } else if (node instanceof Long l) {
+      generator.writeNumber(l.longValue());
+    } else if (node instanceof Double d) {
+      generator.writeNumber(d.doubleValue());
+    } else if (node instanceof BigInteger bi) {
+      generator.writeNumber(bi);
+    } else if (node instanceof BigDecimal bd) {
+      generator.writeNumber(bd);
+    } else {
+      generator.writeObject(node);
+    }
+  }
+
+  private static final CompactNode produceCompactNode(final Supplier<? extends ObjectMapper> mapperSupplier,
+                                                      final ClassLoader cl,
+                                                      final String resourceName) {
+    final ObjectMapper mapper = mapperSupplier.get();
+    final InputStream is = InputStreamJacksonProvider.inputStream(cl, resourceName);
+    if (is == null) {
+      return null;
+    }
+    try (is; final JsonParser parser = mapper.createParser(is)) {
+      return compactNode(parser);
+    } catch (final IOException ioException) {
+      throw new UncheckedIOException(ioException.getMessage(), ioException);
+    }
+  }
+
+}
@@ -19,9 +19,13 @@ package org.microbean.loader.jackson;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 
+import java.lang.annotation.Annotation;
+
+import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.Type;
 
 import java.math.BigDecimal;
+import java.math.BigInteger;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -45,6 +49,19 @@ import com.fasterxml.jackson.core.exc.InputCoercionException;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 
+import com.fasterxml.jackson.databind.DeserializationConfig;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import com.fasterxml.jackson.databind.cfg.CoercionAction;
+import com.fasterxml.jackson.databind.cfg.CoercionInputShape;
+
+import com.fasterxml.jackson.databind.node.ValueNode;
+
+import com.fasterxml.jackson.databind.type.LogicalType;
+
 import org.microbean.loader.api.Loader;
 
 import org.microbean.loader.spi.AbstractTreeBasedProvider;
@@ -53,6 +70,8 @@ import org.microbean.loader.spi.Value;
 import org.microbean.path.Path;
 import org.microbean.path.Path.Element;
 
+import static java.lang.invoke.MethodType.methodType;
+
 /**
  * A partial {@link AbstractTreeBasedProvider} implementation backed
  * by <a href="https://github.com/FasterXML/jackson"
@@ -71,6 +90,35 @@ public abstract class JacksonProvider extends AbstractTreeBasedProvider<TreeNode
 
   private static final Logger logger = Logger.getLogger(JacksonProvider.class.getName());
 
+  /**
+   * Whether an {@link Enum} class is free of the Jackson annotations
+   * that could change how its constants are named.
+   */
+  private static final ClassValue<Boolean> PLAIN_ENUMS = new ClassValue<>() {
+      @Override // ClassValue<Boolean>
+      protected final Boolean computeValue(final Class<?> c) {
+        if (jacksonAnnotated(c)) {
+          return Boolean.FALSE;
+        }
+        for (final AnnotatedElement e : c.getDeclaredFields()) {
+          if (jacksonAnnotated(e)) {
+            return Boolean.FALSE;
+          }
+        }
+        for (final AnnotatedElement e : c.getDeclaredMethods()) {
+          if (jacksonAnnotated(e)) {
+            return Boolean.FALSE;
+          }
+        }
+        for (final AnnotatedElement e : c.getDeclaredConstructors()) {
+          if (jacksonAnnotated(e)) {
+            return Boolean.FALSE;
+          }
+        }
+        return Boolean.TRUE;
+      }
+    };
+
 
   /*
    * Constructors.
@@ -94,7 +142,24 @@ public abstract class JacksonProvider extends AbstractTreeBasedProvider<TreeNode
    * null}
    */
   protected JacksonProvider(final Type lowerBound) {
-    super(lowerBound);
+    this(lowerBound, false);
+  }
+
+  /**
+   * Creates a new {@link JacksonProvider}.
+   *
+   * @param lowerBound the {@linkplain #lowerBound() lower type bound}
+   * of this {@link JacksonProvider} implementation; may be {@code
+   * null}
+   *
+   * @param indexed whether a flat index of every node in a tree
+   * should be built when its root node is first seen
+   *
+   * @see AbstractTreeBasedProvider#AbstractTreeBasedProvider(Type,
+   * boolean)
+   */
+  protected JacksonProvider(final Type lowerBound, final boolean indexed) {
+    super(lowerBound, indexed);
   }
 
 
@@ -184,6 +249,12 @@ public abstract class JacksonProvider extends AbstractTreeBasedProvider<TreeNode
       return null;
     }
     return (treeNode, type) -> {
+      if (type instanceof Class<?> c && treeNode instanceof ValueNode valueNode) {
+        final Object value = this.readScalar(reader, valueNode, c);
+        if (value != null) {
+          return value;
+        }
+      }
       try {
         if (type instanceof Class<?> c) {
           return treeNode.traverse(reader).readValueAs(c);
@@ -206,4 +277,180 @@ public abstract class JacksonProvider extends AbstractTreeBasedProvider<TreeNode
     };
   }
 
+  /**
+   * Converts the supplied scalar {@link ValueNode} directly to an
+   * instance of the supplied {@link Class}, without creating a {@link
+   * JsonParser} or involving Jackson's data binding machinery, and
+   * returns the result, or returns {@code null} if this method does
+   * not handle the conversion, in which case the node will be read
+   * by the supplied {@link ObjectCodec} as usual.
+   *
+   * <p>This implementation handles conversions to {@link String},
+   * {@link Boolean}, the {@link Number} subclasses in {@code
+   * java.lang} and {@code java.math} (and the corresponding primitive
+   * types), and {@link Enum} subclasses, whenever the result is the
+   * one Jackson's default deserializers would produce.  Conversions
+   * that Jackson would reject or might perform differently (lossy
+   * narrowing, lenient parsing, {@code null} nodes, {@link Enum}s
+   * carrying Jackson annotations or mix-ins) are not handled.
+   * Conversions that change a value's shape (text to a {@link
+   * Boolean} or a number, a boolean or a number to text, or an
+   * integral number to a floating point one) are coercions, and are
+   * handled only if the supplied {@link ObjectCodec} is an {@link
+   * ObjectReader} whose configuration {@linkplain
+   * DeserializationConfig#isEnabled(MapperFeature) enables} {@link
+   * MapperFeature#ALLOW_COERCION_OF_SCALARS} and whose {@linkplain
+   * DeserializationConfig#findCoercionAction(LogicalType, Class,
+   * CoercionInputShape) coercion action} for the conversion is
+   * {@link CoercionAction#TryConvert}.  This
+   * implementation cannot see custom deserializers that have been
+   * registered for these types; subclasses whose {@link ObjectCodec}s
+   * use such deserializers should override this method to return
+   * {@code null}.</p>
+   *
+   * @param codec the {@link ObjectCodec} that would otherwise read
+   * the node; must not be {@code null}
+   *
+   * @param node the {@link ValueNode} to convert; must not be {@code
+   * null}
+   *
+   * @param type the {@link Class} to convert the node to; must not
+   * be {@code null}
+   *
+   * @return an instance of the supplied {@link Class} (or of its
+   * wrapper type, if it is primitive), or {@code null}
+   *
+   * @exception NullPointerException if any argument is {@code null}
+   *
+   * @nullability This method and its overrides may return {@code
+   * null}.
+   *
+   * @idempotency This method is, and its overrides must be,
+   * idempotent and deterministic.
+   *
+   * @threadsafety This method is, and its overrides must be, safe for
+   * concurrent use by multiple threads.
+   */
+  @SuppressWarnings({ "rawtypes", "unchecked" })
+  protected Object readScalar(final ObjectCodec codec, final ValueNode node, final Class<?> type) {
+    final Class<?> c = type.isPrimitive() ? methodType(type).wrap().returnType() : type;
+    final DeserializationConfig config = codec instanceof ObjectReader r ? r.getConfig() : null;
+    switch (node.getNodeType()) {
+    case STRING:
+      final String text = node.textValue();
+      if (c == String.class || c == Object.class || c == CharSequence.class) {
+        return text;
+      } else if (c.isEnum()) {
+        if (config != null &&
+            !config.isEnabled(DeserializationFeature.READ_ENUMS_USING_TO_STRING) &&
+            config.findMixInClassFor(c) == null &&
+            PLAIN_ENUMS.get(c)) {
+          try {
+            return Enum.valueOf((Class)c, text);
+          } catch (final IllegalArgumentException e) {
+            return null;
+          }
+        }
+        return null;
+      } else if (c == Boolean.class) {
+        if (coercible(config, LogicalType.Boolean, c, CoercionInputShape.String)) {
+          return text.equals("true") ? Boolean.TRUE : text.equals("false") ? Boolean.FALSE : null;
+        }
+        return null;
+      } else if ((c == Integer.class || c == Long.class) && coercible(config, LogicalType.Integer, c, CoercionInputShape.String)) {
+        try {
+          return c == Integer.class ? Integer.valueOf(text) : Long.valueOf(text);
+        } catch (final NumberFormatException e) {
+          // Let Jackson decide.
+        }
+      }
+      return null;
+    case BOOLEAN:
+      if (c == Boolean.class || c == Object.class) {
+        return node.booleanValue() ? Boolean.TRUE : Boolean.FALSE;
+      } else if ((c == String.class || c == CharSequence.class) &&
+                 coercible(config, LogicalType.Textual, c, CoercionInputShape.Boolean)) {
+        return node.asText();
+      }
+      return null;
+    case NUMBER:
+      return readNumber(config, node, c);
+    default:
+      return null;
+    }
+  }
+
+
+  /*
+   * Static methods.
+   */
+
+
+  private static final Object readNumber(final DeserializationConfig config, final JsonNode node, final Class<?> type) {
+    final boolean integral = node.isIntegralNumber();
+    if (type == String.class || type == CharSequence.class) {
+      return
+        coercible(config, LogicalType.Textual, type, integral ? CoercionInputShape.Integer : CoercionInputShape.Float) ?
+        node.asText() : null;
+    } else if (type == Double.class || type == Float.class || type == BigDecimal.class) {
+      if (integral && !coercible(config, LogicalType.Float, type, CoercionInputShape.Integer)) {
+        return null;
+      } else if (type == Double.class) {
+        return Double.valueOf(node.doubleValue());
+      } else if (type == Float.class) {
+        return Float.valueOf(node.floatValue());
+      }
+      return node.decimalValue();
+    } else if (!integral) {
+      return null;
+    } else if (type == Integer.class) {
+      return node.canConvertToInt() ? Integer.valueOf(node.intValue()) : null;
+    } else if (type == Long.class) {
+      return node.canConvertToLong() ? Long.valueOf(node.longValue()) : null;
+    } else if (type == BigInteger.class) {
+      return node.bigIntegerValue();
+    } else if (type == Short.class) {
+      if (node.canConvertToInt()) {
+        final int i = node.intValue();
+        if (i >= Short.MIN_VALUE && i <= Short.MAX_VALUE) {
+          return Short.valueOf((short)i);
+        }
+      }
+      return null;
+    } else if (type == Byte.class) {
+      if (node.canConvertToInt()) {
+        final int i = node.intValue();
+        // Jackson accepts 128 through 255 as negative bytes.
+        if (i >= Byte.MIN_VALUE && i <= Byte.MAX_VALUE) {
+          return Byte.valueOf((byte)i);
+        }
+      }
+      return null;
+    }
+    return null;
+  }
+
+  // Returns true if Jackson, configured as supplied, would convert a
+  // value of the supplied shape to an instance of the supplied class
+  // rather than fail or produce a null or empty value.  Without a
+  // configuration there is no telling, so false is returned.
+  private static final boolean coercible(final DeserializationConfig config,
+                                         final LogicalType logicalType,
+                                         final Class<?> c,
+                                         final CoercionInputShape inputShape) {
+    return
+      config != null &&
+      config.isEnabled(MapperFeature.ALLOW_COERCION_OF_SCALARS) &&
+      config.findCoercionAction(logicalType, c, inputShape) == CoercionAction.TryConvert;
+  }
+
+  private static final boolean jacksonAnnotated(final AnnotatedElement e) {
+    for (final Annotation a : e.getDeclaredAnnotations()) {
+      if (a.annotationType().getName().startsWith("com.fasterxml.jackson.")) {
+        return true;
+      }
+    }
+    return false;
+  }
+
 }
@@ -0,0 +1,89 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2022 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package org.microbean.loader.jackson;
+
+import java.util.Objects;
+import java.util.ServiceLoader;
+
+import java.util.function.Supplier;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * A {@linkplain ServiceLoader service provider} that customizes an
+ * {@link ObjectMapper} before a {@link JacksonProvider} uses it,
+ * typically by {@linkplain ObjectMapper#registerModule(com.fasterxml.jackson.databind.Module)
+ * registering a module}.
+ *
+ * <p>Implementations must be safe for concurrent use by multiple
+ * threads.</p>
+ *
+ * @author <a href="https://about.me/lairdnelson"
+ * target="_parent">Laird Nelson</a>
+ *
+ * @see #customizing(Supplier)
+ *
+ * @see BlackbirdObjectMapperCustomizer
+ */
+@FunctionalInterface
+public interface ObjectMapperCustomizer {
+
+  /**
+   * Customizes the supplied {@link ObjectMapper}.
+   *
+   * @param mapper the {@link ObjectMapper} to customize; must not be
+   * {@code null}
+   *
+   * @exception NullPointerException if {@code mapper} is {@code null}
+   */
+  public void customize(final ObjectMapper mapper);
+
+  /**
+   * Returns a {@link Supplier} that, each time it is invoked, obtains
+   * an {@link ObjectMapper} from the supplied {@code mapperSupplier}
+   * and passes it to every {@link ObjectMapperCustomizer} {@linkplain
+   * ServiceLoader#load(Class, ClassLoader) discovered} by a new {@link
+   * ServiceLoader} before returning it.
+   *
+   * <p>Since {@link ServiceLoader} discovery is comparatively
+   * expensive, the returned {@link Supplier} is best wrapped in a
+   * {@link org.microbean.invoke.CachingSupplier} or an equivalent.</p>
+   *
+   * @param <M> the type of {@link ObjectMapper}
+   *
+   * @param mapperSupplier a {@link Supplier} of {@link ObjectMapper}s;
+   * must not be {@code null}
+   *
+   * @return a {@link Supplier} of customized {@link ObjectMapper}s;
+   * never {@code null}
+   *
+   * @exception NullPointerException if {@code mapperSupplier} is
+   * {@code null}
+   */
+  public static <M extends ObjectMapper> Supplier<M> customizing(final Supplier<? extends M> mapperSupplier) {
+    Objects.requireNonNull(mapperSupplier, "mapperSupplier");
+    return () -> {
+      final M mapper = Objects.requireNonNull(mapperSupplier.get(), "mapperSupplier.get()");
+      for (final ObjectMapperCustomizer customizer :
+             ServiceLoader.load(ObjectMapperCustomizer.class, ObjectMapperCustomizer.class.getClassLoader())) {
+        customizer.customize(mapper);
+      }
+      return mapper;
+    };
+  }
+
+}
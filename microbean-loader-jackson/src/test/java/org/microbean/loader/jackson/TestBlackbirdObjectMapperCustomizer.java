@@ -0,0 +1,76 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2022 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package org.microbean.loader.jackson;
+
+import java.util.List;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+final class TestBlackbirdObjectMapperCustomizer {
+
+  private static final String DOCUMENT =
+    "{ \"name\" : \"inventory\", \"endpoints\" : [ { \"host\" : \"localhost\", \"port\" : 8080, \"tags\" : [ \"a\", \"b\" ] } ] }";
+
+  private TestBlackbirdObjectMapperCustomizer() {
+    super();
+  }
+
+  @Test
+  final void testDisabledByDefault() {
+    assertFalse(Boolean.getBoolean(BlackbirdObjectMapperCustomizer.ENABLED_PROPERTY));
+    final BlackbirdObjectMapperCustomizer customizer = new BlackbirdObjectMapperCustomizer();
+    assertFalse(customizer.enabled());
+    final ObjectMapper mapper = new ObjectMapper();
+    customizer.customize(mapper);
+    assertFalse(blackbirdRegistered(mapper), mapper.getRegisteredModuleIds().toString());
+  }
+
+  @Test
+  final void testEnabled() {
+    assertTrue(BlackbirdObjectMapperCustomizer.available());
+    final ObjectMapper mapper = new ObjectMapper();
+    new BlackbirdObjectMapperCustomizer(true).customize(mapper);
+    assertTrue(blackbirdRegistered(mapper), mapper.getRegisteredModuleIds().toString());
+  }
+
+  @Test
+  final void testBindingUnchanged() throws Exception {
+    final ObjectMapper plain = new ObjectMapper();
+    final JsonNode tree = plain.readTree(DOCUMENT);
+    final ObjectMapper blackbird = new ObjectMapper();
+    new BlackbirdObjectMapperCustomizer(true).customize(blackbird);
+    final Service expected = plain.readerFor(Service.class).readValue(tree);
+    assertEquals(expected, blackbird.readerFor(Service.class).readValue(tree));
+    assertEquals(8080, expected.endpoints().get(0).port());
+  }
+
+  private static final boolean blackbirdRegistered(final ObjectMapper mapper) {
+    return mapper.getRegisteredModuleIds().stream().anyMatch(id -> String.valueOf(id).contains("Blackbird"));
+  }
+
+  public static record Service(String name, List<Endpoint> endpoints) {}
+
+  public static record Endpoint(String host, int port, List<String> tags) {}
+
+}
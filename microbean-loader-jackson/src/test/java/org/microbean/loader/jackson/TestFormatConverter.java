@@ -0,0 +1,91 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2022 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package org.microbean.loader.jackson;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import java.nio.charset.StandardCharsets;
+
+import java.nio.file.Files;
+
+import java.util.stream.Stream;
+
+import com.fasterxml.jackson.core.JsonFactory;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import static org.junit.jupiter.api.DynamicTest.dynamicTest;
+
+final class TestFormatConverter {
+
+  private static final String DOCUMENT =
+    "{ \"formatConverter\" : { \"host\" : \"localhost\", \"port\" : 8080, \"tls\" : true, \"protocols\" : [ \"TLSv1.2\", \"TLSv1.3\" ] } }";
+
+  private TestFormatConverter() {
+    super();
+  }
+
+  @TestFactory
+  final Stream<DynamicTest> testRoundTrip() {
+    return Stream.of("cbor", "json", "smile", "yaml")
+      .map(extension -> dynamicTest(extension, () -> roundTrip(extension)));
+  }
+
+  @Test
+  final void testUnsupportedExtension() {
+    assertThrows(IllegalArgumentException.class, () -> FormatConverter.factory(java.nio.file.Path.of("application.xml")));
+  }
+
+  // Converts DOCUMENT from JSON to the format identified by the
+  // supplied extension and back again, once by file and once by
+  // stream, and checks that nothing was lost either way.
+  private static final void roundTrip(final String extension) throws IOException {
+    final ObjectMapper mapper = new ObjectMapper();
+    final JsonNode expected = mapper.readTree(DOCUMENT);
+
+    final java.nio.file.Path json = Files.createTempFile("formatConverter", ".json");
+    final java.nio.file.Path converted = Files.createTempFile("formatConverter", "." + extension);
+    final java.nio.file.Path back = Files.createTempFile("formatConverter", ".json");
+    try {
+      Files.writeString(json, DOCUMENT);
+      FormatConverter.convert(json, converted);
+      FormatConverter.convert(converted, back);
+      assertEquals(expected, mapper.readTree(back.toFile()));
+    } finally {
+      Files.delete(back);
+      Files.delete(converted);
+      Files.delete(json);
+    }
+
+    final JsonFactory jsonFactory = FormatConverter.factory(json);
+    final JsonFactory factory = FormatConverter.factory(converted);
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    FormatConverter.convert(jsonFactory, new ByteArrayInputStream(DOCUMENT.getBytes(StandardCharsets.UTF_8)), factory, out);
+    assertEquals(expected, new ObjectMapper(factory).readTree(out.toByteArray()));
+  }
+
+}
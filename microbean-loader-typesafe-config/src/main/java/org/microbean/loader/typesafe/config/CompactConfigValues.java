@@ -0,0 +1,157 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2022 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package org.microbean.loader.typesafe.config;
+
+import java.util.Map;
+
+import com.typesafe.config.ConfigList;
+import com.typesafe.config.ConfigObject;
+import com.typesafe.config.ConfigValue;
+
+import org.microbean.loader.spi.CompactNode;
+import org.microbean.loader.spi.CompactTreeProvider;
+
+/**
+ * A utility class for converting <a
+ * href="https://lightbend.github.io/config/" target="_top">Typesafe
+ * Config</a> {@link ConfigValue}s into {@link CompactNode}s suitable
+ * for use by a {@link CompactTreeProvider}.
+ *
+ * @author <a href="https://about.me/lairdnelson"
+ * target="_parent">Laird Nelson</a>
+ *
+ * @see #compactNode(ConfigValue)
+ *
+ * @see CompactTreeProvider
+ */
+public final class CompactConfigValues {
+
+
+  /*
+   * Constructors.
+   */
+
+
+  private CompactConfigValues() {
+    super();
+  }
+
+
+  /*
+   * Static methods.
+   */
+
+
+  /**
+   * Converts the supplied {@link ConfigValue}, which should normally
+   * be {@linkplain com.typesafe.config.Config#resolve() resolved},
+   * into a {@link CompactNode} and returns it, or returns
+   * {@code null} if the supplied {@link ConfigValue} is neither a
+   * {@link ConfigObject} nor a {@link ConfigList}.
+   *
+   * @param value the {@link ConfigValue} to convert; may be {@code
+   * null}
+   *
+   * @return a {@link CompactNode}, or {@code null}
+   *
+   * @exception com.typesafe.config.ConfigException.NotResolved if
+   * the supplied {@link ConfigValue} contains unresolved
+   * substitutions
+   *
+   * @nullability This method may return {@code null}.
+   *
+   * @idempotency This method is idempotent and deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple
+   * threads.
+   */
+  public static final CompactNode compactNode(final ConfigValue value) {
+    if (value instanceof ConfigObject o) {
+      return build(o, CompactNode.mapBuilder());
+    } else if (value instanceof ConfigList l) {
+      return build(l, CompactNode.listBuilder());
+    }
+    return null;
+  }
+
+  private static final CompactNode build(final ConfigObject object, final CompactNode.Builder builder) {
+    for (final Map.Entry<String, ConfigValue> e : object.entrySet()) {
+      final String name = e.getKey();
+      final ConfigValue value = e.getValue();
+      switch (value.valueType()) {
+      case OBJECT:
+        builder.put(name, build((ConfigObject)value, builder.mapBuilder()));
+        break;
+      case LIST:
+        builder.put(name, build((ConfigList)value, builder.listBuilder()));
+        break;
+      case BOOLEAN:
+        builder.put(name, ((Boolean)value.unwrapped()).booleanValue());
+        break;
+      case NUMBER:
+        final Number number = (Number)value.unwrapped();
+        if (number instanceof Double) {
+          builder.put(name, number.doubleValue());
+        } else {
+          builder.put(name, number.longValue());
+        }
+        break;
+      case NULL:
+        builder.putNull(name);
+        break;
+      case STRING:
+      default:
+        builder.put(name, value.unwrapped());
+        break;
+      }
+    }
+    return builder.build();
+  }
+
+  private static final CompactNode build(final ConfigList list, final CompactNode.Builder builder) {
+    for (final ConfigValue value : list) {
+      switch (value.valueType()) {
+      case OBJECT:
+        builder.add(build((ConfigObject)value, builder.mapBuilder()));
+        break;
+      case LIST:
+        builder.add(build((ConfigList)value, builder.listBuilder()));
+        break;
+      case BOOLEAN:
+        builder.add(((Boolean)value.unwrapped()).booleanValue());
+        break;
+      case NUMBER:
+        final Number number = (Number)value.unwrapped();
+        if (number instanceof Double) {
+          builder.add(number.doubleValue());
+        } else {
+          builder.add(number.longValue());
+        }
+        break;
+      case NULL:
+        builder.addNull();
+        break;
+      case STRING:
+      default:
+        builder.add(value.unwrapped());
+        break;
+      }
+    }
+    return builder.build();
+  }
+
+}
@@ -174,7 +174,41 @@ public class TypesafeConfigHoconProvider extends AbstractTreeBasedProvider<Confi
    * null}
    */
   public TypesafeConfigHoconProvider(final Type lowerBound, final ClassLoader cl, final String resourceName) {
-    super(lowerBound);
+    this(lowerBound, cl, resourceName, false);
+  }
+
+  /**
+   * Creates a new {@link TypesafeConfigHoconProvider} that reads
+   * solely from a classpath resource bearing the supplied name using
+   * the supplied {@link ClassLoader}.
+   *
+   * <p>No stacking of other configurations is performed.</p>
+   *
+   * @param lowerBound the {@linkplain #lowerBound() lower type bound}
+   * of this {@link TypesafeConfigHoconProvider} implementation; may
+   * be {@code null}
+   *
+   * @param cl the {@link ClassLoader}; may be {@code null} in which
+   * case the system classloader will be used instead, normally via
+   * {@link ClassLoader#getSystemResourceAsStream(String)}
+   *
+   * @param resourceName the name of the classpath resource; must not
+   * be {@code null}
+   *
+   * @param indexed whether a flat index of every node in the
+   * configuration should be built when it is first read
+   *
+   * @exception NullPointerException if {@code resourceName} is {@code
+   * null}
+   *
+   * @see AbstractTreeBasedProvider#AbstractTreeBasedProvider(Type,
+   * boolean)
+   */
+  public TypesafeConfigHoconProvider(final Type lowerBound,
+                                     final ClassLoader cl,
+                                     final String resourceName,
+                                     final boolean indexed) {
+    super(lowerBound, indexed);
     Objects.requireNonNull(resourceName, "resourceName");
     this.configSupplier = new CachingSupplier<>(() -> produceConfig(cl, resourceName));
   }
@@ -346,6 +380,15 @@ public class TypesafeConfigHoconProvider extends AbstractTreeBasedProvider<Confi
     return this.config().root();
   }
 
+  // The Config is read once and cached, so asking for the root node
+  // again is cheap and tells whether it is still the current one.
+  @Override // AbstractTreeBasedProvider<ConfigValue>
+  protected boolean rootNodeCurrent(final Loader<?> requestor,
+                                    final Path<? extends Type> absolutePath,
+                                    final ConfigValue rootNode) {
+    return this.rootNode(requestor, absolutePath) == rootNode;
+  }
+
   private final Config config() {
     return this.configSupplier.get();
   }
@@ -709,7 +709,7 @@ public class DefaultLoader<T> implements AutoCloseable, Loader<T> {
           continue;
         }
 
-        if (!isSelectable(provider, absolutePath)) {
+        if (!isSelectable(provider, absolutePath) || !provider.mayContain(requestor, absolutePath)) {
           ambiguityHandler.providerRejected(requestor, absolutePath, provider);
           continue;
         }
@@ -18,31 +18,48 @@ package org.microbean.loader;
 
 import java.lang.annotation.Annotation;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.Parameter;
+import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Proxy;
 import java.lang.reflect.Type;
 
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
 import java.util.Arrays;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Set;
 import java.util.TreeMap;
 import java.util.TreeSet;
 
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
 import java.util.function.BiFunction;
 import java.util.function.Supplier;
 
 import org.microbean.development.annotation.Convenience;
 
+import org.microbean.invoke.CachingSupplier;
 import org.microbean.invoke.OptionalSupplier;
 import org.microbean.invoke.OptionalSupplier.Determinism;
 
@@ -58,8 +75,11 @@ import org.microbean.path.Path.Element;
 import org.microbean.qualifier.Qualifier;
 import org.microbean.qualifier.Qualifiers;
 
+import org.microbean.type.JavaType.Token;
 import org.microbean.type.JavaTypes;
 
+import static java.lang.invoke.MethodHandles.lookup;
+
 /**
  * An {@link AbstractProvider} that is capable of {@linkplain Proxy
  * proxying} {@linkplain #isProxiable(Loader, Path) certain}
@@ -75,12 +95,34 @@ import org.microbean.type.JavaTypes;
 public class ProxyingProvider extends AbstractProvider {
 
 
+  /*
+   * Static fields.
+   */
+
+
+  /**
+   * The default maximum number of proxies cached per proxied
+   * interface.
+   *
+   * @see #ProxyingProvider(boolean, int)
+   */
+  public static final int DEFAULT_MAXIMUM_CACHE_SIZE = 512;
+
+  private static final Type LIST_OF_OBJECTS = new Token<List<Object>>() {}.type();
+
+  private static final Type MAP_OF_OBJECTS = new Token<Map<String, Object>>() {}.type();
+
+
   /*
    * Instance fields.
    */
 
 
-  private final ConcurrentMap<Path<? extends Type>, Object> proxies;
+  private final ProxyCache proxies;
+
+  private final boolean materialize;
+
+  private final ClassValue<Map<Method, Type>> facadeElementTypes;
 
 
   /*
@@ -96,8 +138,65 @@ public class ProxyingProvider extends AbstractProvider {
    */
   @Deprecated // intended for use by subclasses and java.util.ServiceLoader only
   public ProxyingProvider() {
+    this(false);
+  }
+
+  /**
+   * Creates a new {@link ProxyingProvider}.
+   *
+   * @param materialize whether proxies created by this {@link
+   * ProxyingProvider} should, at creation time, eagerly {@linkplain
+   * Loader#load(Path) load} the values of all of the getter methods
+   * of the interface they implement that take no parameters, rather
+   * than loading them anew on each invocation; see {@link
+   * #newProxyInstance(Loader, Path, Class)} for details
+   *
+   * @see #newProxyInstance(Loader, Path, Class)
+   *
+   * @see #ProxyingProvider(boolean, int)
+   */
+  public ProxyingProvider(final boolean materialize) {
+    this(materialize, DEFAULT_MAXIMUM_CACHE_SIZE);
+  }
+
+  /**
+   * Creates a new {@link ProxyingProvider}.
+   *
+   * <p>Proxies are cached per proxied interface without strongly
+   * referencing the interface, so caching a proxy does not prevent
+   * its interface's {@link ClassLoader} from being unloaded.  Once
+   * more than {@code maximumCacheSize} proxies are cached for a given
+   * interface, the least recently used one is evicted.  Eviction
+   * never affects the identity of objects {@linkplain Loader#get()
+   * supplied} by a given {@link Loader}: each {@link Loader} retains
+   * the proxy it first supplied.</p>
+   *
+   * @param materialize whether proxies created by this {@link
+   * ProxyingProvider} should, at creation time, eagerly {@linkplain
+   * Loader#load(Path) load} the values of all of the getter methods
+   * of the interface they implement that take no parameters, rather
+   * than loading them anew on each invocation; see {@link
+   * #newProxyInstance(Loader, Path, Class)} for details
+   *
+   * @param maximumCacheSize the maximum number of proxies to cache
+   * per proxied interface; must not be negative; {@code 0} disables
+   * caching
+   *
+   * @exception IllegalArgumentException if {@code maximumCacheSize}
+   * is negative
+   *
+   * @see #cacheStatistics()
+   */
+  public ProxyingProvider(final boolean materialize, final int maximumCacheSize) {
     super();
-    this.proxies = new ConcurrentHashMap<>();
+    this.proxies = new ProxyCache(maximumCacheSize);
+    this.materialize = materialize;
+    this.facadeElementTypes = new ClassValue<>() {
+        @Override // ClassValue<Map<Method, Type>>
+        protected final Map<Method, Type> computeValue(final Class<?> c) {
+          return facadeElementTypes(c);
+        }
+      };
   }
 
 
@@ -112,14 +211,52 @@ public class ProxyingProvider extends AbstractProvider {
     assert absolutePath.startsWith(requestor.path());
     assert !absolutePath.equals(requestor.path());
     if (this.isProxiable(requestor, absolutePath)) {
+      // The CachingSupplier ensures that the Loader this Supplier
+      // ends up backing always supplies the same proxy, whether or
+      // not it is later evicted from this ProxyingProvider's cache.
       return
-        OptionalSupplier.of(Determinism.PRESENT,
-                            () -> this.proxies.computeIfAbsent(absolutePath,
-                                                               p -> this.newProxyInstance(requestor, p, JavaTypes.erase(p.qualified()))));
+        OptionalSupplier.of(Determinism.PRESENT, new CachingSupplier<Object>(() -> this.proxy(requestor, absolutePath)));
     }
     return null;
   }
 
+  /**
+   * Returns a {@link CacheStatistics} describing the usage of this
+   * {@link ProxyingProvider}'s proxy cache at the moment of
+   * invocation.
+   *
+   * @return a {@link CacheStatistics}; never {@code null}
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency This method is idempotent but not deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple
+   * threads.
+   *
+   * @see #ProxyingProvider(boolean, int)
+   */
+  public final CacheStatistics cacheStatistics() {
+    return this.proxies.statistics();
+  }
+
+  private final Object proxy(final Loader<?> requestor, final Path<? extends Type> absolutePath) {
+    // We deliberately do not create the proxy while holding any
+    // cache lock because materializing a proxy loads other objects,
+    // some of which may be proxies themselves.  See
+    // DefaultLoader#load(Path) for the same pattern.
+    final Class<?> interfaceToProxy = JavaTypes.erase(absolutePath.qualified());
+    Object proxy = this.proxies.get(interfaceToProxy, absolutePath);
+    if (proxy == null) {
+      proxy = this.newProxyInstance(requestor, absolutePath, interfaceToProxy);
+      final Object existingProxy = this.proxies.putIfAbsent(interfaceToProxy, absolutePath, proxy);
+      if (existingProxy != null) {
+        proxy = existingProxy;
+      }
+    }
+    return proxy;
+  }
+
 
   /**
    * Returns {@code true} if the {@linkplain Path#qualified() type
@@ -357,6 +494,36 @@ public class ProxyingProvider extends AbstractProvider {
    *
    * </ol>
    *
+   * <p>If this {@link ProxyingProvider} was {@linkplain
+   * #ProxyingProvider(boolean) created to materialize} its proxies,
+   * then before the proxy instance is created the values of all
+   * {@code public} instance methods of {@code interfaceToProxy} that
+   * take no parameters and do not return {@code void} are
+   * {@linkplain Loader#load(Path) loaded} in one pass.  Each such
+   * value whose {@link Loader} reports a {@linkplain
+   * Loader#determinism() determinism} other than {@link
+   * Determinism#NON_DETERMINISTIC} is then held by the proxy
+   * instance, so that invoking the corresponding method performs no
+   * further loading.  Materialized proxy instances behave like
+   * records: their {@link Object#equals(Object)}, {@link
+   * Object#hashCode()} and {@link Object#toString()} methods are
+   * implemented in terms of the values they hold.  Methods whose
+   * return types are proxiable interfaces that already appear in
+   * {@code absolutePath} are not materialized, so recursive
+   * interfaces do not cause infinite recursion.</p>
+   *
+   * <p>A method whose generic return type is {@link List
+   * List&lt;E&gt;} or {@link Map Map&lt;String, E&gt;}, where {@code
+   * E} is {@linkplain #isProxiable(Type) proxiable}, returns an
+   * unmodifiable, lazy view.  Only the shape of the underlying
+   * collection (its size, or its keys) is {@linkplain
+   * Loader#load(Path) loaded} when the view is produced; each element
+   * is a proxy instance for {@code E} that is loaded the first time it
+   * is accessed.  The path of a list element is the path of the list
+   * followed by an element bearing the list's name and an {@code
+   * index} qualifier; the path of a map value is the path of the map
+   * followed by an element bearing the value's key.</p>
+   *
    * @param requestor the {@link Loader} performing the current
    * request; must not be {@code null}
    *
@@ -393,7 +560,72 @@ public class ProxyingProvider extends AbstractProvider {
     return
       Proxy.newProxyInstance(interfaceToProxy.getClassLoader(),
                              new Class<?>[] { interfaceToProxy },
-                             new Handler(requestor, absolutePath, (m, args) -> path(m, args)));
+                             new Handler(requestor,
+                                         absolutePath,
+                                         (m, args) -> path(m, args),
+                                         this.materialize ? this.materialize(requestor, absolutePath, interfaceToProxy) : Map.of(),
+                                         this.facadeElementTypes.get(interfaceToProxy)));
+  }
+
+  private final Map<Method, Object> materialize(final Loader<?> requestor,
+                                                final Path<? extends Type> absolutePath,
+                                                final Class<?> interfaceToProxy) {
+    final Map<Method, Object> values = new HashMap<>();
+    final Map<Method, Type> facadeElementTypes = this.facadeElementTypes.get(interfaceToProxy);
+    for (final Method m : interfaceToProxy.getMethods()) {
+      if (m.getParameterCount() == 0 && !Modifier.isStatic(m.getModifiers())) {
+        final Class<?> returnType = m.getReturnType();
+        if (returnType != void.class && returnType != Void.class && !recursive(absolutePath, returnType)) {
+          final Type elementType = facadeElementTypes.get(m);
+          final OptionalSupplier<?> s =
+            elementType == null ?
+            requestor.load(absolutePath.plus(path(m, null))) :
+            facades(requestor, absolutePath, path(m, null), elementType);
+          final Determinism determinism = s.determinism();
+          if (determinism == Determinism.PRESENT) {
+            final Object value = s.get();
+            values.put(m, value == null ? Handler.NULL : value);
+          } else if (determinism != Determinism.NON_DETERMINISTIC) {
+            values.put(m, Handler.ABSENT);
+          }
+        }
+      }
+    }
+    return Map.copyOf(values);
+  }
+
+  private final boolean recursive(final Path<? extends Type> absolutePath, final Class<?> returnType) {
+    if (this.isProxiable(returnType)) {
+      final int size = absolutePath.size();
+      for (int i = 0; i < size; i++) {
+        if (absolutePath.get(i).qualified() instanceof Type t && JavaTypes.erase(t) == returnType) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  private final Map<Method, Type> facadeElementTypes(final Class<?> interfaceToProxy) {
+    final Map<Method, Type> facadeElementTypes = new HashMap<>();
+    for (final Method m : interfaceToProxy.getMethods()) {
+      if (!Modifier.isStatic(m.getModifiers()) && m.getGenericReturnType() instanceof ParameterizedType p) {
+        final Type rawType = p.getRawType();
+        final Type[] typeArguments = p.getActualTypeArguments();
+        final Type elementType;
+        if (rawType == List.class) {
+          elementType = typeArguments[0];
+        } else if (rawType == Map.class && typeArguments[0] == String.class) {
+          elementType = typeArguments[1];
+        } else {
+          continue;
+        }
+        if ((elementType instanceof Class || elementType instanceof ParameterizedType) && this.isProxiable(elementType)) {
+          facadeElementTypes.put(m, elementType);
+        }
+      }
+    }
+    return Map.copyOf(facadeElementTypes);
   }
 
 
@@ -402,6 +634,30 @@ public class ProxyingProvider extends AbstractProvider {
    */
 
 
+  private static final OptionalSupplier<Object> facades(final Loader<?> requestor,
+                                                        final Path<? extends Type> absolutePath,
+                                                        final Path<? extends Type> path,
+                                                        final Type elementType) {
+    // Load only the shape of the collection; its elements are loaded
+    // as proxies on demand by the views below.
+    final Element<? extends Type> last = path.lastElement();
+    final boolean list = JavaTypes.erase(last.qualified()) == List.class;
+    final Path<? extends Type> collectionPath =
+      absolutePath.plus(Path.of(Element.of(last.qualifiers(), list ? LIST_OF_OBJECTS : MAP_OF_OBJECTS, last.name())));
+    final Loader<?> shape = requestor.load(collectionPath);
+    return OptionalSupplier.of(shape.determinism(), () -> {
+        final Object collection = shape.get();
+        if (list && collection instanceof List<?> l) {
+          return new FacadeList(requestor, collectionPath, elementType, last.name(), l.size());
+        } else if (!list && collection instanceof Map<?, ?> m) {
+          return new FacadeMap(requestor, collectionPath, elementType, m);
+        } else {
+          return null;
+        }
+      });
+  }
+
+
   private static final Path<? extends Type> path(final Method m, final Object[] args) {
     final Collection<Qualifier<String, Object>> c;
     final Parameter[] parameters = m.getParameters();
@@ -528,8 +784,130 @@ public class ProxyingProvider extends AbstractProvider {
    */
 
 
+  /**
+   * A snapshot of statistics about a {@link ProxyingProvider}'s
+   * proxy cache.
+   *
+   * @param hits the number of times a proxy was found in the cache
+   *
+   * @param misses the number of times a proxy was not found in the
+   * cache and so had to be created
+   *
+   * @param evictions the number of proxies evicted from the cache
+   * because it was full
+   *
+   * @author <a href="https://about.me/lairdnelson"
+   * target="_parent">Laird Nelson</a>
+   *
+   * @see ProxyingProvider#cacheStatistics()
+   */
+  public static record CacheStatistics(long hits, long misses, long evictions) {}
+
+  private static final class ProxyCache {
+
+    private final int maximumSize;
+
+    // Keyed by proxied interface; ClassValue does not keep its keys
+    // reachable.
+    private final ClassValue<Map<Path<? extends Type>, Object>> maps;
+
+    private final LongAdder hits;
+
+    private final LongAdder misses;
+
+    private final LongAdder evictions;
+
+    private ProxyCache(final int maximumSize) {
+      super();
+      if (maximumSize < 0) {
+        throw new IllegalArgumentException("maximumSize < 0: " + maximumSize);
+      }
+      this.maximumSize = maximumSize;
+      this.hits = new LongAdder();
+      this.misses = new LongAdder();
+      this.evictions = new LongAdder();
+      this.maps = new ClassValue<>() {
+          @Override // ClassValue<Map<Path<? extends Type>, Object>>
+          protected final Map<Path<? extends Type>, Object> computeValue(final Class<?> c) {
+            return new LinkedHashMap<>(16, 0.75f, true /* access order */) {
+              private static final long serialVersionUID = 1L;
+              @Override // LinkedHashMap<Path<? extends Type>, Object>
+              protected final boolean removeEldestEntry(final Map.Entry<Path<? extends Type>, Object> eldest) {
+                if (this.size() > ProxyCache.this.maximumSize) {
+                  ProxyCache.this.evictions.increment();
+                  return true;
+                }
+                return false;
+              }
+            };
+          }
+        };
+    }
+
+    private final Object get(final Class<?> c, final Path<? extends Type> absolutePath) {
+      final Map<Path<? extends Type>, Object> map = this.maps.get(c);
+      final Object proxy;
+      synchronized (map) {
+        proxy = map.get(absolutePath);
+      }
+      if (proxy == null) {
+        this.misses.increment();
+      } else {
+        this.hits.increment();
+      }
+      return proxy;
+    }
+
+    private final Object putIfAbsent(final Class<?> c, final Path<? extends Type> absolutePath, final Object proxy) {
+      final Map<Path<? extends Type>, Object> map = this.maps.get(c);
+      synchronized (map) {
+        return map.putIfAbsent(absolutePath, proxy);
+      }
+    }
+
+    private final CacheStatistics statistics() {
+      return new CacheStatistics(this.hits.sum(), this.misses.sum(), this.evictions.sum());
+    }
+
+  }
+
   private static final class Handler implements InvocationHandler {
 
+    private static final Object NULL = new Object();
+
+    private static final Object ABSENT = new Object();
+
+    private static final Object[] EMPTY_ARGS = new Object[0];
+
+    private static final MethodHandle INVOKE_DEFAULT;
+
+    static {
+      try {
+        INVOKE_DEFAULT =
+          lookup().findStatic(InvocationHandler.class,
+                              "invokeDefault",
+                              MethodType.methodType(Object.class, Object.class, Method.class, Object[].class));
+      } catch (final ReflectiveOperationException e) {
+        throw new ExceptionInInitializerError(e);
+      }
+    }
+
+    /**
+     * Unbound {@link MethodHandle}s that invoke default {@link
+     * Method}s non-virtually, indexed by the interfaces declaring
+     * them.
+     *
+     * <p>A {@link ClassValue} is used so that cached {@link
+     * MethodHandle}s do not prevent interfaces (and their {@link
+     * ClassLoader}s) from being unloaded.</p>
+     */
+    private static final ClassValue<ConcurrentMap<Method, MethodHandle>> DEFAULT_METHOD_HANDLES = new ClassValue<>() {
+        @Override // ClassValue<ConcurrentMap<Method, MethodHandle>>
+        protected final ConcurrentMap<Method, MethodHandle> computeValue(final Class<?> c) {
+          return new ConcurrentHashMap<>();
+        }
+      };
+
     /**
      * A {@link Loader} whose {@link Loader#of(Path)} method will
      * eventually be called by the {@link #invoke(Object, Method,
@@ -568,9 +946,41 @@ public class ProxyingProvider extends AbstractProvider {
 
     private final BiFunction<? super Method, ? super Object[], ? extends Path<? extends Type>> pathFunction;
 
+    /**
+     * An immutable {@link Map} of materialized values indexed by the
+     * {@link Method}s that return them.
+     *
+     * <p>A value of {@link #NULL} indicates a present {@code null}
+     * value.  A value of {@link #ABSENT} indicates a value that is
+     * deterministically absent.  A {@link Method} that is not a key
+     * in this {@link Map} is handled by loading its value on each
+     * invocation.</p>
+     */
+    private final Map<Method, Object> values;
+
+    /**
+     * {@link MethodHandle}s of type {@code (Object[])Object}, bound to
+     * the proxy this {@link Handler} serves, that invoke default
+     * {@link Method}s of the proxied interface.
+     *
+     * @see #defaultValue(Object, Method, Object[])
+     */
+    private final ConcurrentMap<Method, MethodHandle> defaultMethodHandles;
+
+    /**
+     * An immutable {@link Map} of the proxiable element types of
+     * {@link List}- and {@link Map}-typed {@link Method}s, indexed by
+     * those {@link Method}s.
+     *
+     * @see ProxyingProvider#facades(Loader, Path, Path, Type)
+     */
+    private final Map<Method, Type> facadeElementTypes;
+
     private Handler(final Loader<?> requestor,
                     final Path<? extends Type> absolutePath,
-                    final BiFunction<? super Method, ? super Object[], ? extends Path<? extends Type>> pathFunction) {
+                    final BiFunction<? super Method, ? super Object[], ? extends Path<? extends Type>> pathFunction,
+                    final Map<Method, Object> values,
+                    final Map<Method, Type> facadeElementTypes) {
       super();
       if (!absolutePath.absolute()) {
         throw new IllegalArgumentException("!absolutePath.absolute(): " + absolutePath);
@@ -583,40 +993,95 @@ public class ProxyingProvider extends AbstractProvider {
       this.requestor = requestor;
       this.absolutePath = absolutePath;
       this.pathFunction = Objects.requireNonNull(pathFunction, "pathFunction");
-
+      this.values = Objects.requireNonNull(values, "values");
+      this.defaultMethodHandles = new ConcurrentHashMap<>();
+      this.facadeElementTypes = Objects.requireNonNull(facadeElementTypes, "facadeElementTypes");
     }
 
     @Override // InvocationHandler
     public final Object invoke(final Object proxy, final Method m, final Object[] args) throws ReflectiveOperationException {
       if (m.getDeclaringClass() == Object.class) {
+        if (this.values.isEmpty()) {
+          return
+            switch (m.getName()) {
+            case "hashCode" -> System.identityHashCode(proxy);
+            case "equals" -> proxy == args[0];
+            case "toString" -> proxy.getClass().getName() + "@" + Integer.toHexString(System.identityHashCode(proxy));
+            default -> throw new AssertionError("method: " + m);
+            };
+        }
         return
           switch (m.getName()) {
-          case "hashCode" -> System.identityHashCode(proxy);
-          case "equals" -> proxy == args[0];
-          case "toString" -> proxy.getClass().getName() + "@" + Integer.toHexString(System.identityHashCode(proxy));
+          case "hashCode" -> this.values.hashCode();
+          case "equals" -> proxy == args[0] || this.materializedEquals(proxy, args[0]);
+          case "toString" -> this.materializedToString(proxy);
           default -> throw new AssertionError("method: " + m);
           };
       } else {
         final Object returnType = m.getReturnType();
         if (returnType == void.class || returnType == Void.class) {
           return defaultValue(proxy, m, args);
+        }
+        final Object value = this.values.get(m);
+        if (value == NULL) {
+          return null;
+        } else if (value == ABSENT) {
+          return defaultValue(proxy, m, args);
+        } else if (value != null) {
+          return value;
         } else {
           final Path<? extends Type> path = this.pathFunction.apply(m, args);
-          assert path.qualified() == returnType : "path.qualified() != returnType: " + path.qualified() + " != " + returnType;
+          assert m.getGenericReturnType().equals(path.qualified()) :
+            "path.qualified() != m.getGenericReturnType(): " + path.qualified() + " != " + m.getGenericReturnType();
           assert !path.absolute() : "path.absolute(): " + path;
-          final OptionalSupplier<Object> s = this.requestor.load(this.absolutePath.plus(path));
+          final Type elementType = this.facadeElementTypes.get(m);
+          final OptionalSupplier<Object> s =
+            elementType == null ?
+            this.requestor.load(this.absolutePath.plus(path)) :
+            facades(this.requestor, this.absolutePath, path, elementType);
           return s.orElseGet(() -> defaultValue(proxy, m, args));
         }
       }
     }
 
-    private static final Object defaultValue(final Object proxy, final Method m, final Object[] args) {
+    private final boolean materializedEquals(final Object proxy, final Object other) {
+      return
+        other != null &&
+        other.getClass() == proxy.getClass() &&
+        Proxy.getInvocationHandler(other) instanceof Handler her &&
+        this.values.equals(her.values);
+    }
+
+    private final String materializedToString(final Object proxy) {
+      final Class<?> c = proxy.getClass().getInterfaces()[0];
+      final Map<String, Object> sortedValues = new TreeMap<>();
+      for (final Map.Entry<Method, Object> entry : this.values.entrySet()) {
+        final Object value = entry.getValue();
+        if (value != ABSENT) {
+          final Method m = entry.getKey();
+          sortedValues.put(propertyName(m.getName(), m.getReturnType() == boolean.class), value == NULL ? null : value);
+        }
+      }
+      final StringBuilder sb = new StringBuilder(c.getSimpleName()).append('[');
+      final Iterator<Map.Entry<String, Object>> i = sortedValues.entrySet().iterator();
+      while (i.hasNext()) {
+        final Map.Entry<String, Object> entry = i.next();
+        sb.append(entry.getKey()).append('=').append(entry.getValue());
+        if (i.hasNext()) {
+          sb.append(", ");
+        }
+      }
+      return sb.append(']').toString();
+    }
+
+    private final Object defaultValue(final Object proxy, final Method m, final Object[] args) {
       if (m.isDefault()) {
+        // If the current method is a default method of the proxied
+        // interface, invoke it.
+        final MethodHandle mh = this.defaultMethodHandles.computeIfAbsent(m, dm -> boundDefaultMethodHandle(proxy, dm));
         try {
-          // If the current method is a default method of the proxied
-          // interface, invoke it.
-          return InvocationHandler.invokeDefault(proxy, m, args);
-        } catch (final UnsupportedOperationException | Error e) {
+          return (Object)mh.invokeExact(args == null ? EMPTY_ARGS : args);
+        } catch (final RuntimeException | Error e) {
           throw e;
         } catch (final Exception e) {
           throw new UnsupportedOperationException(m.getName(), e);
@@ -629,6 +1094,188 @@ public class ProxyingProvider extends AbstractProvider {
       }
     }
 
+    /**
+     * Returns a {@link MethodHandle} of type {@code (Object[])Object}
+     * that invokes the supplied default {@link Method} on the
+     * supplied {@code proxy} without dispatching back through it.
+     *
+     * <p>If the interface declaring the supplied {@link Method} is
+     * not accessible to this module, then the {@link MethodHandle}
+     * will fall back to {@link InvocationHandler#invokeDefault(Object,
+     * Method, Object[])}.</p>
+     */
+    private static final MethodHandle boundDefaultMethodHandle(final Object proxy, final Method m) {
+      final int parameterCount = m.getParameterCount();
+      return
+        DEFAULT_METHOD_HANDLES.get(m.getDeclaringClass())
+        .computeIfAbsent(m, Handler::defaultMethodHandle)
+        .bindTo(proxy)
+        .asType(MethodType.genericMethodType(parameterCount))
+        .asSpreader(Object[].class, parameterCount);
+    }
+
+    private static final MethodHandle defaultMethodHandle(final Method m) {
+      final Class<?> c = m.getDeclaringClass();
+      final Module module = Handler.class.getModule();
+      try {
+        module.addReads(c.getModule());
+        return MethodHandles.privateLookupIn(c, lookup()).unreflectSpecial(m, c);
+      } catch (final IllegalAccessException e) {
+        // The interface's package is not open to us.
+        return MethodHandles.insertArguments(INVOKE_DEFAULT, 1, m)
+          .asCollector(Object[].class, m.getParameterCount());
+      }
+    }
+
+  }
+
+  /**
+   * An unmodifiable {@link List} of proxy instances, each of which is
+   * {@linkplain Loader#load(Path) loaded} on first access.
+   *
+   * @see ProxyingProvider#facades(Loader, Path, Path, Type)
+   */
+  private static final class FacadeList extends AbstractList<Object> implements RandomAccess {
+
+    private final Loader<?> requestor;
+
+    private final Path<? extends Type> absolutePath;
+
+    private final Type elementType;
+
+    private final String name;
+
+    private final AtomicReferenceArray<Object> elements;
+
+    private FacadeList(final Loader<?> requestor,
+                       final Path<? extends Type> absolutePath,
+                       final Type elementType,
+                       final String name,
+                       final int size) {
+      super();
+      this.requestor = requestor;
+      this.absolutePath = absolutePath;
+      this.elementType = elementType;
+      this.name = name;
+      this.elements = new AtomicReferenceArray<>(size);
+    }
+
+    @Override // AbstractList<Object>
+    public final Object get(final int index) {
+      Object element = this.elements.get(index);
+      if (element == null) {
+        final Path<? extends Type> path =
+          this.absolutePath.plus(Path.of(Element.of(Qualifiers.of(Qualifier.<String, Object>of("index", index)),
+                                                    this.elementType,
+                                                    this.name)));
+        element = this.requestor.load(path).get();
+        if (!this.elements.compareAndSet(index, null, element)) {
+          element = this.elements.get(index);
+        }
+      }
+      return element;
+    }
+
+    @Override // AbstractCollection<Object>
+    public final int size() {
+      return this.elements.length();
+    }
+
+  }
+
+  /**
+   * An unmodifiable {@link Map} of proxy instances, each of which is
+   * {@linkplain Loader#load(Path) loaded} on first access, whose keys
+   * are those of another {@link Map}.
+   *
+   * @see ProxyingProvider#facades(Loader, Path, Path, Type)
+   */
+  private static final class FacadeMap extends AbstractMap<String, Object> {
+
+    private final Loader<?> requestor;
+
+    private final Path<? extends Type> absolutePath;
+
+    private final Type elementType;
+
+    private final Map<?, ?> shape;
+
+    private final ConcurrentMap<String, Object> values;
+
+    private FacadeMap(final Loader<?> requestor,
+                      final Path<? extends Type> absolutePath,
+                      final Type elementType,
+                      final Map<?, ?> shape) {
+      super();
+      this.requestor = requestor;
+      this.absolutePath = absolutePath;
+      this.elementType = elementType;
+      this.shape = shape;
+      this.values = new ConcurrentHashMap<>();
+    }
+
+    @Override // AbstractMap<String, Object>
+    public final boolean containsKey(final Object key) {
+      return key instanceof String && this.shape.containsKey(key);
+    }
+
+    @Override // AbstractMap<String, Object>
+    public final Object get(final Object key) {
+      if (key instanceof String name && this.shape.containsKey(name)) {
+        Object value = this.values.get(name);
+        if (value == null) {
+          // We deliberately do not use computeIfAbsent() here because
+          // loading a proxy may load other objects.
+          value = this.requestor.load(this.absolutePath.plus(Path.of(Element.of(Qualifiers.of(), this.elementType, name)))).get();
+          final Object existingValue = this.values.putIfAbsent(name, value);
+          if (existingValue != null) {
+            value = existingValue;
+          }
+        }
+        return value;
+      }
+      return null;
+    }
+
+    @Override // AbstractMap<String, Object>
+    public final int size() {
+      return this.shape.size();
+    }
+
+    @Override // AbstractMap<String, Object>
+    public final Set<String> keySet() {
+      // Unlike AbstractMap's implementation, this does not load a
+      // proxy per key.
+      @SuppressWarnings("unchecked")
+      final Set<String> keySet = (Set<String>)this.shape.keySet();
+      return Collections.unmodifiableSet(keySet);
+    }
+
+    @Override // AbstractMap<String, Object>
+    public final Set<Map.Entry<String, Object>> entrySet() {
+      return new AbstractSet<>() {
+        @Override // AbstractCollection<Map.Entry<String, Object>>
+        public final Iterator<Map.Entry<String, Object>> iterator() {
+          final Iterator<?> keys = shape.keySet().iterator();
+          return new Iterator<>() {
+            @Override // Iterator<Map.Entry<String, Object>>
+            public final boolean hasNext() {
+              return keys.hasNext();
+            }
+            @Override // Iterator<Map.Entry<String, Object>>
+            public final Map.Entry<String, Object> next() {
+              final String name = (String)keys.next();
+              return new SimpleImmutableEntry<>(name, get(name));
+            }
+          };
+        }
+        @Override // AbstractCollection<Map.Entry<String, Object>>
+        public final int size() {
+          return FacadeMap.this.size();
+        }
+      };
+    }
+
   }
 
 }
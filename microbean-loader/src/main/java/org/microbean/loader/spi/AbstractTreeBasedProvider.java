@@ -16,16 +16,48 @@
  */
 package org.microbean.loader.spi;
 
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+
+import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+import java.net.URI;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.Period;
+import java.time.ZonedDateTime;
+
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Set;
 import java.util.TreeSet;
+import java.util.UUID;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import java.util.function.BiFunction;
 import java.util.function.Supplier;
@@ -44,6 +76,19 @@ import org.microbean.path.Path.Element;
  * An abstract {@link AbstractProvider} whose implementations are
  * built around tree structures of various kinds.
  *
+ * <p>Requests for {@link List List&lt;E&gt;} and {@link Map
+ * Map&lt;String, V&gt;} are satisfied with unmodifiable, lazy views
+ * of the relevant node rather than with collections {@linkplain
+ * #reader(Loader, Path) read} in their entirety; see {@link
+ * #find(Loader, Path)}.  Such views cannot be mutated, and a map view
+ * omits the node's {@linkplain #qualifiers(Object) qualifiers node},
+ * which a collection read in its entirety would ordinarily contain.
+ * Callers that need a collection read by the reader, with whatever
+ * handling of collections the reader applies, should request a
+ * concrete collection type, such as {@link ArrayList
+ * ArrayList&lt;E&gt;} or {@link HashMap HashMap&lt;String,
+ * V&gt;}, instead.</p>
+ *
  * @param <N> the type of a node in the tree
  *
  * @author <a href="https://about.me/lairdnelson"
@@ -52,6 +97,88 @@ import org.microbean.path.Path.Element;
 public abstract class AbstractTreeBasedProvider<N> extends AbstractProvider {
 
 
+  /*
+   * Static fields.
+   */
+
+
+  private static final Object NULL = new Object();
+
+  /**
+   * The maximum number of root nodes for which memos are retained at
+   * any one time.
+   *
+   * @see #treeMemo(Object)
+   */
+  private static final int MAX_TREE_MEMOS = 8;
+
+  private static final Set<Class<?>> IMMUTABLE_TYPES =
+    Set.of(String.class,
+           Boolean.class,
+           Byte.class,
+           Character.class,
+           Short.class,
+           Integer.class,
+           Long.class,
+           Float.class,
+           Double.class,
+           BigInteger.class,
+           BigDecimal.class,
+           Duration.class,
+           Instant.class,
+           LocalDate.class,
+           LocalDateTime.class,
+           LocalTime.class,
+           OffsetDateTime.class,
+           Period.class,
+           ZonedDateTime.class,
+           URI.class,
+           UUID.class);
+
+
+  /*
+   * Instance fields.
+   */
+
+
+  /**
+   * Whether a flat index of every node in a tree is built when its
+   * root node is first seen.
+   *
+   * @see #AbstractTreeBasedProvider(Type, boolean)
+   */
+  private final boolean indexed;
+
+  /**
+   * Memos pertaining to each recently seen root node, keyed weakly by
+   * its identity.
+   *
+   * <p>A {@link TreeMemo} does not itself refer to its root node, so
+   * an entry here lives only as long as its root node is reachable
+   * from elsewhere (for example from a cache of parsed documents) and
+   * is {@linkplain #expungeStaleTreeMemos() expunged} thereafter.</p>
+   *
+   * @see #treeMemo(Object)
+   */
+  private final ConcurrentMap<RootKey, TreeMemo<N>> treeMemos;
+
+  /**
+   * The {@link ReferenceQueue} on which the {@link RootKey}s of
+   * unreachable root nodes are enqueued.
+   *
+   * @see #expungeStaleTreeMemos()
+   */
+  private final ReferenceQueue<Object> staleRootKeys;
+
+  /**
+   * The {@link TreeMemo} most recently returned by the {@link
+   * #treeMemo(Object)} method, or {@code null}.
+   *
+   * @see #treeMemo(Object)
+   */
+  private volatile TreeMemo<N> treeMemo;
+
+
   /*
    * Constructors.
    */
@@ -73,7 +200,49 @@ public abstract class AbstractTreeBasedProvider<N> extends AbstractProvider {
    * bound}; may be {@code null}
    */
   protected AbstractTreeBasedProvider(final Type lowerTypeBound) {
+    this(lowerTypeBound, false);
+  }
+
+  /**
+   * Creates a new {@link AbstractTreeBasedProvider} with the supplied
+   * {@linkplain Provider#lowerBound() lower type bound}.
+   *
+   * <p>If {@code indexed} is {@code true}, then the first time a
+   * given {@linkplain #rootNode(Loader, Path) root node} is seen its
+   * tree is walked in its entirety, and every node in it is recorded
+   * in a flat hash index keyed by the sequence of names (and, for the
+   * children of {@linkplain #list(Object) list nodes}, indices) that
+   * leads to it from the root.  The {@link #find(Loader, Path)}
+   * method then locates a node with a single probe of that index
+   * rather than by descending through the tree one level at a time.
+   * Indexing trades memory proportional to the number of nodes times
+   * their depth, and a full walk of each new tree, for cheaper lookups
+   * in large or deeply nested trees.  Indices, like the other memos
+   * described by {@link #find(Loader, Path)}, are kept for a small
+   * number of root nodes at once, so requests that alternate between
+   * root nodes do not rebuild them.</p>
+   *
+   * <p>The same walk also builds a compact Bloom filter of every such
+   * sequence, which the {@link #mayContain(Loader, Path)} method
+   * consults so that requests for paths that are definitely not in
+   * the tree can be rejected without {@linkplain #rootNode(Loader,
+   * Path) acquiring the root node} at all.  Because the filter
+   * reflects the most recently seen root node, it is consulted only
+   * when the {@link #rootNodeCurrent(Loader, Path, Object)} method
+   * confirms that that root node is the one a request would
+   * get.</p>
+   *
+   * @param lowerTypeBound the {@linkplain #lowerBound() lower type
+   * bound}; may be {@code null}
+   *
+   * @param indexed whether a flat index of every node in a tree
+   * should be built when its root node is first seen
+   */
+  protected AbstractTreeBasedProvider(final Type lowerTypeBound, final boolean indexed) {
     super(lowerTypeBound);
+    this.indexed = indexed;
+    this.treeMemos = new ConcurrentHashMap<>();
+    this.staleRootKeys = new ReferenceQueue<>();
   }
 
 
@@ -363,11 +532,94 @@ public abstract class AbstractTreeBasedProvider<N> extends AbstractProvider {
   protected abstract N qualifiers(final N node);
 
   /**
-   * Returns a {@linkplain FixedValueSupplier#of(Supplier)
-   * deterministic <code>Supplier</code>} suitable for the current
-   * request, represented by the supplied {@code absolutePath}, as
-   * being executed by the supplied {@link Loader}, or {@code null} if
-   * no such {@link Supplier} is or ever will be suitable.
+   * Returns {@code true} if an object of the supplied {@link Type}
+   * that has been {@linkplain #reader(Loader, Path) read} from a
+   * given node may be retained and returned again, instead of being
+   * read anew, the next time the same node is read as the same {@link
+   * Type}.
+   *
+   * <p>Objects so retained are shared by every caller that requests
+   * them, so overrides must return {@code true} only for {@link
+   * Type}s whose instances are immutable, or that callers are known
+   * not to mutate.  Retained objects are discarded when their
+   * {@linkplain #rootNode(Loader, Path) root node} becomes unreachable,
+   * or when too many other root nodes have been seen.</p>
+   *
+   * <p>The default implementation of this method returns {@code
+   * true} if the supplied {@link Type} is a primitive type, an {@code
+   * enum}, or one of a fixed set of immutable JDK classes (such as
+   * {@link String}, the primitive wrapper classes, {@link
+   * BigDecimal}, {@link java.time.Duration} and {@link URI}), and
+   * {@code false} in all other cases.  Overrides may opt in
+   * additional {@link Type}s, such as immutable records bound from
+   * large subtrees, whose repeated deserialization would be
+   * expensive.</p>
+   *
+   * @param type the {@link Type} in question; must not be {@code
+   * null}
+   *
+   * @return {@code true} if an object of the supplied {@link Type}
+   * may be retained and returned again
+   *
+   * @exception NullPointerException if {@code type} is {@code null}
+   *
+   * @idempotency This method is, and its overrides must be,
+   * idempotent and deterministic.
+   *
+   * @threadsafety This method is, and its overrides must be, safe for
+   * concurrent use by multiple threads.
+   */
+  protected boolean memoizable(final Type type) {
+    return type instanceof Class<?> c && (c.isPrimitive() || c.isEnum() || IMMUTABLE_TYPES.contains(c));
+  }
+
+  /**
+   * Returns a {@link Value} suitable for the current request,
+   * represented by the supplied {@code absolutePath}, as being
+   * executed by the supplied {@link Loader}, or {@code null} if no
+   * such {@link Value} is or ever will be suitable.
+   *
+   * <p>This implementation {@linkplain #rootNode(Loader, Path)
+   * acquires the root node} and {@linkplain #reader(Loader, Path) the
+   * reader} once, walks the tree once to find the requested node, and
+   * builds the returned {@link Value}'s {@link Path} as the {@link
+   * #path(Loader, Path, BiFunction)} method would, from the same root
+   * node.  The {@link Value} is therefore returned directly and
+   * {@link AbstractProvider#get(Loader, Path)} does not need to call
+   * {@link #path(Loader, Path)}.</p>
+   *
+   * <p>Nodes resolved along the way are memoized by path prefix, so
+   * that sibling lookups such as {@code /db/primary/host} and {@code
+   * /db/primary/port} resolve {@code /db/primary} only once.  The memo
+   * is tied to the identity of the node returned by {@link
+   * #rootNode(Loader, Path)}, and memos for a small number of root
+   * nodes are kept at once, so a provider whose root node depends on
+   * the request may alternate between them without starting over.  A
+   * memo is discarded when its root node becomes unreachable, for
+   * example because the underlying tree was reloaded and the old one
+   * is no longer cached, or when too many other root nodes have been
+   * seen.  If this {@link AbstractTreeBasedProvider} was
+   * {@linkplain #AbstractTreeBasedProvider(Type, boolean) created
+   * with indexing enabled}, the node is instead located with a single
+   * probe of the root node's index.</p>
+   *
+   * <p>If the requested type is {@link List List&lt;E&gt;} and the
+   * node found is a {@linkplain #list(Object) list node}, or the
+   * requested type is {@link Map Map&lt;String, V&gt;} and the node
+   * found is a {@linkplain #map(Object) map node}, the returned {@link
+   * Value} supplies an unmodifiable, lazy view of the node.  Each
+   * element of such a view is {@linkplain #reader(Loader, Path) read}
+   * as an {@code E} (or a {@code V}) the first time it is accessed,
+   * and not before, so retrieving one element of a large list does
+   * not read all of the others.  A map view does not contain the
+   * node's {@linkplain #qualifiers(Object) qualifiers node}.  Any
+   * other request, including one for a concrete collection type such
+   * as {@link ArrayList ArrayList&lt;E&gt;}, is satisfied by reading
+   * the entire node as the requested type.  If the requested type is {@linkplain
+   * #memoizable(Type) memoizable}, the result of reading a given node
+   * as that type is retained and returned again on subsequent
+   * requests, without reading the node again, until a different root
+   * node is returned.</p>
    *
    * @param requestor the {@link Loader} currently executing a
    * request; must not be {@code null}
@@ -375,7 +627,7 @@ public abstract class AbstractTreeBasedProvider<N> extends AbstractProvider {
    * @param absolutePath the path being requested; must not be {@code
    * null} and must be {@linkplain Path#absolute() absolute}
    *
-   * @return a {@link Supplier}, or {@code null}
+   * @return a {@link Value}, or {@code null}
    *
    * @exception NullPointerException if any argument is {@code null}
    *
@@ -396,62 +648,220 @@ public abstract class AbstractTreeBasedProvider<N> extends AbstractProvider {
     final int size = absolutePath.size();
     assert size > 1; // follows from the above
 
-    N node = this.rootNode(requestor, absolutePath);
-    if (node != null) {
+    final N rootNode = this.rootNode(requestor, absolutePath);
+    if (rootNode == null) {
+      return null;
+    }
 
-      final BiFunction<? super N, ? super Type, ?> reader = this.reader(requestor, absolutePath);
-      if (reader != null) {
+    final BiFunction<? super N, ? super Type, ?> reader = this.reader(requestor, absolutePath);
+    if (reader == null) {
+      return null;
+    }
 
-        boolean containerNode = container(node);
+    final TreeMemo<N> treeMemo = this.treeMemo(rootNode);
+    final N node =
+      treeMemo.index == null ? this.descend(treeMemo, rootNode, absolutePath) : this.probe(treeMemo, rootNode, absolutePath);
+    if (node == null) {
+      return null;
+    }
 
-        for (int i = 1; i < size; i++) { // note that i is 1 on purpose; we skip the first root-designating element
-          final Element<?> element = absolutePath.get(i);
-          final String name = element.name();
+    final Type type = absolutePath.qualified();
+    final Object view = this.view(node, type, reader);
+    // The root node is not read through the memo, since a memoized
+    // value would keep it reachable; see #treeMemos.
+    final Supplier<?> s =
+      FixedValueSupplier.of(view != null ? view : node == rootNode ? reader.apply(node, type) : this.read(treeMemo, reader, node, type));
+    return new Value<>(s, this.valuePath(absolutePath, treeMemo, rootNode, reader));
+  }
 
-          if (name.isEmpty()) {
-            // Empty name means "the current node". The node remains
-            // what it was.
-            continue;
-          }
+  private final N probe(final TreeMemo<N> treeMemo, final N rootNode, final Path<? extends Type> absolutePath) {
+    final int size = absolutePath.size();
+    final Object[] key = new Object[size - 1];
+    int keyLength = 0;
+    boolean ambiguous = false;
+    for (int i = 1; i < size; i++) { // note that i is 1 on purpose; we skip the first root-designating element
+      final Element<?> element = absolutePath.get(i);
+      final String name = element.name();
+      if (!name.isEmpty()) {
+        final int index = index(element);
+        if (index < 0) {
+          key[keyLength++] = name;
+        } else {
+          // A path element bearing an index addresses a child of a
+          // list node by that index, but a child of a map node by its
+          // name.  The index holds only the former.
+          key[keyLength++] = Integer.valueOf(index);
+          ambiguous = true;
+        }
+      }
+    }
+    if (keyLength == 0) {
+      // The index does not hold the root node; see #index(Object).
+      return rootNode;
+    }
+    final N node = treeMemo.index.get(keyLength == key.length ? key : Arrays.copyOf(key, keyLength));
+    return node == null && ambiguous ? this.descend(treeMemo, rootNode, absolutePath) : node;
+  }
 
-          if (!containerNode) {
-            // The name was non-empty, and the prior node was not a
-            // container, so we would be trying to dereference the
-            // name against a value node or a missing node, either of
-            // which is impossible.
-            node = null;
-            break;
-          }
+  private final N descend(final TreeMemo<N> treeMemo, final N rootNode, final Path<? extends Type> absolutePath) {
+    final int size = absolutePath.size();
+    NodeMemo<N> memo = treeMemo.root;
 
-          if (!container(node)) {
-            // The next path element may have an empty name, in which
-            // case it will refer to this node, so the fact that it is
-            // not a container is still as of this moment OK.  Record
-            // this fact so we can make sure on the next pass.
-            // valuePathElements.add(element);
-            containerNode = false;
-            continue;
-          }
+    N node = rootNode;
+    boolean containerNode = container(node);
 
-          if (list(node)) {
-            node = handleListNode(element, node);
-          } else if (map(node)) {
-            node = get(node, name);
-          } else {
-            throw new AssertionError();
-          }
-          if (node == null) {
-            break;
-          }
+    for (int i = 1; i < size; i++) { // note that i is 1 on purpose; we skip the first root-designating element
+      final Element<?> element = absolutePath.get(i);
+      final String name = element.name();
 
-        }
+      if (name.isEmpty()) {
+        // Empty name means "the current node". The node remains what
+        // it was.
+        continue;
+      }
+
+      if (!containerNode) {
+        // The name was non-empty, and the prior node was not a
+        // container, so we would be trying to dereference the name
+        // against a value node or a missing node, either of which is
+        // impossible.
+        return null;
+      }
+
+      if (!container(node)) {
+        // The next path element may have an empty name, in which
+        // case it will refer to this node, so the fact that it is not
+        // a container is still as of this moment OK.  Record this
+        // fact so we can make sure on the next pass.
+        containerNode = false;
+        continue;
+      }
+
+      memo = this.child(memo, node, element, name);
+      if (memo == null) {
+        return null;
+      }
+      node = memo.node;
+
+    }
+    return node;
+  }
 
-        if (node != null) {
-          return FixedValueSupplier.of(reader.apply(node, absolutePath.qualified()));
+  /**
+   * Returns {@code false} if the tree that the {@link
+   * #rootNode(Loader, Path)} method would return for the supplied
+   * arguments definitely does not contain a node for the supplied
+   * {@code absolutePath}, and {@code true} if it might.
+   *
+   * <p>If this {@link AbstractTreeBasedProvider} was not {@linkplain
+   * #AbstractTreeBasedProvider(Type, boolean) created with indexing
+   * enabled}, or no root node has yet been seen, or the {@link
+   * #rootNodeCurrent(Loader, Path, Object)} method returns {@code
+   * false} for the most recently seen root node, this method returns
+   * {@code true}.  Otherwise it consults a Bloom filter built from
+   * the most recently seen tree, without walking it.</p>
+   *
+   * @param requestor the {@link Loader} seeking a {@link Value};
+   * must not be {@code null}
+   *
+   * @param absolutePath an {@linkplain Path#absolute() absolute
+   * <code>Path</code>} for which the supplied {@link Loader} is
+   * seeking a value; must not be {@code null}
+   *
+   * @return {@code false} if the tree definitely does not contain a
+   * node for the supplied {@code absolutePath}; {@code true} if it
+   * might
+   *
+   * @exception NullPointerException if {@code absolutePath} is {@code
+   * null}
+   *
+   * @idempotency This method is neither idempotent nor
+   * deterministic, and no guarantees of either are made of its
+   * overrides.
+   *
+   * @threadsafety This method is, and its overrides must be, safe for
+   * concurrent use by multiple threads.
+   *
+   * @see Provider#mayContain(Loader, Path)
+   *
+   * @see #rootNodeCurrent(Loader, Path, Object)
+   */
+  @Override // Provider
+  public boolean mayContain(final Loader<?> requestor, final Path<? extends Type> absolutePath) {
+    final TreeMemo<N> treeMemo = this.treeMemo;
+    if (treeMemo == null || treeMemo.index == null) {
+      return true;
+    }
+    final N rootNode = treeMemo.rootNode();
+    if (rootNode == null || !this.rootNodeCurrent(requestor, absolutePath, rootNode)) {
+      return true;
+    }
+    // Compute the hash that Arrays.hashCode(Object[]) would compute
+    // for the key the probe(TreeMemo, Object, Path) method would build,
+    // without building it.
+    int hash = 1;
+    boolean root = true;
+    final int size = absolutePath.size();
+    for (int i = 1; i < size; i++) {
+      final Element<?> element = absolutePath.get(i);
+      final String name = element.name();
+      if (!name.isEmpty()) {
+        if (index(element) >= 0) {
+          // Ambiguous; see probe(TreeMemo, Object, Path).
+          return true;
         }
+        hash = 31 * hash + name.hashCode();
+        root = false;
       }
     }
-    return null;
+    // The root node is always present, but is not in the index.
+    return root || treeMemo.index.mayContain(hash);
+  }
+
+  /**
+   * Returns {@code true} if the {@link #rootNode(Loader, Path)}
+   * method, were it invoked now with the supplied arguments, would
+   * certainly return the supplied {@code rootNode}, and {@code false}
+   * if it might return something else.
+   *
+   * <p>The {@link #mayContain(Loader, Path)} method calls this method
+   * with the most recently seen root node to decide whether the Bloom
+   * filter built from it may be used to reject a request.  Returning
+   * {@code true} when the root node may in fact have changed (because
+   * it has been reloaded, say, or because it depends on the request)
+   * causes paths present only in the new root node to be rejected,
+   * so overrides should err on the side of returning {@code
+   * false}.  This method should be much cheaper than the {@link
+   * #rootNode(Loader, Path)} method.</p>
+   *
+   * <p>The default implementation returns {@code false}, so unless
+   * this method is overridden the Bloom filter is never
+   * consulted.</p>
+   *
+   * @param requestor the {@link Loader} seeking a {@link Value};
+   * must not be {@code null}
+   *
+   * @param absolutePath an {@linkplain Path#absolute() absolute
+   * <code>Path</code>} for which the supplied {@link Loader} is
+   * seeking a value; must not be {@code null}
+   *
+   * @param rootNode the most recently seen root node; must not be
+   * {@code null}
+   *
+   * @return {@code true} if the supplied {@code rootNode} is the one
+   * the {@link #rootNode(Loader, Path)} method would return; {@code
+   * false} if it might not be
+   *
+   * @idempotency No guarantees are made of either idempotency or
+   * determinism, either of this implementation or of its overrides.
+   *
+   * @threadsafety This method is, and its overrides must be, safe for
+   * concurrent use by multiple threads.
+   *
+   * @see #mayContain(Loader, Path)
+   */
+  protected boolean rootNodeCurrent(final Loader<?> requestor, final Path<? extends Type> absolutePath, final N rootNode) {
+    return false;
   }
 
   /**
@@ -529,15 +939,22 @@ public abstract class AbstractTreeBasedProvider<N> extends AbstractProvider {
   protected <T extends Type> Path<T> path(final Loader<?> requestor,
                                           final Path<T> absolutePath,
                                           final BiFunction<? super N, ? super Type, ?> reader) {
-    final int size = absolutePath.size();
-    if (size <= 1) {
+    if (absolutePath.size() <= 1) {
       return absolutePath;
     }
-
-    N node = this.rootNode(requestor, absolutePath);
-    if (node == null) {
+    final N rootNode = this.rootNode(requestor, absolutePath);
+    if (rootNode == null) {
       return absolutePath;
     }
+    return this.valuePath(absolutePath, this.treeMemo(rootNode), rootNode, reader);
+  }
+
+  private final <T extends Type> Path<T> valuePath(final Path<T> absolutePath,
+                                                   final TreeMemo<N> treeMemo,
+                                                   final N rootNode,
+                                                   final BiFunction<? super N, ? super Type, ?> reader) {
+    final int size = absolutePath.size();
+    assert size > 1;
 
     Element<?> element = absolutePath.get(0);
     assert element.isRoot();
@@ -547,11 +964,11 @@ public abstract class AbstractTreeBasedProvider<N> extends AbstractProvider {
     final List<Element<?>> valuePathElements = new ArrayList<>(size);
     valuePathElements.add(element);
 
-    N qualifiersNode = qualifiers(node); // often gets a child of this node named "@qualifiers"
-    final Qualifiers<? extends String, ?> valuePathQualifiers = this.qualifiers(reader, qualifiersNode, nextName);
+    N qualifiersNode = qualifiers(rootNode); // often gets a child of this node named "@qualifiers"
+    final Qualifiers<? extends String, ?> valuePathQualifiers = this.qualifiers(treeMemo, reader, qualifiersNode, nextName);
     qualifiersNode = this.get(qualifiersNode, nextName);
 
-    boolean containerNode = this.container(node);
+    final boolean containerNode = this.container(rootNode);
 
     for (int i = 1; i < size; i++) {
       element = absolutePath.get(i);
@@ -565,26 +982,16 @@ public abstract class AbstractTreeBasedProvider<N> extends AbstractProvider {
       }
 
       if (!containerNode) {
-        // The name was non-empty, and the prior node was not a
+        // The name was non-empty, and the root node was not a
         // container, so we would be trying to dereference the name
         // against a value node or a missing node, either of which is
         // impossible.
         return absolutePath;
       }
 
-      if (!this.container(node)) {
-        // The next path element may have an empty name, in which case
-        // it will refer to this node, so the fact that it is not a
-        // container is still as of this moment OK.  Record this fact
-        // so we can make sure on the next pass.
-        valuePathElements.add(element);
-        containerNode = false;
-        continue;
-      }
-
       final boolean hasNext = i + 1 < size;
       nextName = hasNext ? absolutePath.get(i + 1).name() : null;
-      valuePathElements.add(Element.of(qualifiers(reader, qualifiersNode, nextName),
+      valuePathElements.add(Element.of(this.qualifiers(treeMemo, reader, qualifiersNode, nextName),
                                        element.qualified(),
                                        name));
       qualifiersNode = this.get(qualifiersNode, nextName);
@@ -648,36 +1055,741 @@ public abstract class AbstractTreeBasedProvider<N> extends AbstractProvider {
     }
   }
 
-  private final N handleListNode(final Element<?> element, N node) {
-    String key = null;
-    final Qualifiers<String, Object> qs = element.qualifiers();    
-    for (final Qualifier<? extends String, ?> q : qs) {
-      final String name = q.name();
-      if (key == null) {
-        if (name.equals("index")) {
-          key = "index";
-        } else if (name.equals("arg0")) {
-          key = "arg0";
+  private final Object view(final N node, final Type type, final BiFunction<? super N, ? super Type, ?> reader) {
+    final Type rawType;
+    final Type[] typeArguments;
+    if (type instanceof ParameterizedType p) {
+      rawType = p.getRawType();
+      typeArguments = p.getActualTypeArguments();
+    } else {
+      rawType = type;
+      typeArguments = null;
+    }
+    if (rawType == List.class) {
+      if (list(node)) {
+        final Type elementType = typeArguments == null ? Object.class : bound(typeArguments[0]);
+        if (elementType != null) {
+          return new ListView(node, elementType, reader);
         }
       }
-      if (key != null) {
-        int index = -1;
-        final Object value = q.value();
-        if (value instanceof Number n) {
-          index = n.intValue();
-        } else {
-          try {
-            index = Integer.parseInt(value.toString());
-          } catch (final NumberFormatException numberFormatException) {
-            break;
-          }
+    } else if (rawType == Map.class) {
+      if (map(node)) {
+        if (typeArguments == null) {
+          return new MapView(node, Object.class, reader);
         }
-        if (index >= 0) {
-          return get(node, index);
+        final Type keyType = bound(typeArguments[0]);
+        if (keyType == String.class || keyType == Object.class) {
+          final Type valueType = bound(typeArguments[1]);
+          if (valueType != null) {
+            return new MapView(node, valueType, reader);
+          }
         }
       }
     }
     return null;
   }
 
+  private final Qualifiers<? extends String, ?> qualifiers(final TreeMemo<N> treeMemo,
+                                                         final BiFunction<? super N, ? super Type, ?> reader,
+                                                         final N qualifiersNode,
+                                                         final String nextPathElementName) {
+    if (qualifiersNode == null || reader == null) {
+      // Trivial; nothing to cache.
+      return this.qualifiers(reader, qualifiersNode, nextPathElementName);
+    }
+    final QualifiersKey key = new QualifiersKey(qualifiersNode, nextPathElementName);
+    Qualifiers<? extends String, ?> qualifiers = treeMemo.qualifiers.get(key);
+    if (qualifiers == null) {
+      qualifiers = this.qualifiers(reader, qualifiersNode, nextPathElementName);
+      final Qualifiers<? extends String, ?> existingQualifiers = treeMemo.qualifiers.putIfAbsent(key, qualifiers);
+      if (existingQualifiers != null) {
+        qualifiers = existingQualifiers;
+      }
+    }
+    return qualifiers;
+  }
+
+  private final Object read(final TreeMemo<N> treeMemo,
+                            final BiFunction<? super N, ? super Type, ?> reader,
+                            final N node,
+                            final Type type) {
+    if (!this.memoizable(type)) {
+      return reader.apply(node, type);
+    }
+    // The reader is not part of the key: a given node is assumed to
+    // read as the same value of a memoizable type no matter which
+    // reader reads it.
+    final ValueKey key = new ValueKey(node, type);
+    Object value = treeMemo.values.get(key);
+    if (value == null) {
+      value = reader.apply(node, type);
+      if (value == null) {
+        value = NULL;
+      }
+      final Object existingValue = treeMemo.values.putIfAbsent(key, value);
+      if (existingValue != null) {
+        value = existingValue;
+      }
+    }
+    return value == NULL ? null : value;
+  }
+
+  private final TreeMemo<N> treeMemo(final N rootNode) {
+    TreeMemo<N> treeMemo = this.treeMemo;
+    if (treeMemo != null && treeMemo.rootNode() == rootNode) {
+      // The common case: the same root node as last time.
+      return treeMemo;
+    }
+    this.expungeStaleTreeMemos();
+    final RootKey key = new RootKey(rootNode, this.staleRootKeys);
+    treeMemo = this.treeMemos.get(key);
+    if (treeMemo == null) {
+      if (this.treeMemos.size() >= MAX_TREE_MEMOS) {
+        // Racy, so the bound may be overshot slightly, but not for long.
+        this.treeMemos.clear();
+      }
+      final TreeMemo<N> newTreeMemo = new TreeMemo<>(key, this.nodeMemo(null, rootNode), this.indexed ? this.index(rootNode) : null);
+      treeMemo = this.treeMemos.putIfAbsent(key, newTreeMemo);
+      if (treeMemo == null) {
+        treeMemo = newTreeMemo;
+      }
+    }
+    this.treeMemo = treeMemo;
+    return treeMemo;
+  }
+
+  private final void expungeStaleTreeMemos() {
+    Object staleRootKey;
+    while ((staleRootKey = this.staleRootKeys.poll()) != null) {
+      this.treeMemos.remove(staleRootKey);
+    }
+  }
+
+  private final KeyIndex<N> index(final N rootNode) {
+    final List<Object[]> keys = new ArrayList<>();
+    final List<N> nodes = new ArrayList<>();
+    this.index(new ArrayList<>(), rootNode, keys, nodes);
+    return new KeyIndex<>(keys, nodes);
+  }
+
+  private final void index(final List<Object> key, final N node, final List<Object[]> keys, final List<N> nodes) {
+    if (!key.isEmpty()) {
+      // The root node itself is not indexed, so that the index does
+      // not keep it reachable; see #treeMemos.
+      keys.add(key.toArray());
+      nodes.add(node);
+    }
+    if (!container(node)) {
+      return;
+    }
+    if (list(node)) {
+      final int size = size(node);
+      for (int i = 0; i < size; i++) {
+        final N child = get(node, i);
+        if (child != null) {
+          key.add(Integer.valueOf(i));
+          this.index(key, child, keys, nodes);
+          key.remove(key.size() - 1);
+        }
+      }
+    } else {
+      final Iterator<String> names = names(node);
+      while (names.hasNext()) {
+        final String name = names.next();
+        final N child = get(node, name);
+        if (child != null) {
+          key.add(name);
+          this.index(key, child, keys, nodes);
+          key.remove(key.size() - 1);
+        }
+      }
+    }
+  }
+
+  private final NodeMemo<N> child(final NodeMemo<N> memo, final N node, final Element<?> element, final String name) {
+    NodeMemo<N> child;
+    if (memo.elements != null) {
+      // A list node.  Its children are memoized in an array indexed
+      // the same way the node is, so no hashing is involved.
+      final int index = index(element);
+      if (index < 0 || index >= memo.elements.length()) {
+        return null;
+      }
+      child = memo.elements.get(index);
+      if (child == null) {
+        final N childNode = get(node, index);
+        if (childNode == null) {
+          return null;
+        }
+        child = this.nodeMemo(childNode, childNode);
+        if (!memo.elements.compareAndSet(index, null, child)) {
+          child = memo.elements.get(index);
+        }
+      }
+    } else if (memo.children != null) {
+      // A map node.
+      child = memo.children.get(name);
+      if (child == null) {
+        final N childNode = get(node, name);
+        if (childNode == null) {
+          // Misses are not memoized; doing so would let arbitrary
+          // requests grow the memo beyond the size of the tree.
+          return null;
+        }
+        child = this.nodeMemo(childNode, childNode);
+        final NodeMemo<N> existingChild = memo.children.putIfAbsent(name, child);
+        if (existingChild != null) {
+          child = existingChild;
+        }
+      }
+    } else {
+      throw new AssertionError();
+    }
+    return child;
+  }
+
+  // The node memoized is retained, which may be null, as it is for a
+  // root node; see #treeMemos.
+  private final NodeMemo<N> nodeMemo(final N retained, final N node) {
+    if (list(node)) {
+      return new NodeMemo<>(retained, null, new AtomicReferenceArray<>(size(node)));
+    } else if (map(node)) {
+      return new NodeMemo<>(retained, new ConcurrentHashMap<>(), null);
+    } else {
+      return new NodeMemo<>(retained, null, null);
+    }
+  }
+
+
+  /*
+   * Static methods.
+   */
+
+
+  private static final int index(final Element<?> element) {
+    for (final Qualifier<? extends String, ?> q : element.qualifiers()) {
+      final String name = q.name();
+      if (name.equals("index") || name.equals("arg0")) {
+        final Object value = q.value();
+        if (value instanceof Integer i) {
+          return i.intValue();
+        } else if (value instanceof Number n) {
+          final long l = n.longValue();
+          return l < 0L || l > Integer.MAX_VALUE ? -1 : (int)l;
+        } else if (value instanceof CharSequence cs) {
+          // Parse in place rather than via toString() and
+          // Integer#parseInt(String).
+          return parseIndex(cs);
+        }
+        return -1;
+      }
+    }
+    return -1;
+  }
+
+  private static final int parseIndex(final CharSequence cs) {
+    final int length = cs.length();
+    if (length == 0 || length > 10) {
+      return -1;
+    }
+    long index = 0L;
+    for (int i = 0; i < length; i++) {
+      final int digit = cs.charAt(i) - '0';
+      if (digit < 0 || digit > 9) {
+        return -1;
+      }
+      index = index * 10L + digit;
+    }
+    return index > Integer.MAX_VALUE ? -1 : (int)index;
+  }
+
+  private static final Type bound(final Type type) {
+    if (type instanceof WildcardType w) {
+      return w.getLowerBounds().length > 0 ? null : w.getUpperBounds()[0];
+    } else if (type instanceof Class || type instanceof ParameterizedType) {
+      return type;
+    } else {
+      // Type variables and generic array types are left to the
+      // reader.
+      return null;
+    }
+  }
+
+
+  /*
+   * Inner and nested classes.
+   */
+
+
+  /**
+   * Memos pertaining to a single root node, discarded as a unit when
+   * that root node becomes unreachable or when too many root nodes
+   * have been {@linkplain #rootNode(Loader, Path) returned}.
+   *
+   * <p>No memo refers to the root node itself, only to nodes beneath
+   * it.</p>
+   *
+   * @param <N> the type of a node in the tree
+   */
+  private static final class TreeMemo<N> {
+
+    /**
+     * The {@link RootKey} weakly referring to the root node.
+     */
+    private final RootKey key;
+
+    /**
+     * The memo of the root node and, transitively, of every node
+     * resolved beneath it; its {@link NodeMemo#node node} is {@code
+     * null}.
+     *
+     * @see #find(Loader, Path)
+     */
+    private final NodeMemo<N> root;
+
+    /**
+     * {@link Qualifiers} already {@linkplain
+     * #qualifiers(BiFunction, Object, String) computed}, keyed by the
+     * identity of their qualifiers node and by the name of the next
+     * path element.
+     */
+    private final ConcurrentMap<QualifiersKey, Qualifiers<? extends String, ?>> qualifiers;
+
+    /**
+     * A flat index of every node in the tree, or {@code null} if
+     * indexing is {@linkplain #AbstractTreeBasedProvider(Type,
+     * boolean) disabled}.
+     */
+    private final KeyIndex<N> index;
+
+    /**
+     * Objects already {@linkplain #reader(Loader, Path) read} as
+     * {@linkplain #memoizable(Type) memoizable} types, keyed by the
+     * identity of the node they were read from and by the type they
+     * were read as.
+     */
+    private final ConcurrentMap<ValueKey, Object> values;
+
+    private TreeMemo(final RootKey key, final NodeMemo<N> root, final KeyIndex<N> index) {
+      super();
+      this.key = key;
+      this.root = root;
+      this.qualifiers = new ConcurrentHashMap<>();
+      this.index = index;
+      this.values = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Returns the root node, or {@code null} if it has become
+     * unreachable.
+     *
+     * @return the root node, or {@code null}
+     */
+    @SuppressWarnings("unchecked")
+    private final N rootNode() {
+      return (N)this.key.get();
+    }
+
+  }
+
+  /**
+   * A {@link WeakReference} to a root node that is equal to another
+   * only if both refer to the same root node.
+   */
+  private static final class RootKey extends WeakReference<Object> {
+
+    private final int hashCode;
+
+    private RootKey(final Object rootNode, final ReferenceQueue<Object> queue) {
+      super(rootNode, queue);
+      this.hashCode = System.identityHashCode(rootNode);
+    }
+
+    @Override // Object
+    public final int hashCode() {
+      return this.hashCode;
+    }
+
+    @Override // Object
+    public final boolean equals(final Object other) {
+      if (other == this) {
+        return true;
+      } else if (other instanceof RootKey her) {
+        final Object rootNode = this.get();
+        return rootNode != null && rootNode == her.get();
+      } else {
+        return false;
+      }
+    }
+
+  }
+
+  /**
+   * An immutable open-addressing hash table mapping the sequence of
+   * names and list indices leading from a root node to each node in
+   * its tree.
+   *
+   * @param <N> the type of a node in the tree
+   */
+  private static final class KeyIndex<N> {
+
+    private static final int BLOOM_PROBES = 4;
+
+    private final Object[][] keys;
+
+    private final Object[] nodes;
+
+    private final int mask;
+
+    /**
+     * A Bloom filter of every key in this {@link KeyIndex}.
+     */
+    private final long[] bloom;
+
+    private KeyIndex(final List<? extends Object[]> keys, final List<? extends N> nodes) {
+      super();
+      final int size = keys.size();
+      // At least eight bits per key with four probes yields a false
+      // positive rate of at most about two and a half percent.
+      this.bloom = new long[Math.max(1, Integer.highestOneBit(Math.max(1, size) * 8 - 1) >>> 5)];
+      // Keep the load factor at or below one half so that probe
+      // sequences stay short.
+      final int capacity = Integer.highestOneBit(Math.max(2, size) * 2 - 1) << 1;
+      this.keys = new Object[capacity][];
+      this.nodes = new Object[capacity];
+      this.mask = capacity - 1;
+      for (int i = 0; i < size; i++) {
+        final Object[] key = keys.get(i);
+        int slot = hash(key) & this.mask;
+        while (this.keys[slot] != null) {
+          slot = (slot + 1) & this.mask;
+        }
+        this.keys[slot] = key;
+        this.nodes[slot] = nodes.get(i);
+        final int h = Arrays.hashCode(key);
+        final int h2 = mix(h);
+        final int bits = this.bloom.length << 6;
+        for (int j = 0; j < BLOOM_PROBES; j++) {
+          final int bit = (h + j * h2) & (bits - 1);
+          this.bloom[bit >>> 6] |= 1L << bit;
+        }
+      }
+    }
+
+    private final boolean mayContain(final int hash) {
+      final int h2 = mix(hash);
+      final int bits = this.bloom.length << 6;
+      for (int j = 0; j < BLOOM_PROBES; j++) {
+        final int bit = (hash + j * h2) & (bits - 1);
+        if ((this.bloom[bit >>> 6] & (1L << bit)) == 0L) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    private final N get(final Object[] key) {
+      int slot = hash(key) & this.mask;
+      Object[] k;
+      while ((k = this.keys[slot]) != null) {
+        if (Arrays.equals(k, key)) {
+          return (N)this.nodes[slot];
+        }
+        slot = (slot + 1) & this.mask;
+      }
+      return null;
+    }
+
+    private static final int hash(final Object[] key) {
+      final int h = Arrays.hashCode(key);
+      return h ^ (h >>> 16);
+    }
+
+    private static final int mix(int h) {
+      // The finalization step of MurmurHash3; forced odd so that
+      // successive probes are distinct.
+      h ^= h >>> 16;
+      h *= 0x85ebca6b;
+      h ^= h >>> 13;
+      h *= 0xc2b2ae35;
+      h ^= h >>> 16;
+      return h | 1;
+    }
+
+  }
+
+  /**
+   * A key identifying a qualifiers node by identity, together with
+   * the name of the path element that follows it.
+   */
+  private static final record QualifiersKey(Object qualifiersNode, String nextPathElementName) {
+
+    @Override // Record
+    public final int hashCode() {
+      return 31 * System.identityHashCode(this.qualifiersNode()) + Objects.hashCode(this.nextPathElementName());
+    }
+
+    @Override // Record
+    public final boolean equals(final Object other) {
+      return
+        other instanceof QualifiersKey her &&
+        this.qualifiersNode() == her.qualifiersNode() &&
+        Objects.equals(this.nextPathElementName(), her.nextPathElementName());
+    }
+
+  }
+
+  /**
+   * A key identifying a node by identity, together with the {@link
+   * Type} it was read as.
+   */
+  private static final record ValueKey(Object node, Type type) {
+
+    @Override // Record
+    public final int hashCode() {
+      return 31 * System.identityHashCode(this.node()) + this.type().hashCode();
+    }
+
+    @Override // Record
+    public final boolean equals(final Object other) {
+      return
+        other instanceof ValueKey her &&
+        this.node() == her.node() &&
+        this.type().equals(her.type());
+    }
+
+  }
+
+  /**
+   * A resolved node together with memos of those of its children that
+   * have been resolved so far, keyed by name (for {@linkplain
+   * #map(Object) map nodes}) or by index (for {@linkplain
+   * #list(Object) list nodes}).
+   *
+   * @param <N> the type of a node in the tree
+   */
+  private static final class NodeMemo<N> {
+
+    private final N node;
+
+    /**
+     * Memos of children keyed by name if {@link #node} is a
+     * {@linkplain #map(Object) map node}, or {@code null}.
+     */
+    private final ConcurrentMap<String, NodeMemo<N>> children;
+
+    /**
+     * Memos of children indexed by position if {@link #node} is a
+     * {@linkplain #list(Object) list node}, or {@code null}.
+     */
+    private final AtomicReferenceArray<NodeMemo<N>> elements;
+
+    private NodeMemo(final N node,
+                     final ConcurrentMap<String, NodeMemo<N>> children,
+                     final AtomicReferenceArray<NodeMemo<N>> elements) {
+      super();
+      this.node = node;
+      this.children = children;
+      this.elements = elements;
+    }
+
+  }
+
+  /**
+   * An unmodifiable {@link List} view of a {@linkplain
+   * #list(Object) list node} whose elements are {@linkplain
+   * #reader(Loader, Path) read} on first access.
+   */
+  private final class ListView extends AbstractList<Object> implements RandomAccess {
+
+    private final N node;
+
+    private final Type elementType;
+
+    private final BiFunction<? super N, ? super Type, ?> reader;
+
+    private final AtomicReferenceArray<Object> elements;
+
+    private ListView(final N node, final Type elementType, final BiFunction<? super N, ? super Type, ?> reader) {
+      super();
+      this.node = node;
+      this.elementType = elementType;
+      this.reader = reader;
+      this.elements = new AtomicReferenceArray<>(AbstractTreeBasedProvider.this.size(node));
+    }
+
+    @Override // AbstractList<Object>
+    public final Object get(final int index) {
+      Object element = this.elements.get(index);
+      if (element == null) {
+        element = this.reader.apply(AbstractTreeBasedProvider.this.get(this.node, index), this.elementType);
+        if (element == null) {
+          element = NULL;
+        }
+        if (!this.elements.compareAndSet(index, null, element)) {
+          element = this.elements.get(index);
+        }
+      }
+      return element == NULL ? null : element;
+    }
+
+    @Override // AbstractCollection<Object>
+    public final int size() {
+      return this.elements.length();
+    }
+
+  }
+
+  /**
+   * An unmodifiable {@link Map} view of a {@linkplain #map(Object)
+   * map node} whose values are {@linkplain #reader(Loader, Path)
+   * read} on first access.
+   */
+  private final class MapView extends AbstractMap<String, Object> {
+
+    private final N node;
+
+    private final N qualifiersNode;
+
+    private final Type valueType;
+
+    private final BiFunction<? super N, ? super Type, ?> reader;
+
+    private final ConcurrentMap<String, Object> values;
+
+    private volatile int size;
+
+    private MapView(final N node, final Type valueType, final BiFunction<? super N, ? super Type, ?> reader) {
+      super();
+      this.node = node;
+      this.qualifiersNode = AbstractTreeBasedProvider.this.qualifiers(node);
+      this.valueType = valueType;
+      this.reader = reader;
+      this.values = new ConcurrentHashMap<>();
+      this.size = -1;
+    }
+
+    @Override // AbstractMap<String, Object>
+    public final boolean containsKey(final Object key) {
+      return key instanceof String name && this.child(name) != null;
+    }
+
+    @Override // AbstractMap<String, Object>
+    public final Object get(final Object key) {
+      if (key instanceof String name) {
+        final N child = this.child(name);
+        if (child != null) {
+          return this.value(name, child);
+        }
+      }
+      return null;
+    }
+
+    @Override // AbstractMap<String, Object>
+    public final int size() {
+      int size = this.size;
+      if (size < 0) {
+        size = 0;
+        final Iterator<String> names = this.names();
+        while (names.hasNext()) {
+          names.next();
+          ++size;
+        }
+        this.size = size;
+      }
+      return size;
+    }
+
+    @Override // AbstractMap<String, Object>
+    public final Set<String> keySet() {
+      return new AbstractSet<>() {
+        @Override // AbstractCollection<String>
+        public final boolean contains(final Object key) {
+          return containsKey(key);
+        }
+        @Override // AbstractCollection<String>
+        public final Iterator<String> iterator() {
+          return names();
+        }
+        @Override // AbstractCollection<String>
+        public final int size() {
+          return MapView.this.size();
+        }
+      };
+    }
+
+    @Override // AbstractMap<String, Object>
+    public final Set<Map.Entry<String, Object>> entrySet() {
+      return new AbstractSet<>() {
+        @Override // AbstractCollection<Map.Entry<String, Object>>
+        public final Iterator<Map.Entry<String, Object>> iterator() {
+          final Iterator<String> names = names();
+          return new Iterator<>() {
+            @Override // Iterator<Map.Entry<String, Object>>
+            public final boolean hasNext() {
+              return names.hasNext();
+            }
+            @Override // Iterator<Map.Entry<String, Object>>
+            public final Map.Entry<String, Object> next() {
+              final String name = names.next();
+              return new SimpleImmutableEntry<>(name, get(name));
+            }
+          };
+        }
+        @Override // AbstractCollection<Map.Entry<String, Object>>
+        public final int size() {
+          return MapView.this.size();
+        }
+      };
+    }
+
+    private final N child(final String name) {
+      final N child = AbstractTreeBasedProvider.this.get(this.node, name);
+      return child == null || child == this.qualifiersNode || absent(child) ? null : child;
+    }
+
+    private final Object value(final String name, final N child) {
+      Object value = this.values.get(name);
+      if (value == null) {
+        value = this.reader.apply(child, this.valueType);
+        if (value == null) {
+          value = NULL;
+        }
+        final Object existingValue = this.values.putIfAbsent(name, value);
+        if (existingValue != null) {
+          value = existingValue;
+        }
+      }
+      return value == NULL ? null : value;
+    }
+
+    private final Iterator<String> names() {
+      final Iterator<String> names = AbstractTreeBasedProvider.this.names(this.node);
+      return new Iterator<>() {
+        private String next;
+        @Override // Iterator<String>
+        public final boolean hasNext() {
+          while (this.next == null && names.hasNext()) {
+            final String name = names.next();
+            if (child(name) != null) {
+              this.next = name;
+            }
+          }
+          return this.next != null;
+        }
+        @Override // Iterator<String>
+        public final String next() {
+          if (!this.hasNext()) {
+            throw new NoSuchElementException();
+          }
+          final String next = this.next;
+          this.next = null;
+          return next;
+        }
+      };
+    }
+
+  }
+
 }
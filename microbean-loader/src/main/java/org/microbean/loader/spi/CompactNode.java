@@ -0,0 +1,655 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2022 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package org.microbean.loader.spi;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * An immutable, compact, array-based map or list node in a tree of
+ * configuration data, suitable for use with a {@link
+ * CompactTreeProvider}.
+ *
+ * <p>A map node stores the names of its children in a sorted array,
+ * so a child is found by binary search, and the names of all nodes
+ * built by a given {@link Builder} and its descendants are
+ * interned.  {@code boolean}, {@code long} and {@code double}
+ * children are stored unboxed.  Other scalar children, such as
+ * {@link String}s, are stored as references.</p>
+ *
+ * <p>Children are returned by the {@link #get(String)} and {@link
+ * #get(int)} methods as {@link CompactNode}s, {@link String}s,
+ * {@link Boolean}s, {@link Long}s, {@link Double}s, any other
+ * scalar object supplied to a {@link Builder}, or {@link #NULL} for
+ * an explicitly set {@code null} value.</p>
+ *
+ * @author <a href="https://about.me/lairdnelson"
+ * target="_parent">Laird Nelson</a>
+ *
+ * @see CompactTreeProvider
+ *
+ * @see Builder
+ */
+public final class CompactNode {
+
+
+  /*
+   * Static fields.
+   */
+
+
+  /**
+   * An object representing an explicitly set {@code null} value.
+   *
+   * @nullability This field is never {@code null}.
+   */
+  public static final Object NULL = new Object() {
+      @Override // Object
+      public final String toString() {
+        return "null";
+      }
+    };
+
+  private static final byte NULL_KIND = 0;
+
+  private static final byte BOOLEAN_KIND = 1;
+
+  private static final byte LONG_KIND = 2;
+
+  private static final byte DOUBLE_KIND = 3;
+
+  private static final byte REFERENCE_KIND = 4;
+
+
+  /*
+   * Instance fields.
+   */
+
+
+  private final String[] names;
+
+  private final byte[] kinds;
+
+  private final long[] primitives;
+
+  private final Object[] references;
+
+
+  /*
+   * Constructors.
+   */
+
+
+  private CompactNode(final String[] names, final byte[] kinds, final long[] primitives, final Object[] references) {
+    super();
+    this.names = names;
+    this.kinds = kinds;
+    this.primitives = primitives;
+    this.references = references;
+  }
+
+
+  /*
+   * Instance methods.
+   */
+
+
+  /**
+   * Returns {@code true} if this {@link CompactNode} is a map node.
+   *
+   * @return {@code true} if this {@link CompactNode} is a map node
+   *
+   * @idempotency This method is idempotent and deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple
+   * threads.
+   */
+  public final boolean map() {
+    return this.names != null;
+  }
+
+  /**
+   * Returns {@code true} if this {@link CompactNode} is a list node.
+   *
+   * @return {@code true} if this {@link CompactNode} is a list node
+   *
+   * @idempotency This method is idempotent and deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple
+   * threads.
+   */
+  public final boolean list() {
+    return this.names == null;
+  }
+
+  /**
+   * Returns the number of children this {@link CompactNode} has.
+   *
+   * @return the number of children this {@link CompactNode} has
+   *
+   * @idempotency This method is idempotent and deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple
+   * threads.
+   */
+  public final int size() {
+    return this.kinds.length;
+  }
+
+  /**
+   * Returns an {@link Iterator} over the names of this {@link
+   * CompactNode}'s children, in sorted order, or an {@linkplain
+   * Collections#emptyIterator() empty <code>Iterator</code>} if this
+   * {@link CompactNode} is a list node.
+   *
+   * @return an unmodifiable {@link Iterator}; never {@code null}
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency This method is idempotent and deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple
+   * threads.
+   */
+  public final Iterator<String> names() {
+    return this.names == null ? Collections.emptyIterator() : Collections.unmodifiableList(Arrays.asList(this.names)).iterator();
+  }
+
+  /**
+   * Returns the child of this {@link CompactNode} with the supplied
+   * {@code name}, or {@code null} if there is no such child or this
+   * {@link CompactNode} is a list node.
+   *
+   * @param name the name of the child; must not be {@code null}
+   *
+   * @return the child, {@link #NULL} if the child is an explicitly
+   * set {@code null} value, or {@code null}
+   *
+   * @exception NullPointerException if {@code name} is {@code null}
+   *
+   * @nullability This method may return {@code null}.
+   *
+   * @idempotency This method is idempotent and deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple
+   * threads.
+   */
+  public final Object get(final String name) {
+    Objects.requireNonNull(name, "name");
+    if (this.names == null) {
+      return null;
+    }
+    final int index = Arrays.binarySearch(this.names, name);
+    return index < 0 ? null : this.child(index);
+  }
+
+  /**
+   * Returns the child of this {@link CompactNode} at the supplied
+   * {@code index}, or {@code null} if there is no such child or this
+   * {@link CompactNode} is a map node.
+   *
+   * @param index the zero-based index of the child
+   *
+   * @return the child, {@link #NULL} if the child is an explicitly
+   * set {@code null} value, or {@code null}
+   *
+   * @nullability This method may return {@code null}.
+   *
+   * @idempotency This method is idempotent and deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple
+   * threads.
+   */
+  public final Object get(final int index) {
+    return this.names != null || index < 0 || index >= this.kinds.length ? null : this.child(index);
+  }
+
+  private final Object child(final int index) {
+    switch (this.kinds[index]) {
+    case NULL_KIND:
+      return NULL;
+    case BOOLEAN_KIND:
+      return Boolean.valueOf(this.primitive(index) != 0L);
+    case LONG_KIND:
+      return Long.valueOf(this.primitive(index));
+    case DOUBLE_KIND:
+      return Double.valueOf(Double.longBitsToDouble(this.primitive(index)));
+    case REFERENCE_KIND:
+      return this.references[index];
+    default:
+      throw new AssertionError();
+    }
+  }
+
+  private final long primitive(final int index) {
+    // The primitives array is not allocated at all if every primitive
+    // child is zero (or false).
+    return this.primitives == null ? 0L : this.primitives[index];
+  }
+
+  @Override // Object
+  public final String toString() {
+    final StringBuilder sb = new StringBuilder();
+    sb.append(this.names == null ? '[' : '{');
+    for (int i = 0; i < this.kinds.length; i++) {
+      if (i > 0) {
+        sb.append(", ");
+      }
+      if (this.names != null) {
+        sb.append(this.names[i]).append('=');
+      }
+      sb.append(this.child(i));
+    }
+    return sb.append(this.names == null ? ']' : '}').toString();
+  }
+
+
+  /*
+   * Static methods.
+   */
+
+
+  /**
+   * Returns a new {@link Builder} of a map node.
+   *
+   * @return a new {@link Builder}; never {@code null}
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency This method is idempotent but not deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple
+   * threads.
+   */
+  public static final Builder mapBuilder() {
+    return new Builder(true, new HashMap<>());
+  }
+
+  /**
+   * Returns a new {@link Builder} of a list node.
+   *
+   * @return a new {@link Builder}; never {@code null}
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency This method is idempotent but not deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple
+   * threads.
+   */
+  public static final Builder listBuilder() {
+    return new Builder(false, new HashMap<>());
+  }
+
+
+  /*
+   * Inner and nested classes.
+   */
+
+
+  /**
+   * A builder of {@link CompactNode}s.
+   *
+   * <p>A {@link Builder} of a map node accepts children via its
+   * {@code put} methods, and a {@link Builder} of a list node accepts
+   * children via its {@code add} methods.  If a map node {@link
+   * Builder} is given two children with the same name, the last one
+   * wins.</p>
+   *
+   * @author <a href="https://about.me/lairdnelson"
+   * target="_parent">Laird Nelson</a>
+   *
+   * @threadsafety Instances of this class are not safe for
+   * concurrent use by multiple threads.
+   */
+  public static final class Builder {
+
+    private final boolean map;
+
+    private final Map<String, String> internedNames;
+
+    private String[] names;
+
+    private byte[] kinds;
+
+    private long[] primitives;
+
+    private Object[] references;
+
+    private int size;
+
+    private Builder(final boolean map, final Map<String, String> internedNames) {
+      super();
+      this.map = map;
+      this.internedNames = internedNames;
+      this.names = map ? new String[4] : null;
+      this.kinds = new byte[4];
+    }
+
+    /**
+     * Returns a new {@link Builder} of a map node that shares this
+     * {@link Builder}'s interned names.
+     *
+     * @return a new {@link Builder}; never {@code null}
+     *
+     * @nullability This method never returns {@code null}.
+     */
+    public final Builder mapBuilder() {
+      return new Builder(true, this.internedNames);
+    }
+
+    /**
+     * Returns a new {@link Builder} of a list node that shares this
+     * {@link Builder}'s interned names.
+     *
+     * @return a new {@link Builder}; never {@code null}
+     *
+     * @nullability This method never returns {@code null}.
+     */
+    public final Builder listBuilder() {
+      return new Builder(false, this.internedNames);
+    }
+
+    /**
+     * Adds an explicitly set {@code null} value with the supplied
+     * {@code name} to the map node being built.
+     *
+     * @param name the name; must not be {@code null}
+     *
+     * @return this {@link Builder}
+     *
+     * @exception NullPointerException if {@code name} is {@code null}
+     *
+     * @exception IllegalStateException if this {@link Builder} is
+     * building a list node
+     */
+    public final Builder putNull(final String name) {
+      this.name(name);
+      return this.append(NULL_KIND, 0L, null);
+    }
+
+    /**
+     * Adds a {@code boolean} value with the supplied {@code name} to
+     * the map node being built.
+     *
+     * @param name the name; must not be {@code null}
+     *
+     * @param value the value
+     *
+     * @return this {@link Builder}
+     *
+     * @exception NullPointerException if {@code name} is {@code null}
+     *
+     * @exception IllegalStateException if this {@link Builder} is
+     * building a list node
+     */
+    public final Builder put(final String name, final boolean value) {
+      this.name(name);
+      return this.append(BOOLEAN_KIND, value ? 1L : 0L, null);
+    }
+
+    /**
+     * Adds a {@code long} value with the supplied {@code name} to the
+     * map node being built.
+     *
+     * @param name the name; must not be {@code null}
+     *
+     * @param value the value
+     *
+     * @return this {@link Builder}
+     *
+     * @exception NullPointerException if {@code name} is {@code null}
+     *
+     * @exception IllegalStateException if this {@link Builder} is
+     * building a list node
+     */
+    public final Builder put(final String name, final long value) {
+      this.name(name);
+      return this.append(LONG_KIND, value, null);
+    }
+
+    /**
+     * Adds a {@code double} value with the supplied {@code name} to
+     * the map node being built.
+     *
+     * @param name the name; must not be {@code null}
+     *
+     * @param value the value
+     *
+     * @return this {@link Builder}
+     *
+     * @exception NullPointerException if {@code name} is {@code null}
+     *
+     * @exception IllegalStateException if this {@link Builder} is
+     * building a list node
+     */
+    public final Builder put(final String name, final double value) {
+      this.name(name);
+      return this.append(DOUBLE_KIND, Double.doubleToRawLongBits(value), null);
+    }
+
+    /**
+     * Adds a child with the supplied {@code name} to the map node
+     * being built.
+     *
+     * @param name the name; must not be {@code null}
+     *
+     * @param value the value, which must be either a {@link
+     * CompactNode} or an immutable scalar such as a {@link String} or
+     * a {@link java.math.BigDecimal}; may be {@code null} in which
+     * case an explicitly set {@code null} value is added
+     *
+     * @return this {@link Builder}
+     *
+     * @exception NullPointerException if {@code name} is {@code null}
+     *
+     * @exception IllegalStateException if this {@link Builder} is
+     * building a list node
+     */
+    public final Builder put(final String name, final Object value) {
+      this.name(name);
+      return value == null || value == NULL ? this.append(NULL_KIND, 0L, null) : this.append(REFERENCE_KIND, 0L, value);
+    }
+
+    /**
+     * Adds an explicitly set {@code null} value to the list node being
+     * built.
+     *
+     * @return this {@link Builder}
+     *
+     * @exception IllegalStateException if this {@link Builder} is
+     * building a map node
+     */
+    public final Builder addNull() {
+      this.index();
+      return this.append(NULL_KIND, 0L, null);
+    }
+
+    /**
+     * Adds a {@code boolean} value to the list node being built.
+     *
+     * @param value the value
+     *
+     * @return this {@link Builder}
+     *
+     * @exception IllegalStateException if this {@link Builder} is
+     * building a map node
+     */
+    public final Builder add(final boolean value) {
+      this.index();
+      return this.append(BOOLEAN_KIND, value ? 1L : 0L, null);
+    }
+
+    /**
+     * Adds a {@code long} value to the list node being built.
+     *
+     * @param value the value
+     *
+     * @return this {@link Builder}
+     *
+     * @exception IllegalStateException if this {@link Builder} is
+     * building a map node
+     */
+    public final Builder add(final long value) {
+      this.index();
+      return this.append(LONG_KIND, value, null);
+    }
+
+    /**
+     * Adds a {@code double} value to the list node being built.
+     *
+     * @param value the value
+     *
+     * @return this {@link Builder}
+     *
+     * @exception IllegalStateException if this {@link Builder} is
+     * building a map node
+     */
+    public final Builder add(final double value) {
+      this.index();
+      return this.append(DOUBLE_KIND, Double.doubleToRawLongBits(value), null);
+    }
+
+    /**
+     * Adds a child to the list node being built.
+     *
+     * @param value the value, which must be either a {@link
+     * CompactNode} or an immutable scalar such as a {@link String} or
+     * a {@link java.math.BigDecimal}; may be {@code null} in which
+     * case an explicitly set {@code null} value is added
+     *
+     * @return this {@link Builder}
+     *
+     * @exception IllegalStateException if this {@link Builder} is
+     * building a map node
+     */
+    public final Builder add(final Object value) {
+      this.index();
+      return value == null || value == NULL ? this.append(NULL_KIND, 0L, null) : this.append(REFERENCE_KIND, 0L, value);
+    }
+
+    /**
+     * Builds and returns a new {@link CompactNode}.
+     *
+     * <p>This {@link Builder} must not be used after this method has
+     * been called.</p>
+     *
+     * @return a new {@link CompactNode}; never {@code null}
+     *
+     * @nullability This method never returns {@code null}.
+     */
+    public final CompactNode build() {
+      int size = this.size;
+      if (!this.map) {
+        return new CompactNode(null,
+                               Arrays.copyOf(this.kinds, size),
+                               this.primitives == null ? null : Arrays.copyOf(this.primitives, size),
+                               this.references == null ? null : Arrays.copyOf(this.references, size));
+      }
+      // Sort positions by name; for equal names, keep only the last
+      // one added.
+      final Integer[] order = new Integer[size];
+      for (int i = 0; i < size; i++) {
+        order[i] = Integer.valueOf(i);
+      }
+      final String[] names = this.names;
+      Arrays.sort(order, (i, j) -> {
+          final int c = names[i].compareTo(names[j]);
+          return c == 0 ? Integer.compare(i, j) : c;
+        });
+      int n = 0;
+      for (int i = 0; i < size; i++) {
+        if (i + 1 < size && names[order[i]].equals(names[order[i + 1]])) {
+          continue;
+        }
+        order[n++] = order[i];
+      }
+      size = n;
+      final String[] sortedNames = new String[size];
+      final byte[] kinds = new byte[size];
+      final long[] primitives = this.primitives == null ? null : new long[size];
+      final Object[] references = this.references == null ? null : new Object[size];
+      for (int i = 0; i < size; i++) {
+        final int j = order[i];
+        sortedNames[i] = names[j];
+        kinds[i] = this.kinds[j];
+        if (primitives != null) {
+          primitives[i] = this.primitives[j];
+        }
+        if (references != null) {
+          references[i] = this.references[j];
+        }
+      }
+      return new CompactNode(sortedNames, kinds, primitives, references);
+    }
+
+    private final void name(final String name) {
+      if (!this.map) {
+        throw new IllegalStateException("list node");
+      }
+      Objects.requireNonNull(name, "name");
+      if (this.size == this.names.length) {
+        this.names = Arrays.copyOf(this.names, this.size * 2);
+      }
+      String internedName = this.internedNames.putIfAbsent(name, name);
+      if (internedName == null) {
+        internedName = name;
+      }
+      this.names[this.size] = internedName;
+    }
+
+    private final void index() {
+      if (this.map) {
+        throw new IllegalStateException("map node");
+      }
+    }
+
+    private final Builder append(final byte kind, final long primitive, final Object reference) {
+      final int size = this.size;
+      if (size == this.kinds.length) {
+        this.kinds = Arrays.copyOf(this.kinds, size * 2);
+        if (this.primitives != null) {
+          this.primitives = Arrays.copyOf(this.primitives, size * 2);
+        }
+        if (this.references != null) {
+          this.references = Arrays.copyOf(this.references, size * 2);
+        }
+      }
+      this.kinds[size] = kind;
+      if (primitive != 0L) {
+        if (this.primitives == null) {
+          this.primitives = new long[this.kinds.length];
+        }
+        this.primitives[size] = primitive;
+      }
+      if (reference != null) {
+        if (this.references == null) {
+          this.references = new Object[this.kinds.length];
+        }
+        this.references[size] = reference;
+      }
+      this.size = size + 1;
+      return this;
+    }
+
+  }
+
+}
@@ -0,0 +1,430 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2022 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package org.microbean.loader.spi;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
+import org.microbean.loader.api.Loader;
+
+import org.microbean.path.Path;
+
+import org.microbean.type.JavaTypes;
+
+import static java.lang.invoke.MethodType.methodType;
+
+/**
+ * An {@link AbstractTreeBasedProvider} whose tree is made of
+ * immutable, compact {@link CompactNode}s.
+ *
+ * <p>Nodes in a {@link CompactTreeProvider}'s tree are {@link
+ * CompactNode}s (for maps and lists) and plain scalar objects (for
+ * everything else).  Compared to general-purpose tree models, such a
+ * tree retains far less memory per node, and finds the child of a
+ * map node by binary search.</p>
+ *
+ * <p>{@link CompactNode} trees can be built by hand with a {@link
+ * CompactNode.Builder}, or from other formats by modules that
+ * support them.</p>
+ *
+ * @author <a href="https://about.me/lairdnelson"
+ * target="_parent">Laird Nelson</a>
+ *
+ * @see CompactNode
+ *
+ * @see #read(Object, Type)
+ */
+public class CompactTreeProvider extends AbstractTreeBasedProvider<Object> {
+
+
+  /*
+   * Instance fields.
+   */
+
+
+  private final Supplier<? extends CompactNode> rootNodeSupplier;
+
+
+  /*
+   * Constructors.
+   */
+
+
+  /**
+   * Creates a new {@link CompactTreeProvider}.
+   *
+   * @param lowerBound the {@linkplain #lowerBound() lower type bound}
+   * of this {@link CompactTreeProvider} implementation; may be {@code
+   * null}
+   *
+   * @param rootNodeSupplier a {@link Supplier} of the root {@link
+   * CompactNode}; ordinarily callers should supply a {@link Supplier}
+   * that caches; must not be {@code null}
+   *
+   * @exception NullPointerException if {@code rootNodeSupplier} is
+   * {@code null}
+   *
+   * @see #CompactTreeProvider(Type, Supplier, boolean)
+   */
+  public CompactTreeProvider(final Type lowerBound, final Supplier<? extends CompactNode> rootNodeSupplier) {
+    this(lowerBound, rootNodeSupplier, false);
+  }
+
+  /**
+   * Creates a new {@link CompactTreeProvider}.
+   *
+   * @param lowerBound the {@linkplain #lowerBound() lower type bound}
+   * of this {@link CompactTreeProvider} implementation; may be {@code
+   * null}
+   *
+   * @param rootNodeSupplier a {@link Supplier} of the root {@link
+   * CompactNode}; ordinarily callers should supply a {@link Supplier}
+   * that caches; must not be {@code null}
+   *
+   * @param indexed whether a flat index of every node in a tree
+   * should be built when its root node is first seen
+   *
+   * @exception NullPointerException if {@code rootNodeSupplier} is
+   * {@code null}
+   *
+   * @see AbstractTreeBasedProvider#AbstractTreeBasedProvider(Type,
+   * boolean)
+   */
+  public CompactTreeProvider(final Type lowerBound,
+                             final Supplier<? extends CompactNode> rootNodeSupplier,
+                             final boolean indexed) {
+    super(lowerBound, indexed);
+    this.rootNodeSupplier = Objects.requireNonNull(rootNodeSupplier, "rootNodeSupplier");
+  }
+
+
+  /*
+   * Instance methods.
+   */
+
+
+  @Override // AbstractTreeBasedProvider<Object>
+  protected final int size(final Object node) {
+    return node instanceof CompactNode n ? n.size() : 0;
+  }
+
+  @Override // AbstractTreeBasedProvider<Object>
+  protected final Iterator<String> names(final Object node) {
+    return node instanceof CompactNode n ? n.names() : Collections.emptyIterator();
+  }
+
+  @Override // AbstractTreeBasedProvider<Object>
+  protected final Object get(final Object node, final String name) {
+    return node instanceof CompactNode n ? n.get(name) : null;
+  }
+
+  @Override // AbstractTreeBasedProvider<Object>
+  protected final Object get(final Object node, final int index) {
+    return node instanceof CompactNode n ? n.get(index) : null;
+  }
+
+  @Override // AbstractTreeBasedProvider<Object>
+  protected final boolean absent(final Object node) {
+    return node == null;
+  }
+
+  @Override // AbstractTreeBasedProvider<Object>
+  protected final boolean nil(final Object node) {
+    return node == null || node == CompactNode.NULL;
+  }
+
+  @Override // AbstractTreeBasedProvider<Object>
+  protected final boolean map(final Object node) {
+    return node instanceof CompactNode n && n.map();
+  }
+
+  @Override // AbstractTreeBasedProvider<Object>
+  protected final boolean list(final Object node) {
+    return node instanceof CompactNode n && n.list();
+  }
+
+  @Override // AbstractTreeBasedProvider<Object>
+  protected final Object qualifiers(final Object node) {
+    return node instanceof CompactNode n ? n.get("@qualifiers") : null;
+  }
+
+  /**
+   * Returns the root {@link CompactNode} supplied by the {@code
+   * rootNodeSupplier} {@linkplain #CompactTreeProvider(Type,
+   * Supplier, boolean) supplied at construction time}.
+   *
+   * @param requestor the {@link Loader} currently executing a
+   * request; must not be {@code null}
+   *
+   * @param absolutePath the path being requested; must not be {@code
+   * null} and must be {@linkplain Path#absolute() absolute}
+   *
+   * @return the root {@link CompactNode}, or {@code null}
+   *
+   * @nullability This method may return {@code null}.
+   *
+   * @idempotency This method is idempotent and deterministic if the
+   * {@code rootNodeSupplier} {@linkplain #CompactTreeProvider(Type,
+   * Supplier, boolean) supplied at construction time} is.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple
+   * threads if the {@code rootNodeSupplier} {@linkplain
+   * #CompactTreeProvider(Type, Supplier, boolean) supplied at
+   * construction time} is.
+   */
+  @Override // AbstractTreeBasedProvider<Object>
+  protected final Object rootNode(final Loader<?> requestor, final Path<? extends Type> absolutePath) {
+    return this.rootNodeSupplier.get();
+  }
+
+  /**
+   * Returns {@code true} if the {@code rootNodeSupplier} {@linkplain
+   * #CompactTreeProvider(Type, Supplier, boolean) supplied at
+   * construction time} now supplies the supplied {@code rootNode}.
+   *
+   * <p>This invokes the {@code rootNodeSupplier}, so it is cheap only
+   * if the {@code rootNodeSupplier} caches.</p>
+   *
+   * @param requestor the {@link Loader} seeking a value; must not be
+   * {@code null}
+   *
+   * @param absolutePath an {@linkplain Path#absolute() absolute
+   * <code>Path</code>} for which a value is being sought; must not be
+   * {@code null}
+   *
+   * @param rootNode the most recently seen root node; must not be
+   * {@code null}
+   *
+   * @return {@code true} if {@code rootNode} is the current root node
+   *
+   * @threadsafety This method is safe for concurrent use by multiple
+   * threads if the {@code rootNodeSupplier} {@linkplain
+   * #CompactTreeProvider(Type, Supplier, boolean) supplied at
+   * construction time} is.
+   */
+  @Override // AbstractTreeBasedProvider<Object>
+  protected final boolean rootNodeCurrent(final Loader<?> requestor,
+                                          final Path<? extends Type> absolutePath,
+                                          final Object rootNode) {
+    return this.rootNodeSupplier.get() == rootNode;
+  }
+
+  @Override // AbstractTreeBasedProvider<Object>
+  protected final BiFunction<? super Object, ? super Type, ?> reader(final Loader<?> requestor,
+                                                                    final Path<? extends Type> absolutePath) {
+    return this::read;
+  }
+
+  /**
+   * Reads the supplied {@code node} as an object of the supplied
+   * {@link Type} and returns the result, or {@code null} if the
+   * {@code node} cannot be so read.
+   *
+   * <p>The default implementation of this method returns:</p>
+   *
+   * <ul>
+   *
+   * <li>{@code null} if {@code node} is {@code null} or {@link
+   * CompactNode#NULL}</li>
+   *
+   * <li>an unmodifiable {@link Map} or {@link List} of the node's
+   * contents, read recursively, if {@code node} is a {@link
+   * CompactNode} and {@code type} is {@link Map}, {@link List} or one
+   * of their supertypes (such as {@link Object}), and is either raw or
+   * parameterized only with {@link Object} (or, as a {@link Map}'s key
+   * type, {@link String}) or wildcards bounded above by them; a {@link
+   * CompactNode} requested as, say, a {@code List<Integer>} or a
+   * {@code Map<Integer, ?>} is left to overrides to read, since its
+   * contents are not checked against the requested type arguments</li>
+   *
+   * <li>{@code node} itself if it is an instance of {@code type} (or
+   * of its wrapper type, if {@code type} is primitive) and the
+   * preceding case does not apply</li>
+   *
+   * <li>the result of converting a scalar {@code node} to {@code
+   * type} if {@code type} is {@link String}, a primitive or wrapper
+   * type, {@link BigInteger}, {@link BigDecimal} or an {@code enum},
+   * and the conversion loses no information</li>
+   *
+   * <li>{@code null} in all other cases</li>
+   *
+   * </ul>
+   *
+   * <p>Overrides may read additional {@link Type}s, such as
+   * application classes, and should call this implementation for
+   * those {@link Type}s they do not handle themselves.</p>
+   *
+   * @param node the node to read; may be {@code null}
+   *
+   * @param type the {@link Type} to read the node as; must not be
+   * {@code null}
+   *
+   * @return the result of reading {@code node} as an object of the
+   * supplied {@link Type}, or {@code null}
+   *
+   * @exception NullPointerException if {@code type} is {@code null}
+   *
+   * @nullability This method and its overrides may return {@code
+   * null}.
+   *
+   * @idempotency This method is, and its overrides must be,
+   * idempotent and deterministic.
+   *
+   * @threadsafety This method is, and its overrides must be, safe for
+   * concurrent use by multiple threads.
+   */
+  @SuppressWarnings({ "rawtypes", "unchecked" })
+  protected Object read(final Object node, final Type type) {
+    if (node == null || node == CompactNode.NULL) {
+      return null;
+    }
+    Class<?> c = JavaTypes.erase(type);
+    if (c == null) {
+      return null;
+    }
+    if (node instanceof CompactNode n) {
+      // Map and List (and Object) are tested first so that CompactNode,
+      // an implementation detail, is returned only when asked for.
+      if (n.map() ? c.isAssignableFrom(Map.class) : c.isAssignableFrom(List.class)) {
+        // The unwrapped contents are whatever the document holds, so
+        // they are returned only where no element type promises more.
+        return unwrappable(type, n.map()) ? unwrap(n) : null;
+      } else if (c.isInstance(n)) {
+        return n;
+      }
+      return null;
+    }
+    if (c.isPrimitive()) {
+      c = methodType(c).wrap().returnType();
+    }
+    if (c.isInstance(node)) {
+      return node;
+    } else if (c == String.class) {
+      return node.toString();
+    } else if (c.isEnum()) {
+      try {
+        return Enum.valueOf((Class)c, node.toString());
+      } catch (final IllegalArgumentException e) {
+        return null;
+      }
+    } else if (node instanceof Number n) {
+      return convert(n, c);
+    } else if (node instanceof String s) {
+      if (c == Boolean.class) {
+        return s.equals("true") ? Boolean.TRUE : s.equals("false") ? Boolean.FALSE : null;
+      }
+      try {
+        return convert(new BigDecimal(s), c);
+      } catch (final NumberFormatException e) {
+        return null;
+      }
+    }
+    return null;
+  }
+
+
+  /*
+   * Static methods.
+   */
+
+
+  private static final boolean unwrappable(final Type type, final boolean map) {
+    if (type instanceof Class) {
+      return true;
+    } else if (type instanceof ParameterizedType p) {
+      final Type[] args = p.getActualTypeArguments();
+      for (int i = 0; i < args.length; i++) {
+        if (!holds(args[i], map && i == 0)) {
+          return false;
+        }
+      }
+      return true;
+    }
+    return false;
+  }
+
+  private static final boolean holds(final Type typeArgument, final boolean key) {
+    final Type t = typeArgument instanceof WildcardType w ? w.getUpperBounds()[0] : typeArgument;
+    return t == Object.class || key && t == String.class;
+  }
+
+  private static final Object unwrap(final Object node) {
+    if (node == CompactNode.NULL) {
+      return null;
+    } else if (node instanceof CompactNode n) {
+      final int size = n.size();
+      if (n.map()) {
+        final Map<String, Object> map = new LinkedHashMap<>();
+        final Iterator<String> names = n.names();
+        while (names.hasNext()) {
+          final String name = names.next();
+          map.put(name, unwrap(n.get(name)));
+        }
+        return Collections.unmodifiableMap(map);
+      }
+      final List<Object> list = new ArrayList<>(size);
+      for (int i = 0; i < size; i++) {
+        list.add(unwrap(n.get(i)));
+      }
+      return Collections.unmodifiableList(list);
+    }
+    return node;
+  }
+
+  private static final Object convert(final Number n, final Class<?> c) {
+    try {
+      final BigDecimal d = n instanceof BigDecimal bd ? bd : n instanceof BigInteger bi ? new BigDecimal(bi) : new BigDecimal(n.toString());
+      if (c == Integer.class) {
+        return Integer.valueOf(d.intValueExact());
+      } else if (c == Long.class) {
+        return Long.valueOf(d.longValueExact());
+      } else if (c == Short.class) {
+        return Short.valueOf(d.shortValueExact());
+      } else if (c == Byte.class) {
+        return Byte.valueOf(d.byteValueExact());
+      } else if (c == BigInteger.class) {
+        return d.toBigIntegerExact();
+      } else if (c == BigDecimal.class) {
+        return d;
+      } else if (c == Double.class) {
+        return Double.valueOf(d.doubleValue());
+      } else if (c == Float.class) {
+        return Float.valueOf(d.floatValue());
+      }
+    } catch (final ArithmeticException | NumberFormatException e) {
+      // Not exactly representable, or not finite.
+      return null;
+    }
+    return null;
+  }
+
+}
@@ -108,6 +108,54 @@ public interface Provider {
     return null; // the lowest possible type, assignable to all others
   }
 
+  /**
+   * Returns {@code false} if this {@link Provider} definitely cannot
+   * {@linkplain #get(Loader, Path) supply} a {@link Value} for the
+   * supplied {@link Loader} and {@link Path}, and {@code true} if it
+   * might.
+   *
+   * <p>This method is a cheap pre-check.  A caller such as {@link
+   * org.microbean.loader.DefaultLoader} may use it to skip calling
+   * the {@link #get(Loader, Path)} method altogether.  Overrides may
+   * therefore return {@code false} only when the {@link #get(Loader,
+   * Path)} method would return {@code null} for the same arguments,
+   * and should do far less work than that method would to make that
+   * determination.  False positives are permitted; false negatives
+   * are not.</p>
+   *
+   * <p>Like the {@link #lowerBound()} method, this method is used
+   * solely to help eliminate {@link Provider}s from consideration,
+   * not permit them.</p>
+   *
+   * <p>The default implementation of this method returns {@code
+   * true}.</p>
+   *
+   * @param requestor the {@link Loader} seeking a {@link Value};
+   * must not be {@code null}
+   *
+   * @param absolutePath an {@linkplain Path#absolute() absolute
+   * <code>Path</code>} for which the supplied {@link Loader} is
+   * seeking a value; must not be {@code null}
+   *
+   * @return {@code false} if this {@link Provider} definitely cannot
+   * supply a {@link Value} for the supplied arguments; {@code true}
+   * if it might
+   *
+   * @exception NullPointerException if either {@code requestor} or
+   * {@code absolutePath} is {@code null}
+   *
+   * @idempotency No guarantees are made of either idempotency or
+   * determinism, either of this implementation or of its overrides.
+   *
+   * @threadsafety This method is, and overrides of this method must
+   * be, safe for concurrent use by multiple threads.
+   *
+   * @see #get(Loader, Path)
+   */
+  public default boolean mayContain(final Loader<?> requestor, final Path<? extends Type> absolutePath) {
+    return true;
+  }
+
   /**
    * Returns a {@link Value} suitable for the supplied {@link Loader}
    * and {@link Path}, <strong>or {@code null} if there is no such
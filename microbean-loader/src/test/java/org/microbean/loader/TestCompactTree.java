@@ -0,0 +1,144 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2022 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package org.microbean.loader;
+
+import java.lang.reflect.Type;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import org.microbean.loader.api.Loader;
+
+import org.microbean.loader.spi.CompactNode;
+import org.microbean.loader.spi.CompactTreeProvider;
+
+import org.microbean.path.Path;
+import org.microbean.path.Path.Element;
+
+import org.microbean.qualifier.Qualifier;
+import org.microbean.qualifier.Qualifiers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+final class TestCompactTree {
+
+  private TestCompactTree() {
+    super();
+  }
+
+  @Test
+  final void testBuilder() {
+    final CompactNode.Builder b = CompactNode.mapBuilder();
+    b.put("port", 5432L);
+    b.put("host", "localhost");
+    b.put("ratio", 0.5D);
+    b.put("enabled", true);
+    b.putNull("password");
+    b.put("host", "example.com"); // the last duplicate wins
+    b.put("replicas", b.listBuilder().add("a").add("b").build());
+    final CompactNode node = b.build();
+    assertTrue(node.map());
+    assertFalse(node.list());
+    assertEquals(6, node.size());
+    final Iterator<String> names = node.names();
+    assertEquals("enabled", names.next()); // names are sorted
+    assertEquals("host", names.next());
+    assertEquals("example.com", node.get("host"));
+    assertEquals(Long.valueOf(5432L), node.get("port"));
+    assertEquals(Double.valueOf(0.5D), node.get("ratio"));
+    assertEquals(Boolean.TRUE, node.get("enabled"));
+    assertSame(CompactNode.NULL, node.get("password"));
+    assertNull(node.get("nope"));
+    final CompactNode replicas = (CompactNode)node.get("replicas");
+    assertTrue(replicas.list());
+    assertEquals("b", replicas.get(1));
+    assertNull(replicas.get(2));
+  }
+
+  @Test
+  final void testLoads() {
+    final CompactNode.Builder b = CompactNode.mapBuilder();
+    final CompactNode db = b.mapBuilder()
+      .put("host", "localhost")
+      .put("port", 5432L)
+      .put("replicas", b.listBuilder().add("a").add("b").build())
+      .build();
+    b.put("db", db);
+    final CompactNode root = b.build();
+    final Loader<?> loader = new DefaultLoader<>(List.of(new CompactTreeProvider(null, () -> root)));
+    assertEquals("localhost", loader.load(String.class, List.of("db", "host")).get());
+    assertEquals("5432", loader.load(String.class, List.of("db", "port")).get());
+    assertEquals(Integer.valueOf(5432), loader.load(Integer.class, List.of("db", "port")).get());
+    assertEquals(Map.of("host", "localhost", "port", 5432L, "replicas", List.of("a", "b")),
+                 loader.load(Map.class, List.of("db")).get());
+    // CompactNode is an implementation detail, so Object yields a Map
+    // or List as other tree-based providers do.
+    assertEquals(Map.of("host", "localhost", "port", 5432L, "replicas", List.of("a", "b")),
+                 loader.load(Object.class, List.of("db")).get());
+    assertEquals(List.of("a", "b"), loader.load(List.class, List.of("db", "replicas")).get());
+    assertEquals(List.of("a", "b"), loader.load(Object.class, List.of("db", "replicas")).get());
+    final Path<? extends Type> secondReplica =
+      Path.of(List.of(Element.of(Object.class, "db"), Element.of(Object.class, "replicas")),
+              Element.of(Qualifiers.of(Qualifier.<String, Object>of("index", 1)), String.class, "replicas"));
+    assertEquals("b", loader.load(secondReplica).get());
+  }
+
+  @Test
+  final void testParameterizedCollectionsAreNotUnwrapped() throws NoSuchMethodException {
+    final CompactNode.Builder b = CompactNode.mapBuilder();
+    b.put("replicas", b.listBuilder().add("a").add("b").build());
+    b.put("ports", b.mapBuilder().put("http", 80L).build());
+    final CompactNode root = b.build();
+    final Loader<?> loader = new DefaultLoader<>(List.of(new CompactTreeProvider(null, () -> root)));
+    assertEquals(List.of("a", "b"), loader.load(Path.of(Element.of(type("objects"), "replicas"))).get());
+    assertEquals(List.of("a", "b"), loader.load(Path.of(Element.of(type("wildcards"), "replicas"))).get());
+    assertEquals(Map.of("http", 80L), loader.load(Path.of(Element.of(type("stringKeys"), "ports"))).get());
+    // Unwrapping these would put Strings where Integers were promised.
+    assertNull(loader.load(Path.of(Element.of(type("integers"), "replicas"))).orElse(null));
+    assertNull(loader.load(Path.of(Element.of(type("iterable"), "replicas"))).orElse(null));
+    assertNull(loader.load(Path.of(Element.of(type("integerKeys"), "ports"))).orElse(null));
+  }
+
+  private static final Type type(final String name) throws NoSuchMethodException {
+    return Types.class.getDeclaredMethod(name).getGenericReturnType();
+  }
+
+  private static interface Types {
+
+    List<Object> objects();
+
+    Collection<?> wildcards();
+
+    Map<String, Object> stringKeys();
+
+    Collection<Integer> integers();
+
+    Iterable<Integer> iterable();
+
+    Map<Integer, ?> integerKeys();
+
+  }
+
+}
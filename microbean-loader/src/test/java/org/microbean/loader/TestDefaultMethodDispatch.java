@@ -0,0 +1,69 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2022 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package org.microbean.loader;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import org.microbean.loader.api.Loader;
+
+import org.microbean.loader.spi.LoaderFacade;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import static org.microbean.loader.api.Loader.loader;
+
+final class TestDefaultMethodDispatch {
+
+  private TestDefaultMethodDispatch() {
+    super();
+  }
+
+  @Test
+  final void testDefaults() {
+    final Timeouts timeouts = facade();
+    assertEquals(30, timeouts.getConnectTimeout());
+    assertEquals(60, timeouts.getReadTimeout());
+    final IllegalStateException e = assertThrows(IllegalStateException.class, timeouts::getWriteTimeout);
+    assertEquals("writeTimeout", e.getMessage());
+  }
+
+  private static final Timeouts facade() {
+    final Loader<?> loader = ((DefaultLoader<?>)loader()).with(List.of(new ProxyingProvider(true)));
+    return loader.load(Timeouts.class).get();
+  }
+
+  @LoaderFacade
+  public static interface Timeouts {
+
+    public default int getConnectTimeout() {
+      return 30;
+    }
+
+    public default int getReadTimeout() {
+      return this.getConnectTimeout() * 2;
+    }
+
+    public default int getWriteTimeout() {
+      throw new IllegalStateException("writeTimeout");
+    }
+
+  }
+
+}
@@ -0,0 +1,206 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2022 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package org.microbean.loader;
+
+import java.lang.invoke.MethodHandle;
+
+import java.lang.reflect.Type;
+
+import java.util.List;
+
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+
+import org.microbean.loader.TestProxyingProvider.Car;
+import org.microbean.loader.TestProxyingProvider.HostProvider;
+import org.microbean.loader.TestProxyingProvider.Server;
+
+import org.microbean.loader.api.Loader;
+
+import org.microbean.path.Path;
+
+import static java.lang.invoke.MethodHandles.publicLookup;
+
+import static java.lang.invoke.MethodType.methodType;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import static org.microbean.loader.api.Loader.loader;
+
+// Allocation budgets for the facade operations that sit on the
+// hottest path into the loader.  Each ceiling is a small multiple of
+// what the operation allocates in the steady state: a proxy and its
+// Handler; or, for an unmaterialized getter, the relative and
+// absolute Paths (and Qualifiers) for each load() it performs and a
+// cache probe.  That leaves room for JDK and JIT variation but not
+// for a reparse, a lost cache or an accidental eager load.
+//
+// FacadeBenchmark in microbean-loader-benchmarks measures the latency
+// of the same operations and, with -prof gc, their allocation.
+final class TestFacadeBudgets {
+
+  private static final int WARMUP_ITERATIONS = 20_000;
+
+  private static final int ITERATIONS = 20_000;
+
+  private static final MethodHandle THREAD_ALLOCATED_BYTES;
+
+  static {
+    // This test class is patched into the org.microbean.loader
+    // module, which does not read java.management or jdk.management,
+    // so com.sun.management.ThreadMXBean#getThreadAllocatedBytes(long)
+    // is reached reflectively.
+    MethodHandle mh = null;
+    try {
+      final Object threadMXBean =
+        Class.forName("java.lang.management.ManagementFactory").getMethod("getThreadMXBean").invoke(null);
+      final Class<?> c = Class.forName("com.sun.management.ThreadMXBean");
+      if (c.isInstance(threadMXBean) && (Boolean)c.getMethod("isThreadAllocatedMemorySupported").invoke(threadMXBean)) {
+        c.getMethod("setThreadAllocatedMemoryEnabled", boolean.class).invoke(threadMXBean, Boolean.TRUE);
+        mh = publicLookup().findVirtual(c, "getThreadAllocatedBytes", methodType(long.class, long.class)).bindTo(threadMXBean);
+      }
+    } catch (final ReflectiveOperationException | RuntimeException e) {
+      mh = null;
+    }
+    THREAD_ALLOCATED_BYTES = mh;
+  }
+
+  private static volatile Object sink;
+
+  private TestFacadeBudgets() {
+    super();
+  }
+
+  @Test
+  final void proxyCreation() {
+    assertBytesPerCallAtMost(2 * 1024, proxyCreationOperation());
+  }
+
+  @Test
+  final void zeroArgumentGetter() {
+    assertBytesPerCallAtMost(4 * 1024, zeroArgumentGetterOperation());
+  }
+
+  @Test
+  final void materializedZeroArgumentGetter() {
+    assertBytesPerCallAtMost(64, materializedZeroArgumentGetterOperation());
+  }
+
+  @Test
+  final void indexedGetter() {
+    assertBytesPerCallAtMost(8 * 1024, indexedGetterOperation());
+  }
+
+  @Test
+  final void nestedFacadeTraversal() {
+    assertBytesPerCallAtMost(8 * 1024, nestedFacadeTraversalOperation());
+  }
+
+  @Test
+  final void defaultMethodFallback() {
+    assertBytesPerCallAtMost(4 * 1024, defaultMethodFallbackOperation());
+  }
+
+  @Test
+  final void materializedDefaultMethodFallback() {
+    assertBytesPerCallAtMost(64, materializedDefaultMethodFallbackOperation());
+  }
+
+  /*
+   * Operations.
+   */
+
+
+  private static final Supplier<?> proxyCreationOperation() {
+    final ProxyingProvider pp = new ProxyingProvider(false);
+    final Loader<?> loader = new DefaultLoader<>(List.of(pp));
+    final Path<? extends Type> absolutePath = loader.load(Car.class).path();
+    return () -> pp.newProxyInstance(loader, absolutePath, Car.class);
+  }
+
+  private static final Supplier<?> zeroArgumentGetterOperation() {
+    final Car car = new DefaultLoader<>(List.of(new ProxyingProvider(false))).load(Car.class).get();
+    return car::getPowertrain;
+  }
+
+  private static final Supplier<?> materializedZeroArgumentGetterOperation() {
+    final Server server = serverLoader(true).load(Server.class).get();
+    return server::getHost;
+  }
+
+  private static final Supplier<?> indexedGetterOperation() {
+    final Car car = new DefaultLoader<>(List.of(new ProxyingProvider(false))).load(Car.class).get();
+    return () -> car.getWheel("LF");
+  }
+
+  private static final Supplier<?> nestedFacadeTraversalOperation() {
+    final Car car = new DefaultLoader<>(List.of(new ProxyingProvider(false))).load(Car.class).get();
+    return () -> car.getPowertrain().getEngine();
+  }
+
+  private static final Supplier<?> defaultMethodFallbackOperation() {
+    final Server server = serverLoader(false).load(Server.class).get();
+    return server::getPort;
+  }
+
+  private static final Supplier<?> materializedDefaultMethodFallbackOperation() {
+    final Server server = serverLoader(true).load(Server.class).get();
+    return server::getPort;
+  }
+
+  private static final Loader<?> serverLoader(final boolean materialize) {
+    return ((DefaultLoader<?>)loader()).with(List.of(new ProxyingProvider(materialize), new HostProvider()));
+  }
+
+
+  /*
+   * Measurement.
+   */
+
+
+  private static final void assertBytesPerCallAtMost(final long ceiling, final Supplier<?> operation) {
+    assumeTrue(THREAD_ALLOCATED_BYTES != null, "thread allocation measurement is not supported");
+    final double bytesPerCall = bytesPerCall(operation);
+    assertTrue(bytesPerCall <= ceiling, bytesPerCall + " bytes/call > " + ceiling);
+  }
+
+  private static final double bytesPerCall(final Supplier<?> operation) {
+    for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+      sink = operation.get();
+    }
+    final long id = Thread.currentThread().getId();
+    final long start = threadAllocatedBytes(id);
+    for (int i = 0; i < ITERATIONS; i++) {
+      sink = operation.get();
+    }
+    return (double)(threadAllocatedBytes(id) - start) / ITERATIONS;
+  }
+
+  private static final long threadAllocatedBytes(final long id) {
+    try {
+      return (long)THREAD_ALLOCATED_BYTES.invokeExact(id);
+    } catch (final RuntimeException | Error e) {
+      throw e;
+    } catch (final Throwable e) {
+      throw new AssertionError(e.getMessage(), e);
+    }
+  }
+
+}
@@ -19,8 +19,13 @@ package org.microbean.loader;
 import java.lang.reflect.Type;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+
+import java.util.concurrent.atomic.AtomicInteger;
 
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -78,6 +83,58 @@ final class TestProxyingProvider {
     assertEquals(24, car.getWheel("LR").getDiameterInInches());
   }
 
+  @Test
+  final void materialized() {
+    final HostProvider hostProvider = new HostProvider();
+    final Loader<?> loader =
+      ((DefaultLoader<?>)loader()).with(List.of(new ProxyingProvider(true), hostProvider));
+    final Server server = loader.load(Server.class).get();
+    assertNotNull(server);
+    final int finds = hostProvider.finds.get();
+    assertTrue(finds > 0);
+    assertEquals("localhost", server.getHost());
+    assertEquals(8080, server.getPort());
+    assertEquals("localhost", server.getHost());
+    assertEquals(finds, hostProvider.finds.get());
+    assertEquals("Server[host=localhost]", server.toString());
+  }
+
+  @Test
+  final void cache() {
+    final ProxyingProvider pp = new ProxyingProvider(false, 1);
+    final Car car = new DefaultLoader<>(List.of(pp)).load(Car.class).get();
+    assertNotNull(car.getWheel("LF"));
+    assertNotNull(car.getWheel("RF"));
+    ProxyingProvider.CacheStatistics stats = pp.cacheStatistics();
+    assertEquals(0L, stats.hits());
+    assertEquals(3L, stats.misses());
+    assertEquals(1L, stats.evictions());
+    assertSame(car, new DefaultLoader<>(List.of(pp)).load(Car.class).get());
+    stats = pp.cacheStatistics();
+    assertEquals(1L, stats.hits());
+    assertEquals(3L, stats.misses());
+  }
+
+  @Test
+  final void facadeCollections() {
+    final ClusterProvider clusterProvider = new ClusterProvider();
+    final Loader<?> loader =
+      ((DefaultLoader<?>)loader()).with(List.of(new ProxyingProvider(false), clusterProvider));
+    final Cluster cluster = loader.load(Cluster.class).get();
+    final List<Server> servers = cluster.getServers();
+    assertEquals(10_000, servers.size());
+    assertEquals(0, clusterProvider.hosts.get());
+    final Server server = servers.get(9_999);
+    assertSame(server, servers.get(9_999));
+    assertEquals("server-9999", server.getHost());
+    assertEquals(1, clusterProvider.hosts.get());
+    final Map<String, Server> serversByName = cluster.getServersByName();
+    assertEquals(Set.of("a", "b"), serversByName.keySet());
+    assertEquals(1, clusterProvider.hosts.get());
+    assertEquals("b", serversByName.get("b").getHost());
+    assertFalse(serversByName.containsKey("c"));
+  }
+
   @LoaderFacade
   public static interface Car {
 
@@ -112,6 +169,75 @@ final class TestProxyingProvider {
 
   }
 
+  @LoaderFacade
+  public static interface Server {
+
+    public String getHost();
+
+    public default int getPort() {
+      return 8080;
+    }
+
+  }
+
+  @LoaderFacade
+  public static interface Cluster {
+
+    public List<Server> getServers();
+
+    public Map<String, Server> getServersByName();
+
+  }
+
+  public static final class ClusterProvider extends AbstractProvider {
+
+    private final AtomicInteger hosts;
+
+    public ClusterProvider() {
+      super();
+      this.hosts = new AtomicInteger();
+    }
+
+    @Override
+    protected final Supplier<?> find(final Loader<?> requestor, final Path<? extends Type> path) {
+      final Element<? extends Type> last = path.lastElement();
+      switch (last.name()) {
+      case "servers":
+        return JavaTypes.erase(path.qualified()) == List.class ? FixedValueSupplier.of(Collections.nCopies(10_000, "")) : null;
+      case "serversByName":
+        return JavaTypes.erase(path.qualified()) == Map.class ? FixedValueSupplier.of(Map.of("a", "", "b", "")) : null;
+      case "host":
+        if (path.qualified() == String.class) {
+          this.hosts.incrementAndGet();
+          final Element<?> server = path.get(path.size() - 2);
+          final Object index = server.qualifiers().uniqueValue("index");
+          return FixedValueSupplier.of(index == null ? server.name() : "server-" + index);
+        }
+        return null;
+      default:
+        return null;
+      }
+    }
+
+  }
+
+  public static final class HostProvider extends AbstractProvider {
+
+    private final AtomicInteger finds;
+
+    public HostProvider() {
+      super(String.class);
+      this.finds = new AtomicInteger();
+    }
+
+    @Override
+    protected final Supplier<?> find(final Loader<?> requestor, final Path<? extends Type> path) {
+      this.finds.incrementAndGet();
+      return "host".equals(path.lastElement().name()) ? FixedValueSupplier.of("localhost") : null;
+    }
+
+  }
+
   public static final class LRWheelProvider extends AbstractProvider {
 
     public LRWheelProvider() {
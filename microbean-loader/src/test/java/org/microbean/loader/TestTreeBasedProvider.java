@@ -0,0 +1,292 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2022 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package org.microbean.loader;
+
+import java.lang.reflect.Type;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import java.util.function.BiFunction;
+
+import org.junit.jupiter.api.Test;
+
+import org.microbean.loader.api.Loader;
+
+import org.microbean.loader.spi.AbstractTreeBasedProvider;
+
+import org.microbean.path.Path;
+import org.microbean.path.Path.Element;
+
+import org.microbean.qualifier.Qualifier;
+import org.microbean.qualifier.Qualifiers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+final class TestTreeBasedProvider {
+
+  private TestTreeBasedProvider() {
+    super();
+  }
+
+  @Test
+  final void testPrefixesResolvedOnce() {
+    final MapTreeProvider provider =
+      new MapTreeProvider(Map.of("db", Map.of("primary", Map.of("host", "localhost", "port", "5432"))));
+    final Loader<?> loader = new DefaultLoader<>(List.of(provider));
+    assertEquals("localhost", loader.load(String.class, List.of("db", "primary", "host")).get());
+    assertEquals("5432", loader.load(String.class, List.of("db", "primary", "port")).get());
+    assertEquals(1, provider.gets("db"));
+    assertEquals(1, provider.gets("primary"));
+    assertEquals(1, provider.gets("host"));
+    assertEquals(1, provider.gets("port"));
+
+    // A new root node invalidates what was memoized beneath the old one.
+    provider.root = Map.of("db", Map.of("primary", Map.of("host", "example.com", "port", "5432")));
+    assertEquals("example.com", new DefaultLoader<>(List.of(provider)).load(String.class, List.of("db", "primary", "host")).get());
+    assertEquals(2, provider.gets("primary"));
+  }
+
+  @Test
+  final void testQualifiersComputedOnce() {
+    final MapTreeProvider provider =
+      new MapTreeProvider(Map.of("@qualifiers", Map.of("env", "test"),
+                                 "db", Map.of("host", "localhost", "port", "5432")));
+    final Loader<?> loader = new DefaultLoader<>(List.of(provider));
+    assertEquals("localhost", loader.load(String.class, List.of("db", "host")).get());
+    final int qualifiersComputations = provider.qualifiersComputations.get();
+    assertEquals("5432", loader.load(String.class, List.of("db", "port")).get());
+    assertEquals(qualifiersComputations, provider.qualifiersComputations.get());
+  }
+
+  @Test
+  final void testIndexedLookups() {
+    final Object root =
+      Map.of("db", Map.of("primary", Map.of("host", "localhost")),
+             "servers", List.of(Map.of("host", "a"), Map.of("host", "b")));
+    final MapTreeProvider provider = new MapTreeProvider(root, true);
+    final Loader<?> loader = new DefaultLoader<>(List.of(provider));
+    assertEquals("localhost", loader.load(String.class, List.of("db", "primary", "host")).get());
+    final int gets = provider.gets("primary");
+    assertEquals("localhost", loader.load(String.class, List.of("db", "primary", "host")).get());
+    assertEquals(gets, provider.gets("primary")); // ...because the index was probed, not the tree
+    final int rootNodes = provider.rootNodes.get();
+    assertNull(loader.load(String.class, List.of("db", "secondary", "host")).orElse(null));
+    assertEquals(rootNodes, provider.rootNodes.get()); // ...because the Bloom filter rejected the path
+    final Path<? extends Type> secondServerHost =
+      Path.of(List.of(Element.of(Object.class, "servers"),
+                      Element.of(Qualifiers.of(Qualifier.<String, Object>of("index", 1)), Object.class, "servers")),
+              Element.of(String.class, "host"));
+    assertEquals("b", loader.load(secondServerHost).get());
+    assertEquals("b", new DefaultLoader<>(List.of(new MapTreeProvider(root))).load(secondServerHost).get());
+  }
+
+  @Test
+  final void testIndexedLookupsSeeNewRoot() {
+    final MapTreeProvider provider = new MapTreeProvider(Map.of("db", Map.of("host", "localhost")), true);
+    assertEquals("localhost", new DefaultLoader<>(List.of(provider)).load(String.class, List.of("db", "host")).get());
+    provider.root = Map.of("db", Map.of("host", "localhost", "port", "5432"));
+    // The Bloom filter was built from the old root, so it must not be
+    // used to reject a path that only the new root contains.
+    assertEquals("5432", new DefaultLoader<>(List.of(provider)).load(String.class, List.of("db", "port")).get());
+  }
+
+  @Test
+  final void testAlternatingRootsKeepTheirMemos() {
+    final Object a = Map.of("db", Map.of("primary", Map.of("host", "a")));
+    final Object b = Map.of("db", Map.of("primary", Map.of("host", "b")));
+    final MapTreeProvider provider = new MapTreeProvider(a, true);
+    final Loader<?> loader = new DefaultLoader<>(List.of(provider));
+    assertEquals("a", loader.load(String.class, List.of("db", "primary", "host")).get());
+    provider.root = b;
+    assertEquals("b", new DefaultLoader<>(List.of(provider)).load(String.class, List.of("db", "primary", "host")).get());
+    final int gets = provider.gets("primary");
+    for (int i = 0; i < 4; i++) {
+      provider.root = a;
+      assertEquals("a", new DefaultLoader<>(List.of(provider)).load(String.class, List.of("db", "primary", "host")).get());
+      provider.root = b;
+      assertEquals("b", new DefaultLoader<>(List.of(provider)).load(String.class, List.of("db", "primary", "host")).get());
+    }
+    assertEquals(gets, provider.gets("primary")); // ...because neither tree was walked again
+  }
+
+  @Test
+  final void testImmutableValuesReadOnce() {
+    final MapTreeProvider provider = new MapTreeProvider(Map.of("db", Map.of("host", "localhost")));
+    final Loader<?> loader = new DefaultLoader<>(List.of(provider));
+    assertEquals("localhost", loader.load(String.class, List.of("db", "host")).get());
+    assertEquals("localhost", new DefaultLoader<>(List.of(provider)).load(String.class, List.of("db", "host")).get());
+    assertEquals(1, provider.reads.get());
+    // Map is not memoizable, so every request reads the node anew.
+    assertEquals(Map.of("host", "localhost"), loader.load(Object.class, List.of("db")).get());
+    assertEquals(Map.of("host", "localhost"), new DefaultLoader<>(List.of(provider)).load(Object.class, List.of("db")).get());
+    assertEquals(3, provider.reads.get());
+  }
+
+  @Test
+  final void testListElements() {
+    final List<String> hosts = new ArrayList<>();
+    for (int i = 0; i < 10_000; i++) {
+      hosts.add("host-" + i);
+    }
+    final Loader<?> loader = new DefaultLoader<>(List.of(new MapTreeProvider(Map.of("hosts", hosts))));
+    for (int i = 0; i < hosts.size(); i++) {
+      assertEquals(hosts.get(i), loader.load(listElement(String.class, "hosts", i)).get());
+    }
+    // Indices supplied as strings are parsed.
+    assertEquals("host-42", loader.load(listElement(String.class, "hosts", "42")).get());
+    assertNull(loader.load(listElement(String.class, "hosts", 10_000)).orElse(null));
+    assertNull(loader.load(listElement(String.class, "hosts", "x")).orElse(null));
+  }
+
+  private static final Path<? extends Type> listElement(final Type type, final String name, final Object index) {
+    return Path.of(List.of(Element.of(Object.class, name)),
+                   Element.of(Qualifiers.of(Qualifier.<String, Object>of("index", index)), type, name));
+  }
+
+  static final class MapTreeProvider extends AbstractTreeBasedProvider<Object> {
+
+    volatile Object root;
+
+    private final Map<String, AtomicInteger> gets;
+
+    final AtomicInteger qualifiersComputations;
+
+    final AtomicInteger reads;
+
+    final AtomicInteger rootNodes;
+
+    MapTreeProvider(final Object root) {
+      this(root, false);
+    }
+
+    MapTreeProvider(final Object root, final boolean indexed) {
+      super(String.class, indexed); // keeps DefaultLoader from asking for its AmbiguityHandler
+      this.root = root;
+      this.gets = new ConcurrentHashMap<>();
+      this.qualifiersComputations = new AtomicInteger();
+      this.reads = new AtomicInteger();
+      this.rootNodes = new AtomicInteger();
+    }
+
+    final int gets(final String name) {
+      final AtomicInteger i = this.gets.get(name);
+      return i == null ? 0 : i.get();
+    }
+
+    @Override
+    protected final int size(final Object node) {
+      if (node instanceof Map<?, ?> m) {
+        return m.size();
+      } else if (node instanceof List<?> l) {
+        return l.size();
+      }
+      return 0;
+    }
+
+    @Override
+    protected final Iterator<String> names(final Object node) {
+      if (node instanceof Map<?, ?> m) {
+        @SuppressWarnings("unchecked")
+        final Iterator<String> i = (Iterator<String>)m.keySet().iterator();
+        return i;
+      }
+      return Collections.emptyIterator();
+    }
+
+    @Override
+    protected final Object get(final Object node, final String name) {
+      if (node instanceof Map<?, ?> m) {
+        this.gets.computeIfAbsent(name, n -> new AtomicInteger()).incrementAndGet();
+        return m.get(name);
+      }
+      return null;
+    }
+
+    @Override
+    protected final Object get(final Object node, final int index) {
+      return node instanceof List<?> l && index < l.size() ? l.get(index) : null;
+    }
+
+    @Override
+    protected final boolean absent(final Object node) {
+      return node == null;
+    }
+
+    @Override
+    protected final boolean nil(final Object node) {
+      return node == null;
+    }
+
+    @Override
+    protected final boolean map(final Object node) {
+      return node instanceof Map;
+    }
+
+    @Override
+    protected final boolean list(final Object node) {
+      return node instanceof List;
+    }
+
+    @Override
+    protected final BiFunction<? super Object, ? super Type, ?> reader(final Loader<?> requestor,
+                                                                      final Path<? extends Type> absolutePath) {
+      return (node, type) -> {
+        this.reads.incrementAndGet();
+        return node;
+      };
+    }
+
+    @Override
+    protected final Object rootNode(final Loader<?> requestor, final Path<? extends Type> absolutePath) {
+      this.rootNodes.incrementAndGet();
+      return this.root;
+    }
+
+    @Override
+    protected final boolean rootNodeCurrent(final Loader<?> requestor,
+                                            final Path<? extends Type> absolutePath,
+                                            final Object rootNode) {
+      return rootNode == this.root;
+    }
+
+    @Override
+    protected final Object qualifiers(final Object node) {
+      return node instanceof Map<?, ?> m ? m.get("@qualifiers") : null;
+    }
+
+    @Override
+    protected final Qualifiers<? extends String, ?> qualifiers(final BiFunction<? super Object, ? super Type, ?> reader,
+                                                               final Object qualifiersNode,
+                                                               final String nextPathElementName) {
+      if (qualifiersNode != null) {
+        this.qualifiersComputations.incrementAndGet();
+      }
+      return super.qualifiers(reader, qualifiersNode, nextPathElementName);
+    }
+
+  }
+
+}